@@ -0,0 +1,150 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+import javassist.bytecode.Descriptor;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * Generates with Javassist a class implementing a mapper interface, where each abstract method calls a
+ * {@link MapperMethod} bound when the class is generated. Default methods are inherited from the interface.
+ *
+ * @since 3.5.4
+ */
+class MapperClassGenerator {
+
+  private static final String CLASS_NAME_SUFFIX = "$$MyBatisMapper";
+  // each configuration generates its own class in the class loader of the interface
+  private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+  private MapperClassGenerator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Generates the implementation of a mapper interface.
+   *
+   * @return a constructor taking the {@link SqlSession} and the bound {@link MapperMethod} array
+   * @throws BindingException if a method is not bound to a statement
+   * @throws Exception if the class cannot be generated or defined
+   */
+  static <T> GeneratedMapper<T> generate(Class<T> mapperInterface, Configuration config) throws Exception {
+    List<Method> methods = new ArrayList<>();
+    Set<List<Object>> signatures = new HashSet<>();
+    for (Method method : mapperInterface.getMethods()) {
+      if (Modifier.isAbstract(method.getModifiers()) && !isObjectMethod(method)
+          && signatures.add(signatureOf(method))) {
+        methods.add(method);
+      }
+    }
+    MapperMethod[] mapperMethods = new MapperMethod[methods.size()];
+    for (int i = 0; i < mapperMethods.length; i++) {
+      mapperMethods[i] = new MapperMethod(mapperInterface, methods.get(i), config);
+    }
+
+    ClassPool pool = new ClassPool(true);
+    pool.appendClassPath(new LoaderClassPath(mapperInterface.getClassLoader()));
+    pool.appendClassPath(new LoaderClassPath(MapperClassGenerator.class.getClassLoader()));
+    CtClass ctClass = pool.makeClass(mapperInterface.getName() + CLASS_NAME_SUFFIX + CLASS_COUNTER.incrementAndGet());
+    ctClass.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
+    ctClass.addInterface(pool.get(mapperInterface.getName()));
+    ctClass.addField(CtField.make("private final " + SqlSession.class.getName() + " sqlSession;", ctClass));
+    ctClass.addField(CtField.make("private final " + MapperMethod.class.getName() + "[] methods;", ctClass));
+    CtConstructor constructor = CtNewConstructor.make("public " + ctClass.getSimpleName() + "("
+        + SqlSession.class.getName() + " sqlSession, " + MapperMethod.class.getName() + "[] methods) {"
+        + " this.sqlSession = sqlSession; this.methods = methods; }", ctClass);
+    ctClass.addConstructor(constructor);
+    for (int i = 0; i < methods.size(); i++) {
+      Method method = methods.get(i);
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      CtClass[] ctParameterTypes = new CtClass[parameterTypes.length];
+      for (int j = 0; j < parameterTypes.length; j++) {
+        ctParameterTypes[j] = toCtClass(pool, parameterTypes[j]);
+      }
+      CtMethod ctMethod = new CtMethod(toCtClass(pool, method.getReturnType()), method.getName(), ctParameterTypes, ctClass);
+      String call = "methods[" + i + "].execute(sqlSession, $args)";
+      ctMethod.setBody(void.class.equals(method.getReturnType()) ? "{ " + call + "; }" : "{ return ($r) " + call + "; }");
+      ctClass.addMethod(ctMethod);
+    }
+    Class<?> generated = ctClass.toClass(mapperInterface);
+    ctClass.detach();
+    @SuppressWarnings("unchecked")
+    Constructor<T> generatedConstructor = (Constructor<T>) generated.getConstructor(SqlSession.class, MapperMethod[].class);
+    return new GeneratedMapper<>(generatedConstructor, mapperMethods);
+  }
+
+  private static CtClass toCtClass(ClassPool pool, Class<?> type) throws NotFoundException {
+    // the name of an array class is its descriptor with dots, e.g. [Ljava.lang.String;
+    return type.isArray() ? Descriptor.toCtClass(type.getName().replace('.', '/'), pool) : pool.get(type.getName());
+  }
+
+  private static List<Object> signatureOf(Method method) {
+    List<Object> signature = new ArrayList<>();
+    signature.add(method.getName());
+    signature.add(method.getReturnType());
+    signature.addAll(Arrays.asList(method.getParameterTypes()));
+    return signature;
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  static class GeneratedMapper<T> {
+
+    private final Constructor<T> constructor;
+    private final MapperMethod[] methods;
+
+    GeneratedMapper(Constructor<T> constructor, MapperMethod[] methods) {
+      this.constructor = constructor;
+      this.methods = methods;
+    }
+
+    T newInstance(SqlSession sqlSession) {
+      try {
+        return constructor.newInstance(sqlSession, methods);
+      } catch (ReflectiveOperationException e) {
+        throw new BindingException("Error instantiating generated mapper " + constructor.getDeclaringClass().getName() + ". Cause: " + e, e);
+      }
+    }
+  }
+
+}
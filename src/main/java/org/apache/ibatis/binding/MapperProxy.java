@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -90,6 +90,11 @@ public class MapperProxy<T> implements InvocationHandler, Serializable {
   }
 
   private MapperMethodInvoker cachedInvoker(Object proxy, Method method, Object[] args) throws Throwable {
+    // a plain get does not lock, unlike computeIfAbsent on some JDK 8 updates
+    MapperMethodInvoker invoker = methodCache.get(method);
+    if (invoker != null) {
+      return invoker;
+    }
     try {
       return methodCache.computeIfAbsent(method, m -> {
         if (m.isDefault()) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,7 +20,11 @@ import java.lang.reflect.Proxy;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.ibatis.binding.MapperClassGenerator.GeneratedMapper;
 import org.apache.ibatis.binding.MapperProxy.MapperMethodInvoker;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 
 /**
@@ -30,6 +34,8 @@ public class MapperProxyFactory<T> {
 
   private final Class<T> mapperInterface;
   private final Map<Method, MapperMethodInvoker> methodCache = new ConcurrentHashMap<>();
+  private volatile GeneratedMapper<T> generatedMapper;
+  private volatile boolean generationFailed;
 
   public MapperProxyFactory(Class<T> mapperInterface) {
     this.mapperInterface = mapperInterface;
@@ -49,8 +55,35 @@ public class MapperProxyFactory<T> {
   }
 
   public T newInstance(SqlSession sqlSession) {
+    if (sqlSession.getConfiguration().isUseGeneratedMappers()) {
+      GeneratedMapper<T> generated = getGeneratedMapper(sqlSession.getConfiguration());
+      if (generated != null) {
+        return generated.newInstance(sqlSession);
+      }
+    }
     final MapperProxy<T> mapperProxy = new MapperProxy<>(sqlSession, mapperInterface, methodCache);
     return newInstance(mapperProxy);
   }
 
+  GeneratedMapper<T> getGeneratedMapper(Configuration config) {
+    if (generatedMapper == null && !generationFailed) {
+      synchronized (this) {
+        if (generatedMapper == null && !generationFailed) {
+          try {
+            generatedMapper = MapperClassGenerator.generate(mapperInterface, config);
+          } catch (Exception | LinkageError e) {
+            // e.g. a method without statement, or Javassist is not available
+            generationFailed = true;
+            Log log = LogFactory.getLog(MapperProxyFactory.class);
+            if (log.isDebugEnabled()) {
+              log.debug("Could not generate an implementation of " + mapperInterface.getName()
+                  + ", a dynamic proxy is used instead. Cause: " + e);
+            }
+          }
+        }
+      }
+    }
+    return generatedMapper;
+  }
+
 }
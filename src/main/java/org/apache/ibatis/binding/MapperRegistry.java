@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -79,6 +79,18 @@ public class MapperRegistry {
     }
   }
 
+  /**
+   * Generates the implementations of the known mappers when they are not generated yet.
+   *
+   * @since 3.5.4
+   * @see Configuration#isUseGeneratedMappers()
+   */
+  public void generateMappers() {
+    for (MapperProxyFactory<?> mapperProxyFactory : knownMappers.values()) {
+      mapperProxyFactory.getGeneratedMapper(config);
+    }
+  }
+
   /**
    * @since 3.2.2
    */
@@ -0,0 +1,81 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.function.Supplier;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * A {@link SqlSource} that is built by its language driver the first time it is used.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.session.Configuration#isLazySqlSourceEnabled()
+ */
+public class LazySqlSource implements SqlSource {
+
+  private final String statementId;
+  private Supplier<SqlSource> builder;
+  private volatile SqlSource delegate;
+
+  /**
+   * @param statementId the id of the statement, used in error messages
+   * @param builder builds the actual sql source, it must not share a DOM document with other builders
+   *        as a document must not be read concurrently
+   */
+  public LazySqlSource(String statementId, Supplier<SqlSource> builder) {
+    this.statementId = statementId;
+    this.builder = builder;
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    return getSqlSource().getBoundSql(parameterObject);
+  }
+
+  /**
+   * @return the actual sql source, built on the first call
+   */
+  public SqlSource getSqlSource() {
+    SqlSource sqlSource = delegate;
+    if (sqlSource == null) {
+      synchronized (this) {
+        sqlSource = delegate;
+        if (sqlSource == null) {
+          try {
+            sqlSource = builder.get();
+          } catch (RuntimeException e) {
+            throw new BuilderException("Error building the SQL of statement '" + statementId + "'. Cause: " + e, e);
+          }
+          delegate = sqlSource;
+          // the builder holds the DOM of the statement
+          builder = null;
+        }
+      }
+    }
+    return sqlSource;
+  }
+
+  public boolean isBuilt() {
+    return delegate != null;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+}
@@ -0,0 +1,217 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Builds the {@link org.apache.ibatis.reflection.Reflector}s of the types a configuration maps before the
+ * first statement runs, so the first requests do not pay for reflecting the domain classes.
+ * <p>
+ * The names of the types reflected while the application runs can be written to a snapshot, a plain text file
+ * with one class name per line, and preloaded on the next start.
+ *
+ * @since 3.5.4
+ */
+public class ReflectorPreloader {
+
+  private static final Log log = LogFactory.getLog(ReflectorPreloader.class);
+
+  private ReflectorPreloader() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Preloads the types referenced by the configuration and the types listed in its reflector snapshot, if any.
+   */
+  public static void preload(Configuration configuration) {
+    Set<Class<?>> types = collectTypes(configuration);
+    String snapshot = configuration.getReflectorSnapshotFile();
+    if (snapshot != null && Files.isRegularFile(Paths.get(snapshot))) {
+      try (Reader reader = Files.newBufferedReader(Paths.get(snapshot), StandardCharsets.UTF_8)) {
+        types.addAll(readSnapshot(reader));
+      } catch (IOException e) {
+        log.warn("Could not read the reflector snapshot " + snapshot + ". Cause: " + e);
+      }
+    }
+    preload(configuration.getReflectorFactory(), types);
+  }
+
+  /**
+   * Builds the reflectors of the given types in parallel. Types that cannot be reflected are skipped.
+   */
+  public static void preload(ReflectorFactory reflectorFactory, Collection<Class<?>> types) {
+    if (!reflectorFactory.isClassCacheEnabled()) {
+      return;
+    }
+    types.parallelStream().forEach(type -> {
+      try {
+        reflectorFactory.findForClass(type);
+      } catch (RuntimeException | LinkageError e) {
+        if (log.isDebugEnabled()) {
+          log.debug("Could not preload the reflector of " + type.getName() + ". Cause: " + e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Collects the bean types of the result maps, parameter maps, statements and mapper methods of a configuration.
+   */
+  public static Set<Class<?>> collectTypes(Configuration configuration) {
+    Set<Class<?>> types = new HashSet<>();
+    // values are iterated as objects as short ids used in several namespaces hold an ambiguity placeholder
+    for (Object value : new ArrayList<Object>(configuration.getResultMaps())) {
+      if (!(value instanceof ResultMap)) {
+        continue;
+      }
+      ResultMap resultMap = (ResultMap) value;
+      addType(types, resultMap.getType());
+      for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+        addType(types, resultMapping.getJavaType());
+      }
+    }
+    for (Object value : new ArrayList<Object>(configuration.getParameterMaps())) {
+      if (!(value instanceof ParameterMap)) {
+        continue;
+      }
+      ParameterMap parameterMap = (ParameterMap) value;
+      addType(types, parameterMap.getType());
+      for (ParameterMapping parameterMapping : parameterMap.getParameterMappings()) {
+        addType(types, parameterMapping.getJavaType());
+      }
+    }
+    for (Object value : new ArrayList<Object>(configuration.getMappedStatements())) {
+      if (value instanceof MappedStatement) {
+        addType(types, ((MappedStatement) value).getParameterMap().getType());
+      }
+    }
+    for (Class<?> mapper : configuration.getMapperRegistry().getMappers()) {
+      for (Method method : mapper.getMethods()) {
+        addType(types, method.getGenericReturnType());
+        for (Type parameterType : method.getGenericParameterTypes()) {
+          addType(types, parameterType);
+        }
+      }
+    }
+    return types;
+  }
+
+  private static void addType(Set<Class<?>> types, Type type) {
+    if (type instanceof ParameterizedType) {
+      addType(types, ((ParameterizedType) type).getRawType());
+      for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+        addType(types, argument);
+      }
+    } else if (type instanceof Class) {
+      Class<?> clazz = (Class<?>) type;
+      while (clazz.isArray()) {
+        clazz = clazz.getComponentType();
+      }
+      if (isBean(clazz)) {
+        types.add(clazz);
+      }
+    }
+  }
+
+  private static boolean isBean(Class<?> type) {
+    return !type.isPrimitive() && !type.isInterface() && !type.isEnum() && !type.isAnnotation()
+        && !Modifier.isAbstract(type.getModifiers()) && !Map.class.isAssignableFrom(type)
+        && !Collection.class.isAssignableFrom(type) && !type.getName().startsWith("java.");
+  }
+
+  /**
+   * Writes the types reflected so far to the reflector snapshot file of the configuration,
+   * e.g. when the application shuts down. Does nothing if no file is configured or
+   * the reflector factory is not a {@link DefaultReflectorFactory}.
+   */
+  public static void writeSnapshot(Configuration configuration) throws IOException {
+    String snapshot = configuration.getReflectorSnapshotFile();
+    if (snapshot != null && configuration.getReflectorFactory() instanceof DefaultReflectorFactory) {
+      try (Writer writer = Files.newBufferedWriter(Paths.get(snapshot), StandardCharsets.UTF_8)) {
+        writeSnapshot((DefaultReflectorFactory) configuration.getReflectorFactory(), writer);
+      }
+    }
+  }
+
+  /**
+   * Writes the names of the types already reflected by a factory.
+   */
+  public static void writeSnapshot(DefaultReflectorFactory reflectorFactory, Writer writer) throws IOException {
+    Set<String> names = new TreeSet<>();
+    for (Class<?> type : reflectorFactory.getCachedTypes()) {
+      names.add(type.getName());
+    }
+    for (String name : names) {
+      writer.write(name);
+      writer.write(System.lineSeparator());
+    }
+    writer.flush();
+  }
+
+  /**
+   * Reads the types of a snapshot. Blank lines, lines starting with {@code #} and classes that cannot be loaded are skipped.
+   */
+  public static List<Class<?>> readSnapshot(Reader reader) throws IOException {
+    List<Class<?>> types = new ArrayList<>();
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    while ((line = lines.readLine()) != null) {
+      String name = line.trim();
+      if (name.isEmpty() || name.startsWith("#")) {
+        continue;
+      }
+      try {
+        types.add(Resources.classForName(name));
+      } catch (ClassNotFoundException | LinkageError e) {
+        if (log.isDebugEnabled()) {
+          log.debug("Skipping " + name + " from the reflector snapshot. Cause: " + e);
+        }
+      }
+    }
+    return types;
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,7 +17,11 @@ package org.apache.ibatis.builder.xml;
 
 import java.io.InputStream;
 import java.io.Reader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
@@ -25,6 +29,7 @@ import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.metrics.MetricsRegistry;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
@@ -44,6 +49,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.replica.ReplicaSelector;
 import org.apache.ibatis.type.JdbcType;
 
 /**
@@ -253,6 +259,9 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
     configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+    configuration.setAdaptiveFetchSizeEnabled(booleanValueOf(props.getProperty("adaptiveFetchSizeEnabled"), false));
+    configuration.setAdaptiveFetchSizeMin(integerValueOf(props.getProperty("adaptiveFetchSizeMin"), 10));
+    configuration.setAdaptiveFetchSizeMax(integerValueOf(props.getProperty("adaptiveFetchSizeMax"), 1000));
     configuration.setDefaultResultSetType(resolveResultSetType(props.getProperty("defaultResultSetType")));
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
@@ -264,6 +273,21 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setDefaultEnumTypeHandler(resolveClass(props.getProperty("defaultEnumTypeHandler")));
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
+    configuration.setUseGeneratedMappers(booleanValueOf(props.getProperty("useGeneratedMappers"), false));
+    configuration.setPreloadReflectors(booleanValueOf(props.getProperty("preloadReflectors"), false));
+    configuration.setReflectorSnapshotFile(props.getProperty("reflectorSnapshotFile"));
+    configuration.setParallelMapperParsing(booleanValueOf(props.getProperty("parallelMapperParsing"), false));
+    configuration.setLazySqlSourceEnabled(booleanValueOf(props.getProperty("lazySqlSourceEnabled"), false));
+    configuration.setLightweightStatementLogging(booleanValueOf(props.getProperty("lightweightStatementLogging"), false));
+    configuration.setStatementLogSampleRate(integerValueOf(props.getProperty("statementLogSampleRate"), 1));
+    configuration.setSlowStatementLogThreshold(integerValueOf(props.getProperty("slowStatementLogThreshold"), null));
+    configuration.setMetricsRegistry((MetricsRegistry) createInstance(props.getProperty("metricsRegistry")));
+    configuration.setSlowStatementCaptureThreshold(integerValueOf(props.getProperty("slowStatementCaptureThreshold"), null));
+    configuration.setLargeResultCaptureThreshold(integerValueOf(props.getProperty("largeResultCaptureThreshold"), null));
+    configuration.setStatementCaptureCapacity(integerValueOf(props.getProperty("statementCaptureCapacity"), 100));
+    configuration.setMaxResultRows(integerValueOf(props.getProperty("maxResultRows"), null));
+    configuration.setMultipleStatementsEnabled(booleanValueOf(props.getProperty("multipleStatementsEnabled"), false));
+    configuration.setSessionIdentityMapEnabled(booleanValueOf(props.getProperty("sessionIdentityMapEnabled"), false));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
@@ -283,6 +307,7 @@ public class XMLConfigBuilder extends BaseBuilder {
           Environment.Builder environmentBuilder = new Environment.Builder(id)
               .transactionFactory(txFactory)
               .dataSource(dataSource);
+          replicasElement(child.evalNode("replicas"), environmentBuilder);
           configuration.setEnvironment(environmentBuilder.build());
         }
       }
@@ -319,6 +344,18 @@ public class XMLConfigBuilder extends BaseBuilder {
     throw new BuilderException("Environment declaration requires a TransactionFactory.");
   }
 
+  private void replicasElement(XNode context, Environment.Builder environmentBuilder) throws Exception {
+    if (context != null) {
+      List<DataSource> replicaDataSources = new ArrayList<>();
+      for (XNode child : context.getChildren()) {
+        replicaDataSources.add(dataSourceElement(child).getDataSource());
+      }
+      environmentBuilder.replicaDataSources(replicaDataSources)
+          .replicaSelector((ReplicaSelector) createInstance(context.getStringAttribute("selector")))
+          .readYourWrites(context.getBooleanAttribute("readYourWrites", false));
+    }
+  }
+
   private DataSourceFactory dataSourceElement(XNode context) throws Exception {
     if (context != null) {
       String type = context.getStringAttribute("type");
@@ -359,33 +396,93 @@ public class XMLConfigBuilder extends BaseBuilder {
 
   private void mapperElement(XNode parent) throws Exception {
     if (parent != null) {
-      for (XNode child : parent.getChildren()) {
-        if ("package".equals(child.getName())) {
-          String mapperPackage = child.getStringAttribute("name");
-          configuration.addMappers(mapperPackage);
-        } else {
-          String resource = child.getStringAttribute("resource");
-          String url = child.getStringAttribute("url");
-          String mapperClass = child.getStringAttribute("class");
+      List<XNode> children = parent.getChildren();
+      List<Object> documents = configuration.isParallelMapperParsing() ? parseMapperDocuments(children) : null;
+      try {
+        for (int i = 0; i < children.size(); i++) {
+          XNode child = children.get(i);
+          if ("package".equals(child.getName())) {
+            String mapperPackage = child.getStringAttribute("name");
+            configuration.addMappers(mapperPackage);
+          } else {
+            String resource = child.getStringAttribute("resource");
+            String url = child.getStringAttribute("url");
+            String mapperClass = child.getStringAttribute("class");
+            if (resource != null && url == null && mapperClass == null) {
+              ErrorContext.instance().resource(resource);
+              XMLMapperBuilder mapperParser = documents == null
+                  ? new XMLMapperBuilder(Resources.getResourceAsStream(resource), configuration, resource, configuration.getSqlFragments())
+                  : new XMLMapperBuilder(parsedDocument(documents.set(i, null)), configuration, resource, configuration.getSqlFragments());
+              mapperParser.parse();
+            } else if (resource == null && url != null && mapperClass == null) {
+              ErrorContext.instance().resource(url);
+              XMLMapperBuilder mapperParser = documents == null
+                  ? new XMLMapperBuilder(Resources.getUrlAsStream(url), configuration, url, configuration.getSqlFragments())
+                  : new XMLMapperBuilder(parsedDocument(documents.set(i, null)), configuration, url, configuration.getSqlFragments());
+              mapperParser.parse();
+            } else if (resource == null && url == null && mapperClass != null) {
+              Class<?> mapperInterface = Resources.classForName(mapperClass);
+              configuration.addMapper(mapperInterface);
+            } else {
+              throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
+            }
+          }
+        }
+      } finally {
+        if (documents != null) {
+          // a failed mapper leaves the documents of the following ones unused
+          documents.clear();
+        }
+      }
+    }
+  }
+
+  /**
+   * Parses the documents of the resource and url mappers in parallel.
+   * Only the DOM parsing runs concurrently, the statements are still built one mapper at a time in the declared order
+   * because a mapper may reference the result maps, caches or fragments of the mappers declared before it.
+   * The resources are looked up by the calling thread so that its class loader is used, but each stream is only
+   * opened by the task that parses it and is closed as soon as its document is read.
+   *
+   * @return for each child, the parsed document, the exception thrown while loading it or {@code null}
+   */
+  private List<Object> parseMapperDocuments(List<XNode> children) {
+    List<Object> locations = new ArrayList<>(children.size());
+    for (XNode child : children) {
+      Object location = null;
+      if (!"package".equals(child.getName())) {
+        String resource = child.getStringAttribute("resource");
+        String url = child.getStringAttribute("url");
+        String mapperClass = child.getStringAttribute("class");
+        try {
           if (resource != null && url == null && mapperClass == null) {
-            ErrorContext.instance().resource(resource);
-            InputStream inputStream = Resources.getResourceAsStream(resource);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
-            mapperParser.parse();
+            location = Resources.getResourceURL(resource);
           } else if (resource == null && url != null && mapperClass == null) {
-            ErrorContext.instance().resource(url);
-            InputStream inputStream = Resources.getUrlAsStream(url);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
-            mapperParser.parse();
-          } else if (resource == null && url == null && mapperClass != null) {
-            Class<?> mapperInterface = Resources.classForName(mapperClass);
-            configuration.addMapper(mapperInterface);
-          } else {
-            throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
+            location = new URL(url);
           }
+        } catch (Exception e) {
+          location = e;
         }
       }
+      locations.add(location);
+    }
+    return locations.parallelStream().map(location -> {
+      if (!(location instanceof URL)) {
+        return location;
+      }
+      try (InputStream inputStream = ((URL) location).openStream()) {
+        return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+      } catch (Exception e) {
+        return e;
+      }
+    }).collect(Collectors.toList());
+  }
+
+  private XPathParser parsedDocument(Object document) throws Exception {
+    if (document instanceof Exception) {
+      throw (Exception) document;
     }
+    return (XPathParser) document;
   }
 
   private boolean isSpecifiedEnvironment(String id) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,8 +17,10 @@ package org.apache.ibatis.builder.xml;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Supplier;
 
 import org.apache.ibatis.builder.BaseBuilder;
+import org.apache.ibatis.builder.LazySqlSource;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
@@ -30,8 +32,11 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
 
 /**
  * @author Clinton Begin
@@ -93,7 +98,7 @@ public class XMLStatementBuilder extends BaseBuilder {
           ? Jdbc3KeyGenerator.INSTANCE : NoKeyGenerator.INSTANCE;
     }
 
-    SqlSource sqlSource = langDriver.createSqlSource(configuration, context, parameterTypeClass);
+    SqlSource sqlSource = createSqlSource(id, context, parameterTypeClass, langDriver);
     StatementType statementType = StatementType.valueOf(context.getStringAttribute("statementType", StatementType.PREPARED.toString()));
     Integer fetchSize = context.getIntAttribute("fetchSize");
     Integer timeout = context.getIntAttribute("timeout");
@@ -109,11 +114,33 @@ public class XMLStatementBuilder extends BaseBuilder {
     String keyProperty = context.getStringAttribute("keyProperty");
     String keyColumn = context.getStringAttribute("keyColumn");
     String resultSets = context.getStringAttribute("resultSets");
+    String shardKey = context.getStringAttribute("shardKey");
 
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
         fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
         resultSetTypeEnum, flushCache, useCache, resultOrdered,
-        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets);
+        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, shardKey);
+  }
+
+  private SqlSource createSqlSource(String id, XNode script, Class<?> parameterTypeClass, LanguageDriver langDriver) {
+    if (!configuration.isLazySqlSourceEnabled()) {
+      return langDriver.createSqlSource(configuration, script, parameterTypeClass);
+    }
+    return new LazySqlSource(builderAssistant.applyCurrentNamespace(id, false),
+        lazySqlSourceBuilder(configuration, detach(script.getNode()), parameterTypeClass, langDriver));
+  }
+
+  // must not capture the builder or the script node, they hold the DOM of the whole mapper
+  private static Supplier<SqlSource> lazySqlSourceBuilder(Configuration configuration, Document script,
+      Class<?> parameterTypeClass, LanguageDriver langDriver) {
+    return () -> langDriver.createSqlSource(configuration,
+        new XPathParser(script, false, configuration.getVariables()).evalNode("/*"), parameterTypeClass);
+  }
+
+  private static Document detach(Node node) {
+    Document document = node.getOwnerDocument().getImplementation().createDocument(null, null, null);
+    document.appendChild(document.importNode(node, true));
+    return document;
   }
 
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
@@ -154,7 +181,7 @@ public class XMLStatementBuilder extends BaseBuilder {
     String resultMap = null;
     ResultSetType resultSetTypeEnum = null;
 
-    SqlSource sqlSource = langDriver.createSqlSource(configuration, nodeToHandle, parameterTypeClass);
+    SqlSource sqlSource = createSqlSource(id, nodeToHandle, parameterTypeClass, langDriver);
     SqlCommandType sqlCommandType = SqlCommandType.SELECT;
 
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
@@ -0,0 +1,211 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A Reactive Streams {@link Publisher} that emits the rows of a {@link Cursor}.
+ * <p>
+ * The cursor is opened on the first request and rows are mapped on the thread that signals demand.
+ * The outstanding demand is passed to the driver as fetch size hint, so a subscriber requesting
+ * small batches does not make the driver buffer the whole result set.
+ * Cancelling the subscription closes the cursor, which closes the underlying ResultSet and statement.
+ * The connection is owned by the SqlSession, so the publisher must be consumed before the session is closed.
+ * <p>
+ * Only one subscriber is supported as a cursor can be iterated only once.
+ *
+ * @since 3.5.4
+ */
+public class CursorPublisher<T> implements Publisher<T> {
+
+  private static final int DEFAULT_MAX_FETCH_SIZE = 1000;
+
+  private final Supplier<Cursor<T>> cursorSupplier;
+  private final int maxFetchSize;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  public CursorPublisher(Supplier<Cursor<T>> cursorSupplier) {
+    this(cursorSupplier, DEFAULT_MAX_FETCH_SIZE);
+  }
+
+  public CursorPublisher(Supplier<Cursor<T>> cursorSupplier, int maxFetchSize) {
+    if (maxFetchSize <= 0) {
+      throw new IllegalArgumentException("maxFetchSize must be positive but was " + maxFetchSize);
+    }
+    this.cursorSupplier = cursorSupplier;
+    this.maxFetchSize = maxFetchSize;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber must not be null");
+    }
+    if (subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(new CursorSubscription<>(subscriber, cursorSupplier, maxFetchSize));
+    } else {
+      subscriber.onSubscribe(EmptySubscription.INSTANCE);
+      subscriber.onError(new IllegalStateException("A CursorPublisher allows only a single subscriber."));
+    }
+  }
+
+  private static class CursorSubscription<T> implements Subscription {
+
+    private final Subscriber<? super T> subscriber;
+    private final Supplier<Cursor<T>> cursorSupplier;
+    private final int maxFetchSize;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+    private boolean done;
+    private Cursor<T> cursor;
+    private Iterator<T> iterator;
+    private int lastFetchSizeHint;
+
+    CursorSubscription(Subscriber<? super T> subscriber, Supplier<Cursor<T>> cursorSupplier, int maxFetchSize) {
+      this.subscriber = subscriber;
+      this.cursorSupplier = cursorSupplier;
+      this.maxFetchSize = maxFetchSize;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("Rule 3.9: request must be positive but was " + n);
+      } else {
+        long current;
+        long next;
+        do {
+          current = requested.get();
+          next = current + n < 0 ? Long.MAX_VALUE : current + n;
+        } while (!requested.compareAndSet(current, next));
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        emit();
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void emit() {
+      if (done) {
+        return;
+      }
+      if (cancelled) {
+        terminate();
+        return;
+      }
+      if (invalidRequest != null) {
+        terminate();
+        subscriber.onError(invalidRequest);
+        return;
+      }
+      try {
+        long demand = requested.get();
+        if (demand == 0) {
+          return;
+        }
+        if (cursor == null) {
+          cursor = cursorSupplier.get();
+          iterator = cursor.iterator();
+        }
+        applyFetchSizeHint(demand);
+        long emitted = 0;
+        while (emitted != demand) {
+          if (cancelled) {
+            terminate();
+            return;
+          }
+          if (!iterator.hasNext()) {
+            terminate();
+            subscriber.onComplete();
+            return;
+          }
+          subscriber.onNext(iterator.next());
+          emitted++;
+          if (emitted == demand) {
+            demand = requested.addAndGet(-emitted);
+            emitted = 0;
+          }
+        }
+      } catch (RuntimeException e) {
+        terminate();
+        subscriber.onError(e);
+      }
+    }
+
+    private void applyFetchSizeHint(long demand) {
+      if (demand == Long.MAX_VALUE || !(cursor instanceof DefaultCursor)) {
+        return;
+      }
+      int hint = (int) Math.min(demand, maxFetchSize);
+      if (hint != lastFetchSizeHint) {
+        ((DefaultCursor<T>) cursor).setFetchSizeHint(hint);
+        lastFetchSizeHint = hint;
+      }
+    }
+
+    private void terminate() {
+      done = true;
+      if (cursor != null) {
+        try {
+          cursor.close();
+        } catch (Exception e) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  private enum EmptySubscription implements Subscription {
+    INSTANCE;
+
+    @Override
+    public void request(long n) {
+      // nothing to emit
+    }
+
+    @Override
+    public void cancel() {
+      // nothing to release
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -121,6 +121,24 @@ public class DefaultCursor<T> implements Cursor<T> {
     }
   }
 
+  /**
+   * Gives the driver a hint about how many rows to fetch on the next round trip.
+   * A failure is ignored because the fetch size is only a hint.
+   */
+  void setFetchSizeHint(int rows) {
+    if (isClosed()) {
+      return;
+    }
+    try {
+      ResultSet rs = rsw.getResultSet();
+      if (rs != null && !rs.isClosed()) {
+        rs.setFetchSize(rows);
+      }
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
   protected T fetchNextUsingRowBound() {
     T result = fetchNextObjectFromDatabase();
     while (objectWrapperResultHandler.fetched && indexWithRowBound < rowBounds.getOffset()) {
@@ -0,0 +1,218 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * The last known state of a physical connection, carried over from one {@link PooledConnection} wrapper to the next
+ * like the statement cache, so that only the real changes of state are sent to the driver.
+ * <p>
+ * The auto-commit mode, transaction isolation, read-only flag, schema and catalog are read from the driver once.
+ * A change of auto-commit mode is deferred until the connection is used, so switching it back and forth between
+ * two checkouts costs nothing. Commit and rollback are skipped when nothing was executed since the last one.
+ * The statements created on the connection are tracked too, as they may be executed again after a commit.
+ * The state is only accurate if it is changed through the JDBC methods, not with SQL commands.
+ */
+class ConnectionState {
+
+  private static final Map<String, String> GETTERS = new HashMap<>();
+  private static final Map<String, String> SETTERS = new HashMap<>();
+  // methods that neither change the state nor start a transaction
+  private static final Set<String> PASSIVE_METHODS = new HashSet<>(Arrays.asList(
+      "isClosed", "isValid", "getWarnings", "clearWarnings", "getHoldability", "getNetworkTimeout",
+      "getClientInfo", "getTypeMap", "isWrapperFor"));
+
+  static {
+    property("TransactionIsolation", "getTransactionIsolation");
+    property("ReadOnly", "isReadOnly");
+    property("Schema", "getSchema");
+    property("Catalog", "getCatalog");
+  }
+
+  private static void property(String name, String getter) {
+    GETTERS.put(getter, name);
+    SETTERS.put("set" + name, name);
+  }
+
+  private final PoolState poolState;
+  private final Map<String, Object> values = new HashMap<>();
+  private Boolean autoCommit;
+  private Boolean desiredAutoCommit;
+  private boolean dirty;
+
+  ConnectionState(PoolState poolState) {
+    this.poolState = poolState;
+  }
+
+  /**
+   * @return true if the method is answered by {@link #invoke(Connection, Method, Object[])}
+   */
+  static boolean handles(Method method) {
+    String name = method.getName();
+    return GETTERS.containsKey(name) || SETTERS.containsKey(name) || "getAutoCommit".equals(name)
+        || "setAutoCommit".equals(name) || "commit".equals(name)
+        || ("rollback".equals(name) && method.getParameterCount() == 0);
+  }
+
+  Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+    String name = method.getName();
+    switch (name) {
+      case "getAutoCommit":
+        return getAutoCommit(connection);
+      case "setAutoCommit":
+        setAutoCommit(connection, (Boolean) args[0]);
+        return null;
+      case "commit":
+      case "rollback":
+        if (!getAutoCommit(connection) && !dirty) {
+          skipped();
+          return null;
+        }
+        applyAutoCommit(connection);
+        method.invoke(connection, args);
+        dirty = false;
+        return null;
+      default:
+        break;
+    }
+    String property = GETTERS.get(name);
+    if (property != null) {
+      if (values.containsKey(property)) {
+        return values.get(property);
+      }
+      Object value = method.invoke(connection, args);
+      values.put(property, value);
+      return value;
+    }
+    property = SETTERS.get(name);
+    if (values.containsKey(property) && Objects.equals(values.get(property), args[0])) {
+      skipped();
+      return null;
+    }
+    values.remove(property);
+    method.invoke(connection, args);
+    values.put(property, args[0]);
+    return null;
+  }
+
+  /**
+   * Called before any other method is sent to the driver.
+   */
+  void beforeInvoke(Connection connection, Method method) throws SQLException {
+    String name = method.getName();
+    if (PASSIVE_METHODS.contains(name)) {
+      return;
+    }
+    applyAutoCommit(connection);
+    dirty = true;
+    if ("unwrap".equals(name)) {
+      // the state may be changed behind our back from now on
+      values.clear();
+    }
+  }
+
+  /**
+   * Wraps a statement created on the connection, so that its executions are known to leave work to commit.
+   */
+  Statement track(Connection connection, Method factoryMethod, Statement statement) {
+    return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { factoryMethod.getReturnType() },
+        (proxy, method, args) -> {
+          String name = method.getName();
+          if (Object.class.equals(method.getDeclaringClass())) {
+            if ("equals".equals(name)) {
+              return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+              return System.identityHashCode(proxy);
+            }
+          } else if (name.startsWith("execute")) {
+            beforeInvoke(connection, method);
+          }
+          try {
+            return method.invoke(statement, args);
+          } catch (Throwable t) {
+            throw ExceptionUtil.unwrapThrowable(t);
+          }
+        });
+  }
+
+  /**
+   * Rolls back the work left on the connection, unless it is in auto-commit mode or nothing was executed
+   * since the last commit or rollback.
+   */
+  void rollbackPendingWork(Connection connection) throws SQLException {
+    if (autoCommit == null) {
+      autoCommit = connection.getAutoCommit();
+    }
+    if (autoCommit || !dirty) {
+      skipped();
+      return;
+    }
+    connection.rollback();
+    dirty = false;
+  }
+
+  private boolean getAutoCommit(Connection connection) throws SQLException {
+    if (desiredAutoCommit == null) {
+      if (autoCommit == null) {
+        autoCommit = connection.getAutoCommit();
+      }
+      desiredAutoCommit = autoCommit;
+    }
+    return desiredAutoCommit;
+  }
+
+  private void setAutoCommit(Connection connection, boolean value) throws SQLException {
+    if (getAutoCommit(connection) == value) {
+      skipped();
+      return;
+    }
+    desiredAutoCommit = value;
+    if (value == autoCommit) {
+      // cancels a change that was not applied yet
+      skipped();
+    } else if (!autoCommit && dirty) {
+      // enabling auto-commit commits the pending work, which must happen now
+      applyAutoCommit(connection);
+    }
+  }
+
+  private void applyAutoCommit(Connection connection) throws SQLException {
+    boolean desired = getAutoCommit(connection);
+    if (autoCommit != desired) {
+      connection.setAutoCommit(desired);
+      autoCommit = desired;
+      dirty = false;
+    }
+  }
+
+  private void skipped() {
+    poolState.skippedDriverCallCount.incrementAndGet();
+  }
+
+}
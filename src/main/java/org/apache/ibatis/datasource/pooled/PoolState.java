@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package org.apache.ibatis.datasource.pooled;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Clinton Begin
@@ -35,6 +36,9 @@ public class PoolState {
   protected long accumulatedWaitTime = 0;
   protected long hadToWaitCount = 0;
   protected long badConnectionCount = 0;
+  protected final AtomicLong statementCacheHitCount = new AtomicLong();
+  protected final AtomicLong statementCacheMissCount = new AtomicLong();
+  protected final AtomicLong skippedDriverCallCount = new AtomicLong();
 
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
@@ -61,6 +65,29 @@ public class PoolState {
     return badConnectionCount;
   }
 
+  /**
+   * @since 3.5.4
+   */
+  public long getStatementCacheHitCount() {
+    return statementCacheHitCount.get();
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public long getStatementCacheMissCount() {
+    return statementCacheMissCount.get();
+  }
+
+  /**
+   * @return the number of auto-commit, isolation, commit and rollback calls that were not sent to the driver
+   *     because they did not change the tracked state of the connection
+   * @since 3.5.4
+   */
+  public long getSkippedDriverCallCount() {
+    return skippedDriverCallCount.get();
+  }
+
   public synchronized long getClaimedOverdueConnectionCount() {
     return claimedOverdueConnectionCount;
   }
@@ -97,6 +124,8 @@ public class PoolState {
     builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
     builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
     builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+    builder.append("\n poolMaxCachedStatements        ").append(dataSource.poolMaximumCachedStatements);
+    builder.append("\n poolTrackConnectionState       ").append(dataSource.poolTrackConnectionState);
     builder.append("\n ---STATUS-----------------------------------------------------");
     builder.append("\n activeConnections              ").append(getActiveConnectionCount());
     builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -108,6 +137,9 @@ public class PoolState {
     builder.append("\n hadToWait                      ").append(getHadToWaitCount());
     builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
     builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+    builder.append("\n statementCacheHits             ").append(getStatementCacheHitCount());
+    builder.append("\n statementCacheMisses           ").append(getStatementCacheMissCount());
+    builder.append("\n skippedDriverCalls             ").append(getSkippedDriverCallCount());
     builder.append("\n===============================================================");
     return builder.toString();
   }
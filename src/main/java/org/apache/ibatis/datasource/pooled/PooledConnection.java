@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -29,6 +30,7 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String PREPARE_STATEMENT = "prepareStatement";
   private static final Class<?>[] IFACES = new Class<?>[] { Connection.class };
 
   private final int hashCode;
@@ -40,6 +42,8 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private PooledStatementCache statementCache;
+  private ConnectionState connectionState;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -199,6 +203,56 @@ class PooledConnection implements InvocationHandler {
     return System.currentTimeMillis() - checkoutTimestamp;
   }
 
+  /**
+   * Getter for the prepared statement cache of the physical connection.
+   *
+   * @return the cache, or null if statements are not cached
+   */
+  PooledStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Setter for the prepared statement cache of the physical connection.
+   *
+   * @param statementCache - the cache, carried over from the previous wrapper of the same connection
+   */
+  void setStatementCache(PooledStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
+  /**
+   * Getter for the tracked state of the physical connection.
+   *
+   * @return the state, or null if it is not tracked
+   */
+  ConnectionState getConnectionState() {
+    return connectionState;
+  }
+
+  /**
+   * Setter for the tracked state of the physical connection.
+   *
+   * @param connectionState - the state, carried over from the previous wrapper of the same connection
+   */
+  void setConnectionState(ConnectionState connectionState) {
+    this.connectionState = connectionState;
+  }
+
+  /**
+   * Rolls back the work left on the physical connection when it is not in auto-commit mode.
+   * If the state is tracked, the driver is not called when nothing was executed since the last commit or rollback.
+   *
+   * @throws SQLException - if the rollback fails
+   */
+  void rollbackPendingWork() throws SQLException {
+    if (connectionState != null) {
+      connectionState.rollbackPendingWork(realConnection);
+    } else if (!realConnection.getAutoCommit()) {
+      realConnection.rollback();
+    }
+  }
+
   @Override
   public int hashCode() {
     return hashCode;
@@ -241,8 +295,20 @@ class PooledConnection implements InvocationHandler {
         // issue #579 toString() should never fail
         // throw an SQLException instead of a Runtime
         checkConnection();
+        if (connectionState != null) {
+          if (ConnectionState.handles(method)) {
+            return connectionState.invoke(realConnection, method, args);
+          }
+          connectionState.beforeInvoke(realConnection, method);
+        }
+      }
+      Object result = statementCache != null && PREPARE_STATEMENT.equals(methodName)
+          ? statementCache.prepareStatement(realConnection, method, args)
+          : method.invoke(realConnection, args);
+      if (connectionState != null && result instanceof Statement) {
+        return connectionState.track(realConnection, method, (Statement) result);
       }
-      return method.invoke(realConnection, args);
+      return result;
     } catch (Throwable t) {
       throw ExceptionUtil.unwrapThrowable(t);
     }
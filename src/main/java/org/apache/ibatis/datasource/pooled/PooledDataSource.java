@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -53,6 +53,8 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolMaximumCachedStatements;
+  protected boolean poolTrackConnectionState;
 
   private int expectedConnectionTypeCode;
 
@@ -247,6 +249,31 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The maximum number of prepared statements cached per physical connection.
+   * Cached statements survive the connection going back to the pool. Zero disables the cache.
+   *
+   * @param poolMaximumCachedStatements The maximum number of cached statements per connection
+   * @since 3.5.4
+   */
+  public void setPoolMaximumCachedStatements(int poolMaximumCachedStatements) {
+    this.poolMaximumCachedStatements = poolMaximumCachedStatements;
+    forceCloseAll();
+  }
+
+  /**
+   * Tracks the auto-commit mode, transaction isolation, read-only flag, schema and catalog of every physical connection
+   * so that only the real changes are sent to the driver, and skips commits and rollbacks when no statement was
+   * executed. The state must only be changed through the JDBC methods, not with SQL commands.
+   *
+   * @param poolTrackConnectionState true to track the state of the connections
+   * @since 3.5.4
+   */
+  public void setPoolTrackConnectionState(boolean poolTrackConnectionState) {
+    this.poolTrackConnectionState = poolTrackConnectionState;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -314,6 +341,20 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * @since 3.5.4
+   */
+  public int getPoolMaximumCachedStatements() {
+    return poolMaximumCachedStatements;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isPoolTrackConnectionState() {
+    return poolTrackConnectionState;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
@@ -324,12 +365,10 @@ public class PooledDataSource implements DataSource {
         try {
           PooledConnection conn = state.activeConnections.remove(i - 1);
           conn.invalidate();
+          clearStatementCache(conn);
 
-          Connection realConn = conn.getRealConnection();
-          if (!realConn.getAutoCommit()) {
-            realConn.rollback();
-          }
-          realConn.close();
+          conn.rollbackPendingWork();
+          conn.getRealConnection().close();
         } catch (Exception e) {
           // ignore
         }
@@ -338,12 +377,10 @@ public class PooledDataSource implements DataSource {
         try {
           PooledConnection conn = state.idleConnections.remove(i - 1);
           conn.invalidate();
+          clearStatementCache(conn);
 
-          Connection realConn = conn.getRealConnection();
-          if (!realConn.getAutoCommit()) {
-            realConn.rollback();
-          }
-          realConn.close();
+          conn.rollbackPendingWork();
+          conn.getRealConnection().close();
         } catch (Exception e) {
           // ignore
         }
@@ -358,6 +395,13 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
+  private void clearStatementCache(PooledConnection conn) {
+    PooledStatementCache statementCache = conn.getStatementCache();
+    if (statementCache != null) {
+      statementCache.clear();
+    }
+  }
+
   private int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
@@ -369,10 +413,10 @@ public class PooledDataSource implements DataSource {
       if (conn.isValid()) {
         if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
-          if (!conn.getRealConnection().getAutoCommit()) {
-            conn.getRealConnection().rollback();
-          }
+          conn.rollbackPendingWork();
           PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          newConn.setStatementCache(conn.getStatementCache());
+          newConn.setConnectionState(conn.getConnectionState());
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -383,9 +427,8 @@ public class PooledDataSource implements DataSource {
           state.notifyAll();
         } else {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
-          if (!conn.getRealConnection().getAutoCommit()) {
-            conn.getRealConnection().rollback();
-          }
+          conn.rollbackPendingWork();
+          clearStatementCache(conn);
           conn.getRealConnection().close();
           if (log.isDebugEnabled()) {
             log.debug("Closed connection " + conn.getRealHashCode() + ".");
@@ -420,6 +463,12 @@ public class PooledDataSource implements DataSource {
           if (state.activeConnections.size() < poolMaximumActiveConnections) {
             // Can create new connection
             conn = new PooledConnection(dataSource.getConnection(), this);
+            if (poolMaximumCachedStatements > 0) {
+              conn.setStatementCache(new PooledStatementCache(state, poolMaximumCachedStatements));
+            }
+            if (poolTrackConnectionState) {
+              conn.setConnectionState(new ConnectionState(state));
+            }
             if (log.isDebugEnabled()) {
               log.debug("Created connection " + conn.getRealHashCode() + ".");
             }
@@ -433,22 +482,22 @@ public class PooledDataSource implements DataSource {
               state.accumulatedCheckoutTimeOfOverdueConnections += longestCheckoutTime;
               state.accumulatedCheckoutTime += longestCheckoutTime;
               state.activeConnections.remove(oldestActiveConnection);
-              if (!oldestActiveConnection.getRealConnection().getAutoCommit()) {
-                try {
-                  oldestActiveConnection.getRealConnection().rollback();
-                } catch (SQLException e) {
-                  /*
-                     Just log a message for debug and continue to execute the following
-                     statement like nothing happened.
-                     Wrap the bad connection with a new PooledConnection, this will help
-                     to not interrupt current executing thread and give current thread a
-                     chance to join the next competition for another valid/good database
-                     connection. At the end of this loop, bad {@link @conn} will be set as null.
-                   */
-                  log.debug("Bad connection. Could not roll back");
-                }
+              try {
+                oldestActiveConnection.rollbackPendingWork();
+              } catch (SQLException e) {
+                /*
+                   Just log a message for debug and continue to execute the following
+                   statement like nothing happened.
+                   Wrap the bad connection with a new PooledConnection, this will help
+                   to not interrupt current executing thread and give current thread a
+                   chance to join the next competition for another valid/good database
+                   connection. At the end of this loop, bad {@link @conn} will be set as null.
+                 */
+                log.debug("Bad connection. Could not roll back");
               }
               conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+              conn.setStatementCache(oldestActiveConnection.getStatementCache());
+              conn.setConnectionState(oldestActiveConnection.getConnectionState());
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
               oldestActiveConnection.invalidate();
@@ -477,9 +526,7 @@ public class PooledDataSource implements DataSource {
         if (conn != null) {
           // ping to server and check the connection is valid or not
           if (conn.isValid()) {
-            if (!conn.getRealConnection().getAutoCommit()) {
-              conn.getRealConnection().rollback();
-            }
+            conn.rollbackPendingWork();
             conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
             conn.setCheckoutTimestamp(System.currentTimeMillis());
             conn.setLastUsedTimestamp(System.currentTimeMillis());
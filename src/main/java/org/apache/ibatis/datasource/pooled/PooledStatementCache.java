@@ -0,0 +1,276 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A bounded LRU cache of prepared statements bound to one physical connection.
+ * <p>
+ * The cache is handed from one {@link PooledConnection} wrapper to the next when the connection goes back
+ * to the pool, so statements are reused across sessions. Closing a statement obtained from the cache
+ * clears its parameters and pending batch and returns it to the cache, unless a setting that cannot be
+ * restored was changed; the real statement is closed when it is evicted
+ * or when the physical connection is closed.
+ *
+ * @since 3.5.4
+ */
+class PooledStatementCache {
+
+  private static final Class<?>[] IFACES = new Class<?>[] { PreparedStatement.class };
+
+  private final PoolState state;
+  private final int capacity;
+  private final Map<Object, CachedStatement> statements;
+
+  PooledStatementCache(PoolState state, int capacity) {
+    this.state = state;
+    this.capacity = capacity;
+    this.statements = new LinkedHashMap<Object, CachedStatement>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, CachedStatement> eldest) {
+        boolean evict = size() > PooledStatementCache.this.capacity;
+        if (evict) {
+          eldest.getValue().evict();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * Returns a cached statement for the arguments of a {@code Connection.prepareStatement} call, preparing
+   * it on the real connection on a miss. If the cached statement is still in use, an uncached statement is returned.
+   */
+  synchronized PreparedStatement prepareStatement(Connection realConnection, Method method, Object[] args) throws Throwable {
+    Object key = keyOf(method, args);
+    CachedStatement cached = statements.get(key);
+    if (cached != null && !cached.inUse) {
+      if (!cached.statement.isClosed()) {
+        state.statementCacheHitCount.incrementAndGet();
+        return cached.checkout();
+      }
+      // closed behind our back, e.g. by closeOnCompletion()
+      statements.remove(key);
+      cached = null;
+    }
+    state.statementCacheMissCount.incrementAndGet();
+    PreparedStatement statement = (PreparedStatement) invoke(realConnection, method, args);
+    if (cached != null) {
+      return statement;
+    }
+    cached = new CachedStatement(statement);
+    statements.put(key, cached);
+    return cached.checkout();
+  }
+
+  synchronized int size() {
+    return statements.size();
+  }
+
+  /**
+   * Closes all cached statements that are not in use and empties the cache.
+   * Statements in use are closed when they are returned.
+   */
+  synchronized void clear() {
+    for (CachedStatement cached : statements.values()) {
+      cached.evict();
+    }
+    statements.clear();
+  }
+
+  private synchronized void removeEvicted(CachedStatement cached) {
+    statements.values().remove(cached);
+  }
+
+  private synchronized void checkin(CachedStatement cached) {
+    cached.inUse = false;
+    if (cached.evicted) {
+      closeQuietly(cached.statement);
+    }
+  }
+
+  private static Object keyOf(Method method, Object[] args) {
+    List<Object> key = new ArrayList<>(args.length + 1);
+    key.add(Arrays.asList(method.getParameterTypes()));
+    for (Object arg : args) {
+      if (arg instanceof int[]) {
+        key.add(Arrays.toString((int[]) arg));
+      } else if (arg instanceof Object[]) {
+        key.add(Arrays.asList((Object[]) arg));
+      } else {
+        key.add(arg);
+      }
+    }
+    return Collections.unmodifiableList(key);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (Throwable t) {
+      throw ExceptionUtil.unwrapThrowable(t);
+    }
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private class CachedStatement {
+
+    private final PreparedStatement statement;
+    private final int defaultFetchSize;
+    private final int defaultQueryTimeout;
+    private final int defaultMaxRows;
+    private final int defaultMaxFieldSize;
+    private final int defaultFetchDirection;
+    private final boolean defaultPoolable;
+    private boolean inUse;
+    private boolean evicted;
+
+    CachedStatement(PreparedStatement statement) throws SQLException {
+      this.statement = statement;
+      this.defaultFetchSize = statement.getFetchSize();
+      this.defaultQueryTimeout = statement.getQueryTimeout();
+      this.defaultMaxRows = statement.getMaxRows();
+      this.defaultMaxFieldSize = statement.getMaxFieldSize();
+      this.defaultFetchDirection = statement.getFetchDirection();
+      this.defaultPoolable = statement.isPoolable();
+    }
+
+    PreparedStatement checkout() {
+      inUse = true;
+      return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES,
+          new StatementHandler(this));
+    }
+
+    void evict() {
+      evicted = true;
+      if (!inUse) {
+        closeQuietly(statement);
+      }
+    }
+
+    void reset() throws SQLException {
+      ResultSet rs = statement.getResultSet();
+      if (rs != null) {
+        rs.close();
+      }
+      // rows added by a batch that was not executed, e.g. on rollback, must not reach the next user
+      statement.clearBatch();
+      statement.clearParameters();
+      statement.clearWarnings();
+      if (statement.getFetchSize() != defaultFetchSize) {
+        statement.setFetchSize(defaultFetchSize);
+      }
+      if (statement.getQueryTimeout() != defaultQueryTimeout) {
+        statement.setQueryTimeout(defaultQueryTimeout);
+      }
+      if (statement.getMaxRows() != defaultMaxRows) {
+        statement.setMaxRows(defaultMaxRows);
+      }
+      if (statement.getMaxFieldSize() != defaultMaxFieldSize) {
+        statement.setMaxFieldSize(defaultMaxFieldSize);
+      }
+      if (statement.getFetchDirection() != defaultFetchDirection) {
+        statement.setFetchDirection(defaultFetchDirection);
+      }
+      if (statement.isPoolable() != defaultPoolable) {
+        statement.setPoolable(defaultPoolable);
+      }
+    }
+  }
+
+  private class StatementHandler implements InvocationHandler {
+
+    private final CachedStatement cached;
+    private boolean closed;
+    // set by the setters whose value cannot be read back to be restored
+    private boolean unrestorable;
+
+    StatementHandler(CachedStatement cached) {
+      this.cached = cached;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        } else if ("hashCode".equals(methodName)) {
+          return System.identityHashCode(proxy);
+        }
+        return method.invoke(cached.statement, args);
+      }
+      if ("close".equals(methodName)) {
+        close();
+        return null;
+      }
+      if ("isClosed".equals(methodName)) {
+        return closed || cached.statement.isClosed();
+      }
+      if (closed) {
+        throw new SQLException("Error accessing a cached PreparedStatement. The statement is closed.");
+      }
+      if ("setEscapeProcessing".equals(methodName) || "setCursorName".equals(methodName)) {
+        unrestorable = true;
+      }
+      return PooledStatementCache.invoke(cached.statement, method, args);
+    }
+
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (unrestorable) {
+        cached.evicted = true;
+        removeEvicted(cached);
+      }
+      if (!cached.evicted) {
+        try {
+          cached.reset();
+        } catch (SQLException e) {
+          cached.evicted = true;
+        }
+      }
+      checkin(cached);
+    }
+  }
+
+}
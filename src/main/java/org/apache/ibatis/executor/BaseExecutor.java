@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -26,6 +26,8 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.resultset.IdentityMap;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -34,6 +36,7 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
@@ -42,6 +45,7 @@ import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.replica.ReplicaRoutingTransaction;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
 /**
@@ -57,6 +61,7 @@ public abstract class BaseExecutor implements Executor {
   protected ConcurrentLinkedQueue<DeferredLoad> deferredLoads;
   protected PerpetualCache localCache;
   protected PerpetualCache localOutputParameterCache;
+  protected IdentityMap identityMap;
   protected Configuration configuration;
 
   protected int queryStack;
@@ -98,6 +103,7 @@ public abstract class BaseExecutor implements Executor {
       deferredLoads = null;
       localCache = null;
       localOutputParameterCache = null;
+      identityMap = null;
       closed = true;
     }
   }
@@ -109,11 +115,12 @@ public abstract class BaseExecutor implements Executor {
 
   @Override
   public int update(MappedStatement ms, Object parameter) throws SQLException {
-    ErrorContext.instance().resource(ms.getResource()).activity("executing an update").object(ms.getId());
+    ErrorContext.instance().mappedStatement(ms).activity("executing an update");
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
+    routeStatement(ms);
     return doUpdate(ms, parameter);
   }
 
@@ -139,7 +146,7 @@ public abstract class BaseExecutor implements Executor {
   @SuppressWarnings("unchecked")
   @Override
   public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, CacheKey key, BoundSql boundSql) throws SQLException {
-    ErrorContext.instance().resource(ms.getResource()).activity("executing a query").object(ms.getId());
+    ErrorContext.instance().mappedStatement(ms).activity("executing a query");
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
@@ -175,6 +182,7 @@ public abstract class BaseExecutor implements Executor {
   @Override
   public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
     BoundSql boundSql = ms.getBoundSql(parameter);
+    routeStatement(ms);
     return doQueryCursor(ms, parameter, rowBounds, boundSql);
   }
 
@@ -264,9 +272,23 @@ public abstract class BaseExecutor implements Executor {
     if (!closed) {
       localCache.clear();
       localOutputParameterCache.clear();
+      if (identityMap != null) {
+        identityMap.clear();
+      }
     }
   }
 
+  @Override
+  public IdentityMap getIdentityMap() {
+    if (closed || !configuration.isSessionIdentityMapEnabled()) {
+      return null;
+    }
+    if (identityMap == null) {
+      identityMap = new IdentityMap();
+    }
+    return identityMap;
+  }
+
   protected abstract int doUpdate(MappedStatement ms, Object parameter)
       throws SQLException;
 
@@ -321,7 +343,11 @@ public abstract class BaseExecutor implements Executor {
     List<E> list;
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
     try {
-      list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      if (transaction instanceof ReplicaRoutingTransaction) {
+        list = doRoutedQuery((ReplicaRoutingTransaction) transaction, ms, parameter, rowBounds, resultHandler, boundSql);
+      } else {
+        list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      }
     } finally {
       localCache.removeObject(key);
     }
@@ -332,9 +358,33 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  private <E> List<E> doRoutedQuery(ReplicaRoutingTransaction routingTransaction, MappedStatement ms, Object parameter,
+      RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+    routeStatement(ms);
+    long start = System.nanoTime();
+    List<E> list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+    routingTransaction.recordReadLatency(System.nanoTime() - start);
+    return list;
+  }
+
+  /**
+   * Routes the statement to a replica or to the primary when the environment has replicas.
+   */
+  private void routeStatement(MappedStatement ms) {
+    if (transaction instanceof ReplicaRoutingTransaction) {
+      ReplicaRoutingTransaction routingTransaction = (ReplicaRoutingTransaction) transaction;
+      if (ms.getSqlCommandType() != SqlCommandType.SELECT) {
+        routingTransaction.routeWrite();
+      } else if (!ms.getId().endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX)) {
+        routingTransaction.routeRead();
+      }
+      // a select key runs on the connection of the statement it belongs to
+    }
+  }
+
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
-    if (statementLog.isDebugEnabled()) {
+    if (statementLog.isDebugEnabled() && !configuration.isLightweightStatementLogging()) {
       return ConnectionLogger.newInstance(connection, statementLog, queryStack);
     } else {
       return connection;
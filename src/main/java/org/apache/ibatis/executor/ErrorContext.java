@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,13 +15,16 @@
  */
 package org.apache.ibatis.executor;
 
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+
 /**
  * @author Clinton Begin
  */
 public class ErrorContext {
 
   private static final String LINE_SEPARATOR = System.getProperty("line.separator","\n");
-  private static final ThreadLocal<ErrorContext> LOCAL = new ThreadLocal<>();
+  private static final ThreadLocal<ErrorContext> LOCAL = ThreadLocal.withInitial(ErrorContext::new);
 
   private ErrorContext stored;
   private String resource;
@@ -30,17 +33,15 @@ public class ErrorContext {
   private String message;
   private String sql;
   private Throwable cause;
+  // only read when the description is built
+  private MappedStatement mappedStatement;
+  private BoundSql boundSql;
 
   private ErrorContext() {
   }
 
   public static ErrorContext instance() {
-    ErrorContext context = LOCAL.get();
-    if (context == null) {
-      context = new ErrorContext();
-      LOCAL.set(context);
-    }
-    return context;
+    return LOCAL.get();
   }
 
   public ErrorContext store() {
@@ -80,6 +81,30 @@ public class ErrorContext {
 
   public ErrorContext sql(String sql) {
     this.sql = sql;
+    this.boundSql = null;
+    return this;
+  }
+
+  /**
+   * Sets the resource and the object to the ones of the statement, they are only read if an error is described.
+   *
+   * @since 3.5.4
+   */
+  public ErrorContext mappedStatement(MappedStatement mappedStatement) {
+    this.mappedStatement = mappedStatement;
+    this.resource = null;
+    this.object = null;
+    return this;
+  }
+
+  /**
+   * Sets the SQL to the one of the bound SQL, it is only read if an error is described.
+   *
+   * @since 3.5.4
+   */
+  public ErrorContext boundSql(BoundSql boundSql) {
+    this.boundSql = boundSql;
+    this.sql = null;
     return this;
   }
 
@@ -95,6 +120,8 @@ public class ErrorContext {
     message = null;
     sql = null;
     cause = null;
+    mappedStatement = null;
+    boundSql = null;
     LOCAL.remove();
     return this;
   }
@@ -102,6 +129,9 @@ public class ErrorContext {
   @Override
   public String toString() {
     StringBuilder description = new StringBuilder();
+    String resource = this.resource != null || mappedStatement == null ? this.resource : mappedStatement.getResource();
+    String object = this.object != null || mappedStatement == null ? this.object : mappedStatement.getId();
+    String sql = this.sql != null || boundSql == null ? this.sql : boundSql.getSql();
 
     // message
     if (this.message != null) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.resultset.IdentityMap;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.MetaObject;
@@ -64,4 +65,16 @@ public interface Executor {
 
   void setExecutorWrapper(Executor executor);
 
+  /**
+   * Returns the identity map shared by the queries of this executor, so that an entity read by several queries
+   * is built once. It is cleared with the local cache.
+   *
+   * @return the identity map, or {@code null} if the session identity map is not enabled
+   * @since 3.5.4
+   * @see org.apache.ibatis.session.Configuration#isSessionIdentityMapEnabled()
+   */
+  default IdentityMap getIdentityMap() {
+    return null;
+  }
+
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.replica.ReplicaRoutingTransaction;
 
 /**
  * @author Clinton Begin
@@ -39,6 +40,8 @@ import org.apache.ibatis.transaction.Transaction;
 public class ReuseExecutor extends BaseExecutor {
 
   private final Map<String, Statement> statementMap = new HashMap<>();
+  // the transaction connection each statement was prepared on, statements of a pooled connection return the real one
+  private final Map<String, Connection> connectionMap = new HashMap<>();
 
   public ReuseExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -74,6 +77,7 @@ public class ReuseExecutor extends BaseExecutor {
       closeStatement(stmt);
     }
     statementMap.clear();
+    connectionMap.clear();
     return Collections.emptyList();
   }
 
@@ -87,6 +91,14 @@ public class ReuseExecutor extends BaseExecutor {
     } else {
       Connection connection = getConnection(statementLog);
       stmt = handler.prepare(connection, transaction.getTimeout());
+      if (transaction instanceof ReplicaRoutingTransaction) {
+        connectionMap.put(sql, transaction.getConnection());
+      }
+      Statement previous = statementMap.get(sql);
+      if (previous != null) {
+        // prepared on another connection of a replica routing transaction
+        closeStatement(previous);
+      }
       putStatement(sql, stmt);
     }
     handler.parameterize(stmt);
@@ -95,7 +107,9 @@ public class ReuseExecutor extends BaseExecutor {
 
   private boolean hasStatementFor(String sql) {
     try {
-      return statementMap.keySet().contains(sql) && !statementMap.get(sql).getConnection().isClosed();
+      Statement stmt = statementMap.get(sql);
+      return stmt != null && !stmt.getConnection().isClosed()
+          && (!(transaction instanceof ReplicaRoutingTransaction) || connectionMap.get(sql) == transaction.getConnection());
     } catch (SQLException e) {
       return false;
     }
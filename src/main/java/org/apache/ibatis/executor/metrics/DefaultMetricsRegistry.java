@@ -0,0 +1,110 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the metrics of each statement in memory, without locking on the recording path.
+ *
+ * @since 3.5.4
+ */
+public class DefaultMetricsRegistry implements MetricsRegistry, StatementMetricsMXBean {
+
+  private final ConcurrentMap<String, StatementMetrics> metrics = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordPhase(String statementId, ExecutionPhase phase, long nanos) {
+    metricsOf(statementId).getHistogram(phase).record(nanos);
+  }
+
+  @Override
+  public void recordRows(String statementId, int rows) {
+    metricsOf(statementId).addRows(rows);
+  }
+
+  @Override
+  public void recordCacheAccess(String statementId, boolean hit) {
+    metricsOf(statementId).addCacheAccess(hit);
+  }
+
+  private StatementMetrics metricsOf(String statementId) {
+    StatementMetrics statementMetrics = metrics.get(statementId);
+    if (statementMetrics == null) {
+      statementMetrics = metrics.computeIfAbsent(statementId, StatementMetrics::new);
+    }
+    return statementMetrics;
+  }
+
+  /**
+   * @return the metrics of the statement or {@code null} if nothing was recorded for it
+   */
+  public StatementMetrics getStatementMetrics(String statementId) {
+    return metrics.get(statementId);
+  }
+
+  @Override
+  public Set<String> getStatementIds() {
+    return Collections.unmodifiableSet(new TreeSet<>(metrics.keySet()));
+  }
+
+  @Override
+  public List<PhaseStatistics> getPhaseStatistics() {
+    List<PhaseStatistics> statistics = new ArrayList<>();
+    for (String statementId : getStatementIds()) {
+      StatementMetrics statementMetrics = metrics.get(statementId);
+      for (ExecutionPhase phase : ExecutionPhase.values()) {
+        LatencyHistogram histogram = statementMetrics.getHistogram(phase);
+        if (histogram.getCount() > 0) {
+          statistics.add(PhaseStatistics.of(statementId, phase, histogram));
+        }
+      }
+    }
+    return statistics;
+  }
+
+  @Override
+  public long getRowCount(String statementId) {
+    StatementMetrics statementMetrics = metrics.get(statementId);
+    return statementMetrics == null ? 0 : statementMetrics.getRowCount();
+  }
+
+  @Override
+  public long getCacheHitCount(String statementId) {
+    StatementMetrics statementMetrics = metrics.get(statementId);
+    return statementMetrics == null ? 0 : statementMetrics.getCacheHitCount();
+  }
+
+  @Override
+  public long getCacheMissCount(String statementId) {
+    StatementMetrics statementMetrics = metrics.get(statementId);
+    return statementMetrics == null ? 0 : statementMetrics.getCacheMissCount();
+  }
+
+  @Override
+  public void reset() {
+    for (StatementMetrics statementMetrics : metrics.values()) {
+      statementMetrics.reset();
+    }
+  }
+
+}
@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * The phases of the execution of a mapped statement that are timed by a {@link MetricsRegistry}.
+ *
+ * @since 3.5.4
+ */
+public enum ExecutionPhase {
+  /**
+   * Building the SQL and its parameter mappings, see {@link org.apache.ibatis.mapping.MappedStatement#getBoundSql(Object)}.
+   */
+  SQL_BUILD,
+  /**
+   * Creating and configuring the JDBC statement.
+   */
+  PREPARE,
+  /**
+   * Setting the parameters of the JDBC statement.
+   */
+  PARAMETERIZE,
+  /**
+   * Executing the JDBC statement, without the result mapping.
+   */
+  EXECUTE,
+  /**
+   * Mapping the result sets to objects, including the nested selects.
+   */
+  RESULT_MAPPING
+}
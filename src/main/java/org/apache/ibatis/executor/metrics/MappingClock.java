@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * The time spent mapping result sets on the current thread, so that the execution of a query
+ * can be timed without its result mapping.
+ * <p>
+ * A result set handler sets the clock to its value before the mapping plus its own duration,
+ * which discards what the nested selects added in between as it is already part of that duration.
+ */
+final class MappingClock {
+
+  private static final ThreadLocal<long[]> NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+  private MappingClock() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static long[] current() {
+    return NANOS.get();
+  }
+
+}
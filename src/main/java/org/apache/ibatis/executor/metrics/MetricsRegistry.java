@@ -0,0 +1,41 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * Receives the execution metrics of the mapped statements.
+ * <p>
+ * Implementations are called on the threads executing the statements, so they must be thread safe and fast.
+ *
+ * @since 3.5.4
+ * @see DefaultMetricsRegistry
+ * @see org.apache.ibatis.session.Configuration#setMetricsRegistry(MetricsRegistry)
+ */
+public interface MetricsRegistry {
+
+  void recordPhase(String statementId, ExecutionPhase phase, long nanos);
+
+  /**
+   * Records the number of rows returned by a query, a query with a result handler returns none.
+   */
+  void recordRows(String statementId, int rows);
+
+  /**
+   * Records a lookup of the second level cache.
+   */
+  void recordCacheAccess(String statementId, boolean hit);
+
+}
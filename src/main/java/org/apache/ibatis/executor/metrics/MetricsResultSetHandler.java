@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+
+/**
+ * Records the result mapping phase and the number of rows read by a statement in a {@link MetricsRegistry}.
+ * The rows of a cursor are mapped while it is iterated and are not recorded.
+ *
+ * @since 3.5.4
+ * @see MetricsStatementHandler
+ */
+public class MetricsResultSetHandler implements ResultSetHandler {
+
+  private final ResultSetHandler delegate;
+  private final String statementId;
+  private final MetricsRegistry registry;
+
+  public MetricsResultSetHandler(ResultSetHandler delegate, String statementId, MetricsRegistry registry) {
+    this.delegate = delegate;
+    this.statementId = statementId;
+    this.registry = registry;
+  }
+
+  @Override
+  public <E> List<E> handleResultSets(Statement stmt) throws SQLException {
+    long[] mappingClock = MappingClock.current();
+    long mappingStart = mappingClock[0];
+    long start = System.nanoTime();
+    try {
+      return delegate.handleResultSets(stmt);
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      mappingClock[0] = mappingStart + elapsed;
+      registry.recordPhase(statementId, ExecutionPhase.RESULT_MAPPING, elapsed);
+      int rowCount = delegate.getRowCount();
+      if (rowCount >= 0) {
+        registry.recordRows(statementId, rowCount);
+      }
+    }
+  }
+
+  @Override
+  public <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException {
+    long[] mappingClock = MappingClock.current();
+    long mappingStart = mappingClock[0];
+    long start = System.nanoTime();
+    try {
+      return delegate.handleCursorResultSets(stmt);
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      mappingClock[0] = mappingStart + elapsed;
+      registry.recordPhase(statementId, ExecutionPhase.RESULT_MAPPING, elapsed);
+    }
+  }
+
+  @Override
+  public void handleOutputParameters(CallableStatement cs) throws SQLException {
+    delegate.handleOutputParameters(cs);
+  }
+
+  @Override
+  public int getRowCount() {
+    return delegate.getRowCount();
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Records the prepare, parameterize and execute phases of a statement in a {@link MetricsRegistry}.
+ *
+ * @since 3.5.4
+ * @see MetricsResultSetHandler
+ */
+public class MetricsStatementHandler implements StatementHandler {
+
+  private final StatementHandler delegate;
+  private final String statementId;
+  private final MetricsRegistry registry;
+
+  public MetricsStatementHandler(StatementHandler delegate, String statementId, MetricsRegistry registry) {
+    this.delegate = delegate;
+    this.statementId = statementId;
+    this.registry = registry;
+  }
+
+  @Override
+  public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
+    long start = System.nanoTime();
+    try {
+      return delegate.prepare(connection, transactionTimeout);
+    } finally {
+      registry.recordPhase(statementId, ExecutionPhase.PREPARE, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void parameterize(Statement statement) throws SQLException {
+    long start = System.nanoTime();
+    try {
+      delegate.parameterize(statement);
+    } finally {
+      registry.recordPhase(statementId, ExecutionPhase.PARAMETERIZE, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void batch(Statement statement) throws SQLException {
+    // the batch is executed later, by the executor
+    delegate.batch(statement);
+  }
+
+  @Override
+  public int update(Statement statement) throws SQLException {
+    long start = System.nanoTime();
+    try {
+      return delegate.update(statement);
+    } finally {
+      registry.recordPhase(statementId, ExecutionPhase.EXECUTE, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
+    long[] mappingClock = MappingClock.current();
+    long mappingStart = mappingClock[0];
+    long start = System.nanoTime();
+    try {
+      return delegate.query(statement, resultHandler);
+    } finally {
+      long mapping = mappingClock[0] - mappingStart;
+      registry.recordPhase(statementId, ExecutionPhase.EXECUTE, System.nanoTime() - start - mapping);
+    }
+  }
+
+  @Override
+  public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
+    long[] mappingClock = MappingClock.current();
+    long mappingStart = mappingClock[0];
+    long start = System.nanoTime();
+    try {
+      return delegate.queryCursor(statement);
+    } finally {
+      long mapping = mappingClock[0] - mappingStart;
+      registry.recordPhase(statementId, ExecutionPhase.EXECUTE, System.nanoTime() - start - mapping);
+    }
+  }
+
+  @Override
+  public BoundSql getBoundSql() {
+    return delegate.getBoundSql();
+  }
+
+  @Override
+  public ParameterHandler getParameterHandler() {
+    return delegate.getParameterHandler();
+  }
+
+  @Override
+  public int getRowCount() {
+    return delegate.getRowCount();
+  }
+
+}
@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A summary of the histogram of one phase of a statement, as exposed by {@link StatementMetricsMXBean}.
+ *
+ * @since 3.5.4
+ */
+public class PhaseStatistics {
+
+  private static final double NANOS_PER_MILLI = 1_000_000d;
+
+  private final String statementId;
+  private final String phase;
+  private final long count;
+  private final double meanMillis;
+  private final double medianMillis;
+  private final double percentile99Millis;
+  private final double maxMillis;
+
+  @ConstructorProperties({"statementId", "phase", "count", "meanMillis", "medianMillis", "percentile99Millis", "maxMillis"})
+  public PhaseStatistics(String statementId, String phase, long count, double meanMillis, double medianMillis,
+      double percentile99Millis, double maxMillis) {
+    this.statementId = statementId;
+    this.phase = phase;
+    this.count = count;
+    this.meanMillis = meanMillis;
+    this.medianMillis = medianMillis;
+    this.percentile99Millis = percentile99Millis;
+    this.maxMillis = maxMillis;
+  }
+
+  static PhaseStatistics of(String statementId, ExecutionPhase phase, LatencyHistogram histogram) {
+    return new PhaseStatistics(statementId, phase.name(), histogram.getCount(),
+        histogram.getMean() / NANOS_PER_MILLI,
+        histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+        histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+        histogram.getMax() / NANOS_PER_MILLI);
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public String getPhase() {
+    return phase;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMeanMillis() {
+    return meanMillis;
+  }
+
+  public double getMedianMillis() {
+    return medianMillis;
+  }
+
+  public double getPercentile99Millis() {
+    return percentile99Millis;
+  }
+
+  public double getMaxMillis() {
+    return maxMillis;
+  }
+
+}
@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics recorded by a {@link DefaultMetricsRegistry} for one mapped statement.
+ *
+ * @since 3.5.4
+ */
+public class StatementMetrics {
+
+  private final String statementId;
+  private final Map<ExecutionPhase, LatencyHistogram> histograms = new EnumMap<>(ExecutionPhase.class);
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+
+  public StatementMetrics(String statementId) {
+    this.statementId = statementId;
+    // filled once, only read afterwards
+    for (ExecutionPhase phase : ExecutionPhase.values()) {
+      histograms.put(phase, new LatencyHistogram());
+    }
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public LatencyHistogram getHistogram(ExecutionPhase phase) {
+    return histograms.get(phase);
+  }
+
+  public long getRowCount() {
+    return rows.sum();
+  }
+
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  public long getCacheMissCount() {
+    return cacheMisses.sum();
+  }
+
+  void addRows(int count) {
+    rows.add(count);
+  }
+
+  void addCacheAccess(boolean hit) {
+    if (hit) {
+      cacheHits.increment();
+    } else {
+      cacheMisses.increment();
+    }
+  }
+
+  void reset() {
+    for (LatencyHistogram histogram : histograms.values()) {
+      histogram.reset();
+    }
+    rows.reset();
+    cacheHits.reset();
+    cacheMisses.reset();
+  }
+
+}
@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The JMX view of a {@link DefaultMetricsRegistry}.
+ * <p>
+ * The registry is not registered automatically:
+ * <pre>
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(registry, new ObjectName("org.apache.ibatis:type=StatementMetrics"));
+ * </pre>
+ *
+ * @since 3.5.4
+ */
+public interface StatementMetricsMXBean {
+
+  Set<String> getStatementIds();
+
+  /**
+   * @return the statistics of the phases that were recorded at least once, for all statements
+   */
+  List<PhaseStatistics> getPhaseStatistics();
+
+  long getRowCount(String statementId);
+
+  long getCacheHitCount(String statementId);
+
+  long getCacheMissCount(String statementId);
+
+  void reset();
+
+}
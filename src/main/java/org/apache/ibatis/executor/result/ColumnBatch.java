@@ -0,0 +1,279 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * A fixed size batch of rows stored column by column.
+ * <p>
+ * Integer, long and floating point columns are read into primitive arrays, character columns are
+ * dictionary encoded into {@code int} codes and any other column is read with its {@link TypeHandler}.
+ * The arrays are reused from one batch to the next, so a batch is only valid until
+ * {@link ColumnBatchResultHandler#handleBatch(ColumnBatch)} returns.
+ * Dictionaries are shared by all the batches of a result set, so codes can be compared across batches.
+ *
+ * @since 3.5.4
+ */
+public class ColumnBatch {
+
+  public enum ColumnKind {
+    INT, LONG, DOUBLE, STRING, OBJECT
+  }
+
+  private final int capacity;
+  private final List<String> columnNames;
+  private final ColumnKind[] kinds;
+  private final TypeHandler<?>[] typeHandlers;
+  private final Object[] values;
+  private final BitSet[] nulls;
+  private final List<List<String>> dictionaries;
+  private final List<Map<String, Integer>> dictionaryCodes;
+  private int size;
+
+  public ColumnBatch(ResultSetWrapper rsw, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The batch capacity must be positive but was " + capacity);
+    }
+    this.capacity = capacity;
+    this.columnNames = Collections.unmodifiableList(new ArrayList<>(rsw.getColumnNames()));
+    int columnCount = columnNames.size();
+    this.kinds = new ColumnKind[columnCount];
+    this.typeHandlers = new TypeHandler<?>[columnCount];
+    this.values = new Object[columnCount];
+    this.nulls = new BitSet[columnCount];
+    this.dictionaries = new ArrayList<>(columnCount);
+    this.dictionaryCodes = new ArrayList<>(columnCount);
+    List<JdbcType> jdbcTypes = rsw.getJdbcTypes();
+    for (int i = 0; i < columnCount; i++) {
+      ColumnKind kind = kindOf(jdbcTypes.get(i));
+      kinds[i] = kind;
+      nulls[i] = new BitSet(capacity);
+      dictionaries.add(kind == ColumnKind.STRING ? new ArrayList<>() : null);
+      dictionaryCodes.add(kind == ColumnKind.STRING ? new HashMap<>() : null);
+      switch (kind) {
+        case INT:
+          values[i] = new int[capacity];
+          break;
+        case LONG:
+          values[i] = new long[capacity];
+          break;
+        case DOUBLE:
+          values[i] = new double[capacity];
+          break;
+        case STRING:
+          values[i] = new int[capacity];
+          break;
+        default:
+          values[i] = new Object[capacity];
+          typeHandlers[i] = rsw.getTypeHandler(Object.class, columnNames.get(i));
+      }
+    }
+  }
+
+  private static ColumnKind kindOf(JdbcType jdbcType) {
+    if (jdbcType == null) {
+      return ColumnKind.OBJECT;
+    }
+    switch (jdbcType) {
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+        return ColumnKind.INT;
+      case BIGINT:
+        return ColumnKind.LONG;
+      case FLOAT:
+      case REAL:
+      case DOUBLE:
+        return ColumnKind.DOUBLE;
+      case CHAR:
+      case VARCHAR:
+      case LONGVARCHAR:
+      case NCHAR:
+      case NVARCHAR:
+      case LONGNVARCHAR:
+        return ColumnKind.STRING;
+      default:
+        return ColumnKind.OBJECT;
+    }
+  }
+
+  /**
+   * Reads the current row of the result set into the next free slot of this batch.
+   */
+  public void readRow(ResultSet rs) throws SQLException {
+    if (isFull()) {
+      throw new IllegalStateException("The batch is full.");
+    }
+    final int row = size;
+    for (int i = 0; i < kinds.length; i++) {
+      final int columnIndex = i + 1;
+      switch (kinds[i]) {
+        case INT:
+          ((int[]) values[i])[row] = rs.getInt(columnIndex);
+          nulls[i].set(row, rs.wasNull());
+          break;
+        case LONG:
+          ((long[]) values[i])[row] = rs.getLong(columnIndex);
+          nulls[i].set(row, rs.wasNull());
+          break;
+        case DOUBLE:
+          ((double[]) values[i])[row] = rs.getDouble(columnIndex);
+          nulls[i].set(row, rs.wasNull());
+          break;
+        case STRING:
+          String value = rs.getString(columnIndex);
+          ((int[]) values[i])[row] = value == null ? -1 : encode(i, value);
+          nulls[i].set(row, value == null);
+          break;
+        default:
+          Object object = typeHandlers[i].getResult(rs, columnIndex);
+          ((Object[]) values[i])[row] = object;
+          nulls[i].set(row, object == null);
+      }
+    }
+    size++;
+  }
+
+  private int encode(int column, String value) {
+    Map<String, Integer> codes = dictionaryCodes.get(column);
+    Integer code = codes.get(value);
+    if (code == null) {
+      List<String> dictionary = dictionaries.get(column);
+      code = dictionary.size();
+      dictionary.add(value);
+      codes.put(value, code);
+    }
+    return code;
+  }
+
+  /**
+   * Empties the batch so its arrays can be filled again. Dictionaries are kept.
+   */
+  public void clear() {
+    for (int i = 0; i < kinds.length; i++) {
+      nulls[i].clear();
+      if (kinds[i] == ColumnKind.OBJECT) {
+        Arrays.fill((Object[]) values[i], 0, size, null);
+      }
+    }
+    size = 0;
+  }
+
+  public boolean isFull() {
+    return size == capacity;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return the number of rows in this batch, the arrays may be longer
+   */
+  public int size() {
+    return size;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public int getColumnCount() {
+    return kinds.length;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  /**
+   * @return the zero based index of the column or -1 if there is no such column (case insensitive)
+   */
+  public int indexOf(String columnName) {
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public ColumnKind getColumnKind(int column) {
+    return kinds[column];
+  }
+
+  public boolean isNull(int column, int row) {
+    return nulls[column].get(row);
+  }
+
+  public int[] getInts(int column) {
+    return (int[]) column(column, ColumnKind.INT);
+  }
+
+  public long[] getLongs(int column) {
+    return (long[]) column(column, ColumnKind.LONG);
+  }
+
+  public double[] getDoubles(int column) {
+    return (double[]) column(column, ColumnKind.DOUBLE);
+  }
+
+  /**
+   * @return the dictionary codes of a character column, -1 for {@code null}
+   */
+  public int[] getStringCodes(int column) {
+    return (int[]) column(column, ColumnKind.STRING);
+  }
+
+  /**
+   * @return the values of a character column, indexed by code
+   */
+  public List<String> getDictionary(int column) {
+    column(column, ColumnKind.STRING);
+    return Collections.unmodifiableList(dictionaries.get(column));
+  }
+
+  public String getString(int column, int row) {
+    int code = getStringCodes(column)[row];
+    return code < 0 ? null : dictionaries.get(column).get(code);
+  }
+
+  public Object[] getObjects(int column) {
+    return (Object[]) column(column, ColumnKind.OBJECT);
+  }
+
+  private Object column(int column, ColumnKind expected) {
+    if (kinds[column] != expected) {
+      throw new IllegalArgumentException("Column '" + columnNames.get(column) + "' is of kind " + kinds[column]
+          + " and cannot be read as " + expected + ".");
+    }
+    return values[column];
+  }
+
+}
@@ -0,0 +1,64 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * A result handler that receives rows as {@link ColumnBatch}es instead of mapped objects.
+ * <p>
+ * When a statement is executed with this handler, the result map is not applied:
+ * no result object is created and the columns are read straight into primitive arrays.
+ * Each batch is passed to {@link #handleResult(ResultContext)} as the result object and handed over to
+ * {@link #handleBatch(ColumnBatch)}. Statements with nested result maps, nested selects or multiple
+ * result sets are rejected with an {@link ExecutorException} before they are executed.
+ *
+ * @since 3.5.4
+ */
+public abstract class ColumnBatchResultHandler implements ResultHandler<ColumnBatch> {
+
+  private final int batchSize;
+
+  protected ColumnBatchResultHandler(int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("The batch size must be positive but was " + batchSize);
+    }
+    this.batchSize = batchSize;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Called each time a batch is full and once more for the remaining rows, if any.
+   * The batch is reused afterwards, so it must not be kept.
+   */
+  public abstract void handleBatch(ColumnBatch batch);
+
+  @Override
+  public final void handleResult(ResultContext<? extends ColumnBatch> resultContext) {
+    Object batch = resultContext.getResultObject();
+    if (!(batch instanceof ColumnBatch)) {
+      throw new ExecutorException("A ColumnBatchResultHandler expects column batches but received " + batch
+          + ". Is the statement handled by a custom ResultSetHandler?");
+    }
+    handleBatch((ColumnBatch) batch);
+  }
+
+}
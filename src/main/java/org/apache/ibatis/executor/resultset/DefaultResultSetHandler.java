@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,8 +21,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -39,6 +42,8 @@ import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnBatch;
+import org.apache.ibatis.executor.result.ColumnBatchResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
@@ -49,9 +54,11 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ConstructorInstantiator;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
@@ -82,9 +89,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final TypeHandlerRegistry typeHandlerRegistry;
   private final ObjectFactory objectFactory;
   private final ReflectorFactory reflectorFactory;
+  private final Integer maxResultRows;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private final IdentityMap nestedResultObjects = new IdentityMap();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
@@ -92,9 +100,22 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // rows read from the result sets
+  private int readRowCount;
+
+  // session scoped identity map, null unless enabled and the rows are collected in a list
+  private IdentityMap sessionIdentityMap;
+  // objects taken from the session identity map, they are not mapped again
+  private final Set<Object> sharedResultObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+  // values of the row key being built (reused)
+  private final List<Object> rowKeyValues = new ArrayList<>();
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
 
+  // Cached constructor bindings, keyed by the constructor mappings of a result map or by the automapped result type
+  private final Map<Object, ConstructorBinding> constructorBindings = new IdentityHashMap<>();
+
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
@@ -117,6 +138,47 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  /**
+   * The constructor arguments of a result type, resolved once per result map or column layout.
+   * The argument array is reused from row to row unless the same binding is needed again while
+   * its arguments are being read, e.g. for a result map nested in itself.
+   */
+  private static class ConstructorBinding {
+    private final Class<?>[] argTypes;
+    private final List<Class<?>> argTypeList;
+    private final ResultSetWrapper rsw;
+    private final String[] columns;
+    private final TypeHandler<?>[] typeHandlers;
+    private final Object[] args;
+    private boolean argsInUse;
+    private boolean instantiatorResolved;
+    private ConstructorInstantiator instantiator;
+
+    ConstructorBinding(Class<?>[] argTypes, ResultSetWrapper rsw, String[] columns, TypeHandler<?>[] typeHandlers) {
+      this.argTypes = argTypes;
+      this.argTypeList = Collections.unmodifiableList(Arrays.asList(argTypes));
+      this.rsw = rsw;
+      this.columns = columns;
+      this.typeHandlers = typeHandlers;
+      this.args = new Object[argTypes.length];
+    }
+
+    Object[] acquireArgs() {
+      if (argsInUse) {
+        return new Object[argTypes.length];
+      }
+      argsInUse = true;
+      return args;
+    }
+
+    void releaseArgs(Object[] values) {
+      Arrays.fill(values, null);
+      if (values == args) {
+        argsInUse = false;
+      }
+    }
+  }
+
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
                                  RowBounds rowBounds) {
     this.executor = executor;
@@ -129,6 +191,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.objectFactory = configuration.getObjectFactory();
     this.reflectorFactory = configuration.getReflectorFactory();
     this.resultHandler = resultHandler;
+    this.maxResultRows = configuration.getMaxResultRows();
+    // the rows passed to a custom result handler are not retained by the session
+    this.sessionIdentityMap = executor == null || resultHandler != null && !(resultHandler instanceof DefaultResultHandler)
+        ? null : executor.getIdentityMap();
+    // checked before the statement runs, as column batches skip the result map
+    validateColumnBatchResultHandler();
   }
 
   //
@@ -230,9 +298,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
+    // nor are the rows streamed by a cursor
+    sessionIdentityMap = null;
     return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
   }
 
+  @Override
+  public int getRowCount() {
+    return readRowCount;
+  }
+
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
     ResultSet rs = stmt.getResultSet();
     while (rs == null) {
@@ -282,6 +357,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    sharedResultObjects.clear();
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -291,6 +367,23 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  private void validateColumnBatchResultHandler() {
+    if (!(resultHandler instanceof ColumnBatchResultHandler)) {
+      return;
+    }
+    final List<ResultMap> resultMaps = mappedStatement.getResultMaps();
+    if (resultMaps.size() > 1 || mappedStatement.getResultSets() != null) {
+      throw new ExecutorException("Mapped Statement '" + mappedStatement.getId()
+          + "' returns multiple result sets, which cannot be read with a ColumnBatchResultHandler.");
+    }
+    for (ResultMap resultMap : resultMaps) {
+      if (resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries()) {
+        throw new ExecutorException("Result Map '" + resultMap.getId()
+            + "' has nested result maps or nested selects, which cannot be read with a ColumnBatchResultHandler.");
+      }
+    }
+  }
+
   private void handleResultSet(ResultSetWrapper rsw, ResultMap resultMap, List<Object> multipleResults, ResultMapping parentMapping) throws SQLException {
     try {
       if (parentMapping != null) {
@@ -300,6 +393,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
           handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
           multipleResults.add(defaultResultHandler.getResultList());
+        } else if (resultHandler instanceof ColumnBatchResultHandler) {
+          handleColumnBatches(rsw, (ColumnBatchResultHandler) resultHandler, rowBounds);
         } else {
           handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
         }
@@ -350,6 +445,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      readRowCount++;
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
@@ -367,6 +463,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue) {
     resultContext.nextResultObject(rowValue);
+    // only the rows collected into a list are limited, the other handlers do not keep them
+    if (maxResultRows != null && resultHandler instanceof DefaultResultHandler && resultContext.getResultCount() > maxResultRows) {
+      throw new ExecutorException("The statement '" + mappedStatement.getId() + "' mapped more than " + maxResultRows
+          + " rows, the limit set by maxResultRows. Use a RowBounds, a ResultHandler or a Cursor to read large results.");
+    }
     ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
   }
 
@@ -388,11 +489,45 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  //
+  // HANDLE ROWS FOR COLUMN BATCHES
+  //
+
+  private void handleColumnBatches(ResultSetWrapper rsw, ColumnBatchResultHandler batchHandler, RowBounds rowBounds) throws SQLException {
+    final ResultSet resultSet = rsw.getResultSet();
+    final ColumnBatch batch = new ColumnBatch(rsw, batchHandler.getBatchSize());
+    final DefaultResultContext<ColumnBatch> resultContext = new DefaultResultContext<>();
+    skipRows(resultSet, rowBounds);
+    int rowCount = 0;
+    while (rowCount < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+      batch.readRow(resultSet);
+      rowCount++;
+      readRowCount++;
+      if (batch.isFull()) {
+        resultContext.nextResultObject(batch);
+        batchHandler.handleResult(resultContext);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      resultContext.nextResultObject(batch);
+      batchHandler.handleResult(resultContext);
+    }
+  }
+
   //
   // GET VALUE FROM ROW FOR SIMPLE RESULT MAP
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    final IdentityMap.Key entityKey = sessionIdentityMap == null || resultMap.getIdResultMappings().isEmpty()
+        ? null : createEntityKey(resultMap, createRowKey(resultMap, rsw, columnPrefix));
+    if (entityKey != null) {
+      final Object sharedObject = sessionIdentityMap.get(entityKey);
+      if (sharedObject != null) {
+        return sharedObject;
+      }
+    }
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
@@ -405,6 +540,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       foundValues = lazyLoader.size() > 0 || foundValues;
       rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
     }
+    if (entityKey != null && rowValue != null) {
+      sessionIdentityMap.put(entityKey, rowValue);
+    }
     return rowValue;
   }
 
@@ -586,23 +724,29 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
     this.useConstructorMappings = false; // reset previous mapping result
-    final List<Class<?>> constructorArgTypes = new ArrayList<>();
-    final List<Object> constructorArgs = new ArrayList<>();
+    // constructor arguments are only collected when the proxy factory needs them
+    final boolean lazyLoadable = hasLazyNestedQuery(resultMap);
+    final List<Class<?>> constructorArgTypes = lazyLoadable ? new ArrayList<>() : null;
+    final List<Object> constructorArgs = lazyLoadable ? new ArrayList<>() : null;
     Object resultObject = createResultObject(rsw, resultMap, constructorArgTypes, constructorArgs, columnPrefix);
-    if (resultObject != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
-      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-      for (ResultMapping propertyMapping : propertyMappings) {
-        // issue gcode #109 && issue #149
-        if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
-          resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
-          break;
-        }
-      }
+    final boolean createdByConstructor = this.useConstructorMappings;
+    // issue gcode #109 && issue #149
+    if (resultObject != null && lazyLoadable && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
+      resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration, objectFactory, constructorArgTypes, constructorArgs);
     }
-    this.useConstructorMappings = resultObject != null && !constructorArgTypes.isEmpty(); // set current mapping result
+    this.useConstructorMappings = resultObject != null && createdByConstructor; // set current mapping result
     return resultObject;
   }
 
+  private boolean hasLazyNestedQuery(ResultMap resultMap) {
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, String columnPrefix)
       throws SQLException {
     final Class<?> resultType = resultMap.getType();
@@ -622,61 +766,118 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   Object createParameterizedResultObject(ResultSetWrapper rsw, Class<?> resultType, List<ResultMapping> constructorMappings,
                                          List<Class<?>> constructorArgTypes, List<Object> constructorArgs, String columnPrefix) {
-    boolean foundValues = false;
-    for (ResultMapping constructorMapping : constructorMappings) {
-      final Class<?> parameterType = constructorMapping.getJavaType();
-      final String column = constructorMapping.getColumn();
-      final Object value;
-      try {
-        if (constructorMapping.getNestedQueryId() != null) {
-          value = getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
-        } else if (constructorMapping.getNestedResultMapId() != null) {
-          final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
-          value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
-        } else {
-          final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+    ConstructorBinding binding = constructorBindings.get(constructorMappings);
+    if (binding == null) {
+      final Class<?>[] argTypes = new Class<?>[constructorMappings.size()];
+      for (int i = 0; i < argTypes.length; i++) {
+        argTypes[i] = constructorMappings.get(i).getJavaType();
+      }
+      binding = new ConstructorBinding(argTypes, null, null, null);
+      constructorBindings.put(constructorMappings, binding);
+    }
+    final Object[] args = binding.acquireArgs();
+    try {
+      boolean foundValues = false;
+      for (int i = 0; i < args.length; i++) {
+        final ResultMapping constructorMapping = constructorMappings.get(i);
+        final String column = constructorMapping.getColumn();
+        final Object value;
+        try {
+          if (constructorMapping.getNestedQueryId() != null) {
+            value = getNestedQueryConstructorValue(rsw.getResultSet(), constructorMapping, columnPrefix);
+          } else if (constructorMapping.getNestedResultMapId() != null) {
+            final ResultMap resultMap = configuration.getResultMap(constructorMapping.getNestedResultMapId());
+            value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
+          } else {
+            final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
+            value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          }
+        } catch (ResultMapException | SQLException e) {
+          throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
         }
-      } catch (ResultMapException | SQLException e) {
-        throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
+        args[i] = value;
+        foundValues = value != null || foundValues;
       }
-      constructorArgTypes.add(parameterType);
-      constructorArgs.add(value);
-      foundValues = value != null || foundValues;
+      return instantiate(binding, resultType, args, constructorArgTypes, constructorArgs, foundValues);
+    } finally {
+      binding.releaseArgs(args);
     }
-    return foundValues ? objectFactory.create(resultType, constructorArgTypes, constructorArgs) : null;
   }
 
   private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
+    ConstructorBinding binding = constructorBindings.get(resultType);
+    if (binding == null || binding.rsw != rsw) {
+      binding = bindConstructorSignature(rsw, resultType, findConstructorForSignature(rsw, resultType));
+      constructorBindings.put(resultType, binding);
+    }
+    return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, binding);
+  }
+
+  private Constructor<?> findConstructorForSignature(ResultSetWrapper rsw, Class<?> resultType) {
     final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
-    final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
+    final Constructor<?> defaultConstructor = findDefaultConstructor(resultType, constructors);
     if (defaultConstructor != null) {
-      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, defaultConstructor);
+      return defaultConstructor;
     } else {
       for (Constructor<?> constructor : constructors) {
         if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
-          return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
+          return constructor;
         }
       }
     }
     throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
   }
 
-  private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Constructor<?> constructor) throws SQLException {
-    boolean foundValues = false;
-    for (int i = 0; i < constructor.getParameterTypes().length; i++) {
-      Class<?> parameterType = constructor.getParameterTypes()[i];
-      String columnName = rsw.getColumnNames().get(i);
-      TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
-      constructorArgTypes.add(parameterType);
-      constructorArgs.add(value);
-      foundValues = value != null || foundValues;
+  private ConstructorBinding bindConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, Constructor<?> constructor) {
+    final Class<?>[] argTypes = constructor.getParameterTypes();
+    final String[] columns = new String[argTypes.length];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[argTypes.length];
+    for (int i = 0; i < argTypes.length; i++) {
+      columns[i] = rsw.getColumnNames().get(i);
+      typeHandlers[i] = rsw.getTypeHandler(argTypes[i], columns[i]);
     }
-    return foundValues ? objectFactory.create(resultType, constructorArgTypes, constructorArgs) : null;
+    return new ConstructorBinding(argTypes, rsw, columns, typeHandlers);
   }
 
-  private Constructor<?> findDefaultConstructor(final Constructor<?>[] constructors) {
+  private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, ConstructorBinding binding) throws SQLException {
+    final Object[] args = binding.acquireArgs();
+    try {
+      boolean foundValues = false;
+      for (int i = 0; i < args.length; i++) {
+        Object value = binding.typeHandlers[i].getResult(rsw.getResultSet(), binding.columns[i]);
+        args[i] = value;
+        foundValues = value != null || foundValues;
+      }
+      return instantiate(binding, resultType, args, constructorArgTypes, constructorArgs, foundValues);
+    } finally {
+      binding.releaseArgs(args);
+    }
+  }
+
+  private Object instantiate(ConstructorBinding binding, Class<?> resultType, Object[] args,
+                             List<Class<?>> constructorArgTypes, List<Object> constructorArgs, boolean foundValues) {
+    if (constructorArgTypes != null) {
+      constructorArgTypes.addAll(binding.argTypeList);
+      constructorArgs.addAll(Arrays.asList(args));
+    }
+    this.useConstructorMappings = true;
+    if (!foundValues) {
+      return null;
+    }
+    if (!binding.instantiatorResolved) {
+      // a custom object factory must see every instantiation
+      if (objectFactory.getClass() == DefaultObjectFactory.class) {
+        binding.instantiator = reflectorFactory.findForClass(resultType).getConstructorInstantiator(binding.argTypes);
+      }
+      binding.instantiatorResolved = true;
+    }
+    if (binding.instantiator != null) {
+      return binding.instantiator.newInstance(args);
+    }
+    return objectFactory.create(resultType, new ArrayList<>(binding.argTypeList), new ArrayList<>(Arrays.asList(args)));
+  }
+
+  private Constructor<?> findDefaultConstructor(final Class<?> resultType, final Constructor<?>[] constructors) {
     if (constructors.length == 1) {
       return constructors[0];
     }
@@ -686,7 +887,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         return constructor;
       }
     }
-    return null;
+    // the canonical constructor of a record follows the order of its components
+    return reflectorFactory.findForClass(resultType).getRecordConstructor();
   }
 
   private boolean allowedConstructorUsingTypeHandlers(final Constructor<?> constructor, final List<JdbcType> jdbcTypes) {
@@ -856,9 +1058,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     skipRows(resultSet, rowBounds);
     Object rowValue = previousRowValue;
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      readRowCount++;
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
-      Object partialObject = nestedResultObjects.get(rowKey);
+      final IdentityMap.Key rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      Object partialObject = rowKey == null ? null : nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
@@ -885,14 +1088,22 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, IdentityMap.Key combinedKey, String columnPrefix, Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
     if (rowValue != null) {
-      final MetaObject metaObject = configuration.newMetaObject(rowValue);
-      putAncestor(rowValue, resultMapId);
-      applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, false);
-      ancestorObjects.remove(resultMapId);
+      if (sessionIdentityMap == null || !sharedResultObjects.contains(rowValue)) {
+        final MetaObject metaObject = configuration.newMetaObject(rowValue);
+        putAncestor(rowValue, resultMapId);
+        applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, false);
+        ancestorObjects.remove(resultMapId);
+      }
+      return rowValue;
+    }
+    final IdentityMap.Key entityKey = createEntityKey(resultMap, combinedKey);
+    rowValue = entityKey == null ? null : sessionIdentityMap.get(entityKey);
+    if (rowValue != null) {
+      sharedResultObjects.add(rowValue);
     } else {
       final ResultLoaderMap lazyLoader = new ResultLoaderMap();
       rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
@@ -909,13 +1120,24 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         foundValues = lazyLoader.size() > 0 || foundValues;
         rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
       }
-      if (combinedKey != CacheKey.NULL_CACHE_KEY) {
-        nestedResultObjects.put(combinedKey, rowValue);
+      if (entityKey != null && rowValue != null) {
+        sessionIdentityMap.put(entityKey, rowValue);
       }
     }
+    if (combinedKey != null) {
+      nestedResultObjects.put(combinedKey, rowValue);
+    }
     return rowValue;
   }
 
+  private IdentityMap.Key createEntityKey(ResultMap resultMap, IdentityMap.Key rowKey) {
+    if (sessionIdentityMap == null || rowKey == null || resultMap.getIdResultMappings().isEmpty()) {
+      return null;
+    }
+    // an entity is the same whatever the column prefix and the parent object
+    return rowKey.withoutContext();
+  }
+
   private void putAncestor(Object resultObject, String resultMapId) {
     ancestorObjects.put(resultMapId, resultObject);
   }
@@ -924,7 +1146,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // NESTED RESULT MAP (JOIN MAPPING)
   //
 
-  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, IdentityMap.Key parentRowKey, boolean newObject) {
     boolean foundValues = false;
     for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
       final String nestedResultMapId = resultMapping.getNestedResultMapId();
@@ -943,9 +1165,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
-          Object rowValue = nestedResultObjects.get(combinedKey);
+          final IdentityMap.Key rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
+          final IdentityMap.Key combinedKey = combineKeys(rowKey, parentRowKey);
+          Object rowValue = combinedKey == null ? null : nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
           if (anyNotNullColumnHasValue(resultMapping, columnPrefix, rsw)) {
@@ -1005,37 +1227,31 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
+  private IdentityMap.Key createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    final List<Object> values = rowKeyValues;
+    values.clear();
+    final boolean foundValues;
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
     if (resultMappings.isEmpty()) {
       if (Map.class.isAssignableFrom(resultMap.getType())) {
-        createRowKeyForMap(rsw, cacheKey);
+        foundValues = createRowKeyForMap(rsw, values);
       } else {
-        createRowKeyForUnmappedProperties(resultMap, rsw, cacheKey, columnPrefix);
+        foundValues = createRowKeyForUnmappedProperties(resultMap, rsw, values, columnPrefix);
       }
     } else {
-      createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
+      foundValues = createRowKeyForMappedProperties(resultMap, rsw, values, resultMappings, columnPrefix);
     }
-    if (cacheKey.getUpdateCount() < 2) {
-      return CacheKey.NULL_CACHE_KEY;
+    if (!foundValues) {
+      return null;
     }
-    return cacheKey;
+    return new IdentityMap.Key(resultMap.getId(), columnPrefix, values.toArray());
   }
 
-  private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-    if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
-      CacheKey combinedKey;
-      try {
-        combinedKey = rowKey.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
-      }
-      combinedKey.update(parentRowKey);
-      return combinedKey;
+  private IdentityMap.Key combineKeys(IdentityMap.Key rowKey, IdentityMap.Key parentRowKey) {
+    if (rowKey != null && parentRowKey != null) {
+      return rowKey.withParent(parentRowKey);
     }
-    return CacheKey.NULL_CACHE_KEY;
+    return null;
   }
 
   private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
@@ -1046,13 +1262,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMappings;
   }
 
-  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+  // values are added by position, so a missing or null column is recorded as null
+  private boolean createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, List<Object> values, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+    boolean foundValues = false;
     for (ResultMapping resultMapping : resultMappings) {
       if (resultMapping.getNestedResultMapId() != null && resultMapping.getResultSet() == null) {
         // Issue #392
         final ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
-        createRowKeyForMappedProperties(nestedResultMap, rsw, cacheKey, nestedResultMap.getConstructorResultMappings(),
-            prependPrefix(resultMapping.getColumnPrefix(), columnPrefix));
+        foundValues = createRowKeyForMappedProperties(nestedResultMap, rsw, values, nestedResultMap.getConstructorResultMappings(),
+            prependPrefix(resultMapping.getColumnPrefix(), columnPrefix)) || foundValues;
       } else if (resultMapping.getNestedQueryId() == null) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
         final TypeHandler<?> th = resultMapping.getTypeHandler();
@@ -1060,18 +1278,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
           final Object value = th.getResult(rsw.getResultSet(), column);
-          if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-            cacheKey.update(column);
-            cacheKey.update(value);
-          }
+          values.add(value);
+          foundValues = value != null || configuration.isReturnInstanceForEmptyRow() || foundValues;
+        } else {
+          values.add(null);
         }
       }
     }
+    return foundValues;
   }
 
-  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, String columnPrefix) throws SQLException {
+  private boolean createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, List<Object> values, String columnPrefix) throws SQLException {
     final MetaClass metaType = MetaClass.forClass(resultMap.getType(), reflectorFactory);
     List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
+    boolean foundValues = false;
     for (String column : unmappedColumnNames) {
       String property = column;
       if (columnPrefix != null && !columnPrefix.isEmpty()) {
@@ -1084,23 +1304,22 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
         String value = rsw.getResultSet().getString(column);
-        if (value != null) {
-          cacheKey.update(column);
-          cacheKey.update(value);
-        }
+        values.add(value);
+        foundValues = value != null || foundValues;
       }
     }
+    return foundValues;
   }
 
-  private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
+  private boolean createRowKeyForMap(ResultSetWrapper rsw, List<Object> values) throws SQLException {
     List<String> columnNames = rsw.getColumnNames();
+    boolean foundValues = false;
     for (String columnName : columnNames) {
       final String value = rsw.getResultSet().getString(columnName);
-      if (value != null) {
-        cacheKey.update(columnName);
-        cacheKey.update(value);
-      }
+      values.add(value);
+      foundValues = value != null || foundValues;
     }
+    return foundValues;
   }
 
   private void linkObjects(MetaObject metaObject, ResultMapping resultMapping, Object rowValue) {
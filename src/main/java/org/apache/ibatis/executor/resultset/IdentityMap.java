@@ -0,0 +1,222 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+
+/**
+ * Maps the identity of a row, as read from its id columns, to the object built from it.
+ * <p>
+ * Each key hashes its values into a primitive {@code long} and the map is an open addressing table
+ * of those hashes, so looking a row up does not allocate map entries and a key only keeps the
+ * values it was read from, which are compared when two hashes are equal.
+ * It is used by {@link DefaultResultSetHandler} to merge the rows of nested result maps and by the
+ * executor as session scoped identity map. It is not thread safe.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.session.Configuration#isSessionIdentityMapEnabled()
+ */
+public class IdentityMap {
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int MAX_RETAINED_CAPACITY = 4096;
+
+  private long[] hashes;
+  private Key[] keys;
+  private Object[] values;
+  private int size;
+
+  public IdentityMap() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    hashes = new long[capacity];
+    keys = new Key[capacity];
+    values = new Object[capacity];
+  }
+
+  public Object get(Key key) {
+    final int mask = keys.length - 1;
+    for (int i = (int) key.hash & mask; keys[i] != null; i = (i + 1) & mask) {
+      if (hashes[i] == key.hash && keys[i].equals(key)) {
+        return values[i];
+      }
+    }
+    return null;
+  }
+
+  public void put(Key key, Object value) {
+    final int mask = keys.length - 1;
+    int i = (int) key.hash & mask;
+    for (; keys[i] != null; i = (i + 1) & mask) {
+      if (hashes[i] == key.hash && keys[i].equals(key)) {
+        values[i] = value;
+        return;
+      }
+    }
+    hashes[i] = key.hash;
+    keys[i] = key;
+    values[i] = value;
+    if (++size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+  }
+
+  private void resize(int capacity) {
+    final long[] oldHashes = hashes;
+    final Key[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(capacity);
+    final int mask = capacity - 1;
+    for (int j = 0; j < oldKeys.length; j++) {
+      if (oldKeys[j] != null) {
+        int i = (int) oldHashes[j] & mask;
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
+        }
+        hashes[i] = oldHashes[j];
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    if (size == 0) {
+      return;
+    }
+    if (keys.length > MAX_RETAINED_CAPACITY) {
+      allocate(INITIAL_CAPACITY);
+    } else {
+      Arrays.fill(keys, null);
+      Arrays.fill(values, null);
+    }
+    size = 0;
+  }
+
+  /**
+   * The identity of a row for a result map: the values of its id columns and, for the objects of a
+   * nested result map, the identity of the row of the parent object.
+   */
+  public static final class Key {
+
+    private final String resultMapId;
+    private final String columnPrefix;
+    private final Object[] values;
+    private final Key parent;
+    private final long hash;
+
+    /**
+     * @param values the values of the id columns, in the same order for every key of a result map and column prefix
+     */
+    public Key(String resultMapId, String columnPrefix, Object[] values) {
+      this(resultMapId, columnPrefix, values, null);
+    }
+
+    private Key(String resultMapId, String columnPrefix, Object[] values, Key parent) {
+      this.resultMapId = resultMapId;
+      this.columnPrefix = columnPrefix;
+      this.values = values;
+      this.parent = parent;
+      long h = resultMapId.hashCode();
+      h = h * 31 + (columnPrefix == null ? 0 : columnPrefix.hashCode());
+      for (Object value : values) {
+        h = (h ^ ArrayUtil.hashCode(value)) * 0x9E3779B97F4A7C15L;
+      }
+      if (parent != null) {
+        h = (h ^ parent.hash) * 0x9E3779B97F4A7C15L;
+      }
+      // final avalanche of MurmurHash3 so that the low bits used as table index depend on every value
+      h ^= h >>> 33;
+      h *= 0xFF51AFD7ED558CCDL;
+      h ^= h >>> 33;
+      h *= 0xC4CEB9FE1A85EC53L;
+      h ^= h >>> 33;
+      this.hash = h;
+    }
+
+    /**
+     * @return a key for the same values whose object belongs to the object of the parent row
+     */
+    public Key withParent(Key parent) {
+      return new Key(resultMapId, columnPrefix, values, parent);
+    }
+
+    /**
+     * @return a key for the same values that does not depend on the column prefix nor on a parent row
+     */
+    public Key withoutContext() {
+      return columnPrefix == null && parent == null ? this : new Key(resultMapId, null, values, null);
+    }
+
+    public long longHash() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (this == object) {
+        return true;
+      }
+      if (!(object instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) object;
+      if (hash != other.hash || values.length != other.values.length
+          || !resultMapId.equals(other.resultMapId) || !Objects.equals(columnPrefix, other.columnPrefix)
+          || !Objects.equals(parent, other.parent)) {
+        return false;
+      }
+      for (int i = 0; i < values.length; i++) {
+        if (!ArrayUtil.equals(values[i], other.values[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder();
+      if (parent != null) {
+        builder.append(parent).append(" > ");
+      }
+      builder.append(resultMapId);
+      if (columnPrefix != null) {
+        builder.append('[').append(columnPrefix).append(']');
+      }
+      return builder.append(ArrayUtil.toString(values)).toString();
+    }
+  }
+
+}
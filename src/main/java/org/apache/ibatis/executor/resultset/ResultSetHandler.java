@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -33,4 +33,15 @@ public interface ResultSetHandler {
 
   void handleOutputParameters(CallableStatement cs) throws SQLException;
 
+  /**
+   * Returns the rows read from the result sets so far. This is not the size of the result list when a result map
+   * has nested result maps or when the statement returns several result sets.
+   *
+   * @return the rows read so far, or -1 if this handler does not count them
+   * @since 3.5.4
+   */
+  default int getRowCount() {
+    return -1;
+  }
+
 }
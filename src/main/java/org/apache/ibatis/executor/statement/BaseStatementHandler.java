@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -80,9 +80,14 @@ public abstract class BaseStatementHandler implements StatementHandler {
     return parameterHandler;
   }
 
+  @Override
+  public int getRowCount() {
+    return resultSetHandler.getRowCount();
+  }
+
   @Override
   public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
-    ErrorContext.instance().sql(boundSql.getSql());
+    ErrorContext.instance().boundSql(boundSql);
     Statement statement = null;
     try {
       statement = instantiateStatement(connection);
@@ -119,12 +124,30 @@ public abstract class BaseStatementHandler implements StatementHandler {
       stmt.setFetchSize(fetchSize);
       return;
     }
+    if (configuration.isAdaptiveFetchSizeEnabled()) {
+      Integer learnedFetchSize = configuration.getFetchSizeHistory().getFetchSize(mappedStatement.getId(),
+          configuration.getAdaptiveFetchSizeMin(), configuration.getAdaptiveFetchSizeMax());
+      if (learnedFetchSize != null) {
+        stmt.setFetchSize(learnedFetchSize);
+        return;
+      }
+    }
     Integer defaultFetchSize = configuration.getDefaultFetchSize();
     if (defaultFetchSize != null) {
       stmt.setFetchSize(defaultFetchSize);
     }
   }
 
+  /**
+   * Records the number of rows a query read, used to learn its fetch size.
+   */
+  protected void recordRowCount() {
+    int rowCount = configuration.isAdaptiveFetchSizeEnabled() ? resultSetHandler.getRowCount() : -1;
+    if (rowCount >= 0) {
+      configuration.getFetchSizeHistory().record(mappedStatement.getId(), rowCount);
+    }
+  }
+
   protected void closeStatement(Statement statement) {
     try {
       if (statement != null) {
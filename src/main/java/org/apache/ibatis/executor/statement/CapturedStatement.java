@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+/**
+ * An execution of a statement captured by a {@link WatchdogStatementHandler} because it was slow or returned many rows.
+ *
+ * @since 3.5.4
+ */
+public class CapturedStatement {
+
+  private final String statementId;
+  private final String sql;
+  private final String parameters;
+  private final int rowCount;
+  private final long elapsedMillis;
+  private final long timestamp;
+
+  public CapturedStatement(String statementId, String sql, String parameters, int rowCount, long elapsedMillis, long timestamp) {
+    this.statementId = statementId;
+    this.sql = sql;
+    this.parameters = parameters;
+    this.rowCount = rowCount;
+    this.elapsedMillis = elapsedMillis;
+    this.timestamp = timestamp;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * @return the input parameters as rendered in the logs, e.g. {@code 101(Integer), null}
+   */
+  public String getParameters() {
+    return parameters;
+  }
+
+  /**
+   * @return the rows read by a query, the rows updated by an insert, update or delete,
+   *         or -1 for a cursor, a failed update or rows that are not counted
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * @return the end of the execution in milliseconds since the epoch
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return statementId + " (" + elapsedMillis + " ms, " + rowCount + " rows): " + sql + " [" + parameters + "]";
+  }
+
+}
@@ -0,0 +1,115 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an exponential moving average of the number of rows returned by each mapped statement,
+ * used to choose the fetch size of its next executions when adaptive fetch size is enabled.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.session.Configuration#isAdaptiveFetchSizeEnabled()
+ */
+public class FetchSizeHistory {
+
+  private static final double DEFAULT_SMOOTHING_FACTOR = 0.25d;
+
+  private final double smoothingFactor;
+  // average row counts stored as double bits
+  private final ConcurrentMap<String, AtomicLong> averages = new ConcurrentHashMap<>();
+
+  public FetchSizeHistory() {
+    this(DEFAULT_SMOOTHING_FACTOR);
+  }
+
+  /**
+   * @param smoothingFactor the weight of the last observation, between 0 (exclusive) and 1 (inclusive)
+   */
+  public FetchSizeHistory(double smoothingFactor) {
+    if (smoothingFactor <= 0 || smoothingFactor > 1) {
+      throw new IllegalArgumentException("The smoothing factor must be in (0, 1] but was " + smoothingFactor);
+    }
+    this.smoothingFactor = smoothingFactor;
+  }
+
+  public void record(String statementId, int rowCount) {
+    AtomicLong average = averages.get(statementId);
+    if (average == null) {
+      average = averages.computeIfAbsent(statementId, k -> new AtomicLong(Double.doubleToLongBits(Double.NaN)));
+    }
+    long current;
+    long next;
+    do {
+      current = average.get();
+      double previous = Double.longBitsToDouble(current);
+      double updated = Double.isNaN(previous) ? rowCount : previous + smoothingFactor * (rowCount - previous);
+      next = Double.doubleToLongBits(updated);
+    } while (!average.compareAndSet(current, next));
+  }
+
+  /**
+   * @return the average row count of the statement, or {@code null} if it has not been recorded yet
+   */
+  public Double getAverageRowCount(String statementId) {
+    AtomicLong average = averages.get(statementId);
+    if (average == null) {
+      return null;
+    }
+    double value = Double.longBitsToDouble(average.get());
+    return Double.isNaN(value) ? null : value;
+  }
+
+  /**
+   * Returns the fetch size learned for a statement.
+   * One row is added to the average so that the end of the result set is usually
+   * detected without an extra round trip.
+   *
+   * @return the learned fetch size bounded by {@code min} and {@code max}, or {@code null} if there is no history
+   */
+  public Integer getFetchSize(String statementId, int min, int max) {
+    Double average = getAverageRowCount(statementId);
+    if (average == null) {
+      return null;
+    }
+    long fetchSize = (long) Math.ceil(average) + 1;
+    return (int) Math.max(min, Math.min(max, fetchSize));
+  }
+
+  /**
+   * @return the learned fetch sizes keyed by statement id
+   */
+  public Map<String, Integer> getFetchSizes(int min, int max) {
+    Map<String, Integer> fetchSizes = new HashMap<>();
+    for (String statementId : averages.keySet()) {
+      Integer fetchSize = getFetchSize(statementId, min, max);
+      if (fetchSize != null) {
+        fetchSizes.put(statementId, fetchSize);
+      }
+    }
+    return Collections.unmodifiableMap(fetchSizes);
+  }
+
+  public void clear() {
+    averages.clear();
+  }
+
+}
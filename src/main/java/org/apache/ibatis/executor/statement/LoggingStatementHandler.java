@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Logs the statements executed by a {@link StatementHandler} without wrapping the JDBC objects in proxies.
+ * <p>
+ * The parameters are read from the bound SQL and rendered only when an execution is logged.
+ * When a slow statement threshold is set, the SQL is logged after the execution and only if it took longer,
+ * otherwise it is logged before the execution as the JDBC loggers do.
+ *
+ * @since 3.5.4
+ * @see Configuration#isLightweightStatementLogging()
+ */
+public class LoggingStatementHandler implements StatementHandler {
+
+  private final StatementHandler delegate;
+  private final MappedStatement mappedStatement;
+  private final Configuration configuration;
+  private final Log statementLog;
+
+  public LoggingStatementHandler(StatementHandler delegate, MappedStatement mappedStatement) {
+    this(delegate, mappedStatement, mappedStatement.getStatementLog());
+  }
+
+  LoggingStatementHandler(StatementHandler delegate, MappedStatement mappedStatement, Log statementLog) {
+    this.delegate = delegate;
+    this.mappedStatement = mappedStatement;
+    this.configuration = mappedStatement.getConfiguration();
+    this.statementLog = statementLog;
+  }
+
+  @Override
+  public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
+    return delegate.prepare(connection, transactionTimeout);
+  }
+
+  @Override
+  public void parameterize(Statement statement) throws SQLException {
+    delegate.parameterize(statement);
+  }
+
+  @Override
+  public void batch(Statement statement) throws SQLException {
+    // adding to a batch is not timed, the batch is executed later
+    logBefore();
+    delegate.batch(statement);
+  }
+
+  @Override
+  public int update(Statement statement) throws SQLException {
+    boolean logged = logBefore();
+    long start = System.nanoTime();
+    int updates = delegate.update(statement);
+    long elapsed = System.nanoTime() - start;
+    if (logged || logAfter(elapsed)) {
+      statementLog.debug("<==    Updates: " + updates + " (" + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms)");
+    }
+    return updates;
+  }
+
+  @Override
+  public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
+    boolean logged = logBefore();
+    long start = System.nanoTime();
+    List<E> results = delegate.query(statement, resultHandler);
+    long elapsed = System.nanoTime() - start;
+    if (logged || logAfter(elapsed)) {
+      // the rows read, as a result handler or nested result maps make the list differ from them
+      int rowCount = delegate.getRowCount();
+      statementLog.debug("<==      Total: " + (rowCount < 0 ? results.size() : rowCount)
+          + " (" + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms)");
+    }
+    return results;
+  }
+
+  @Override
+  public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
+    boolean logged = logBefore();
+    long start = System.nanoTime();
+    Cursor<E> cursor = delegate.queryCursor(statement);
+    if (!logged) {
+      logAfter(System.nanoTime() - start);
+    }
+    return cursor;
+  }
+
+  @Override
+  public BoundSql getBoundSql() {
+    return delegate.getBoundSql();
+  }
+
+  @Override
+  public ParameterHandler getParameterHandler() {
+    return delegate.getParameterHandler();
+  }
+
+  @Override
+  public int getRowCount() {
+    return delegate.getRowCount();
+  }
+
+  /**
+   * Logs the statement before its execution unless a slow statement threshold is set.
+   */
+  private boolean logBefore() {
+    if (configuration.getSlowStatementLogThreshold() != null || !isSampled()) {
+      return false;
+    }
+    logStatement();
+    return true;
+  }
+
+  /**
+   * Logs the statement after its execution if a slow statement threshold is set and was reached.
+   */
+  private boolean logAfter(long elapsedNanos) {
+    Integer threshold = configuration.getSlowStatementLogThreshold();
+    if (threshold == null || TimeUnit.NANOSECONDS.toMillis(elapsedNanos) < threshold || !isSampled()) {
+      return false;
+    }
+    logStatement();
+    return true;
+  }
+
+  private boolean isSampled() {
+    return statementLog.isDebugEnabled()
+        && configuration.getStatementLogSampler().sample(mappedStatement.getId(), configuration.getStatementLogSampleRate());
+  }
+
+  private void logStatement() {
+    BoundSql boundSql = getBoundSql();
+    statementLog.debug("==>  Preparing: " + StatementUtil.removeBreakingWhitespace(boundSql.getSql()));
+    statementLog.debug("==> Parameters: "
+        + StatementUtil.renderParameters(configuration, boundSql, getParameterHandler().getParameterObject()));
+  }
+
+}
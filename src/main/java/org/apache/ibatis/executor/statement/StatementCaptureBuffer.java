@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last captured statements, older ones are dropped once the capacity is reached.
+ *
+ * @since 3.5.4
+ */
+public class StatementCaptureBuffer {
+
+  private final CapturedStatement[] statements;
+  private long added;
+
+  public StatementCaptureBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity must be positive but was " + capacity);
+    }
+    this.statements = new CapturedStatement[capacity];
+  }
+
+  public synchronized void add(CapturedStatement statement) {
+    statements[(int) (added++ % statements.length)] = statement;
+  }
+
+  /**
+   * @return the captured statements, oldest first
+   */
+  public synchronized List<CapturedStatement> getStatements() {
+    int size = (int) Math.min(added, statements.length);
+    List<CapturedStatement> result = new ArrayList<>(size);
+    for (long i = added - size; i < added; i++) {
+      result.add(statements[(int) (i % statements.length)]);
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of statements captured since the creation or the last clear, including the dropped ones
+   */
+  public synchronized long getCapturedCount() {
+    return added;
+  }
+
+  public int getCapacity() {
+    return statements.length;
+  }
+
+  public synchronized void clear() {
+    for (int i = 0; i < statements.length; i++) {
+      statements[i] = null;
+    }
+    added = 0;
+  }
+
+}
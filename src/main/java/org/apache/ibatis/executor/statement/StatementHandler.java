@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -52,4 +52,13 @@ public interface StatementHandler {
 
   ParameterHandler getParameterHandler();
 
+  /**
+   * @return the rows read by the last query so far, also when it failed, or -1 if they are not counted
+   * @since 3.5.4
+   * @see org.apache.ibatis.executor.resultset.ResultSetHandler#getRowCount()
+   */
+  default int getRowCount() {
+    return -1;
+  }
+
 }
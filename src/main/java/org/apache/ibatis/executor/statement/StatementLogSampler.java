@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the executions of each mapped statement to log one in every N of them.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.session.Configuration#getStatementLogSampleRate()
+ */
+public class StatementLogSampler {
+
+  private final ConcurrentMap<String, AtomicLong> executions = new ConcurrentHashMap<>();
+
+  /**
+   * @param statementId the mapped statement id
+   * @param sampleRate log one execution in {@code sampleRate}, every execution when lower than 2
+   * @return whether this execution should be logged
+   */
+  public boolean sample(String statementId, int sampleRate) {
+    if (sampleRate <= 1) {
+      return true;
+    }
+    AtomicLong counter = executions.get(statementId);
+    if (counter == null) {
+      counter = executions.computeIfAbsent(statementId, k -> new AtomicLong());
+    }
+    return counter.getAndIncrement() % sampleRate == 0;
+  }
+
+}
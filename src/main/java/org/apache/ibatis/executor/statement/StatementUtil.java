@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,6 +17,14 @@ package org.apache.ibatis.executor.statement;
 
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.StringTokenizer;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
 
 /**
  * Utility for {@link java.sql.Statement}.
@@ -49,4 +57,51 @@ public class StatementUtil {
     }
   }
 
+  /**
+   * Renders the input parameters of a bound SQL as the JDBC loggers do, e.g. {@code 101(Integer), null}.
+   * The values are read the same way as {@link org.apache.ibatis.scripting.defaults.DefaultParameterHandler} does.
+   */
+  static String renderParameters(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+    StringBuilder builder = new StringBuilder();
+    MetaObject metaObject = null;
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      Object value;
+      String propertyName = parameterMapping.getProperty();
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      if (builder.length() > 0) {
+        builder.append(", ");
+      }
+      if (value == null) {
+        builder.append("null");
+      } else {
+        builder.append(ArrayUtil.toString(value)).append('(').append(value.getClass().getSimpleName()).append(')');
+      }
+    }
+    return builder.toString();
+  }
+
+  static String removeBreakingWhitespace(String original) {
+    StringTokenizer whitespaceStripper = new StringTokenizer(original);
+    StringBuilder builder = new StringBuilder();
+    while (whitespaceStripper.hasMoreTokens()) {
+      builder.append(whitespaceStripper.nextToken());
+      builder.append(" ");
+    }
+    return builder.toString();
+  }
+
 }
@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Captures the executions that took longer than {@link Configuration#getSlowStatementCaptureThreshold()} or
+ * read more rows than {@link Configuration#getLargeResultCaptureThreshold()} in the
+ * {@link Configuration#getStatementCaptureBuffer() statement capture buffer}, including the executions that failed.
+ * The parameters are only rendered for the captured executions.
+ *
+ * @since 3.5.4
+ */
+public class WatchdogStatementHandler implements StatementHandler {
+
+  private final StatementHandler delegate;
+  private final MappedStatement mappedStatement;
+  private final Configuration configuration;
+
+  public WatchdogStatementHandler(StatementHandler delegate, MappedStatement mappedStatement) {
+    this.delegate = delegate;
+    this.mappedStatement = mappedStatement;
+    this.configuration = mappedStatement.getConfiguration();
+  }
+
+  @Override
+  public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
+    return delegate.prepare(connection, transactionTimeout);
+  }
+
+  @Override
+  public void parameterize(Statement statement) throws SQLException {
+    delegate.parameterize(statement);
+  }
+
+  @Override
+  public void batch(Statement statement) throws SQLException {
+    // the batch is executed later, by the executor
+    delegate.batch(statement);
+  }
+
+  @Override
+  public int update(Statement statement) throws SQLException {
+    long start = System.nanoTime();
+    int updates = -1;
+    try {
+      updates = delegate.update(statement);
+      return updates;
+    } finally {
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      if (isSlow(elapsedMillis)) {
+        capture(updates, elapsedMillis);
+      }
+    }
+  }
+
+  @Override
+  public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
+    long start = System.nanoTime();
+    try {
+      return delegate.query(statement, resultHandler);
+    } finally {
+      // also when the query failed, e.g. on a timeout or above maxResultRows, with the rows read so far
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      int rowCount = delegate.getRowCount();
+      Integer largeResultThreshold = configuration.getLargeResultCaptureThreshold();
+      if (isSlow(elapsedMillis) || largeResultThreshold != null && rowCount > largeResultThreshold) {
+        capture(rowCount, elapsedMillis);
+      }
+    }
+  }
+
+  @Override
+  public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
+    long start = System.nanoTime();
+    Cursor<E> cursor = delegate.queryCursor(statement);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (isSlow(elapsedMillis)) {
+      capture(-1, elapsedMillis);
+    }
+    return cursor;
+  }
+
+  @Override
+  public BoundSql getBoundSql() {
+    return delegate.getBoundSql();
+  }
+
+  @Override
+  public int getRowCount() {
+    return delegate.getRowCount();
+  }
+
+  @Override
+  public ParameterHandler getParameterHandler() {
+    return delegate.getParameterHandler();
+  }
+
+  private boolean isSlow(long elapsedMillis) {
+    Integer threshold = configuration.getSlowStatementCaptureThreshold();
+    return threshold != null && elapsedMillis >= threshold;
+  }
+
+  private void capture(int rowCount, long elapsedMillis) {
+    BoundSql boundSql = getBoundSql();
+    String parameters = StatementUtil.renderParameters(configuration, boundSql, getParameterHandler().getParameterObject());
+    configuration.getStatementCaptureBuffer().add(new CapturedStatement(mappedStatement.getId(),
+        StatementUtil.removeBreakingWhitespace(boundSql.getSql()).trim(), parameters, rowCount, elapsedMillis,
+        System.currentTimeMillis()));
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,9 +17,15 @@ package org.apache.ibatis.io;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -62,6 +68,9 @@ public class ResolverUtil<T> {
    */
   private static final Log log = LogFactory.getLog(ResolverUtil.class);
 
+  /** The resource listings of the scanned packages by context class loader and VFS implementation. */
+  private static final Map<ClassLoader, Map<String, Map<String, Listing>>> LISTINGS = Collections.synchronizedMap(new WeakHashMap<>());
+
   /**
    * A simple interface that specifies how to test classes to determine if they
    * are to be included in the results produced by the ResolverUtil.
@@ -217,7 +226,7 @@ public class ResolverUtil<T> {
     String path = getPackagePath(packageName);
 
     try {
-      List<String> children = VFS.getInstance().list(path);
+      List<String> children = listResources(path);
       for (String child : children) {
         if (child.endsWith(".class")) {
           addIfMatching(test, child);
@@ -230,6 +239,92 @@ public class ResolverUtil<T> {
     return this;
   }
 
+  /**
+   * Lists the resources of a package and of its sub-packages.
+   * Listings are cached by context class loader, so that the jars and directories are walked only once
+   * when several packages are registered for type aliases, type handlers and mappers.
+   * A package whose parent package has already been listed is served from the parent listing,
+   * unless the package is also found in a jar or directory where the parent was not, e.g. a split package
+   * whose jar has no entry for the parent.
+   *
+   * @param path the path of the package
+   * @return the full paths of the resources
+   * @since 3.5.4
+   */
+  protected List<String> listResources(String path) throws IOException {
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    VFS vfs = VFS.getInstance();
+    if (path == null || contextClassLoader == null) {
+      return vfs.list(path);
+    }
+    // keyed by class name, an instance of the application would keep the class loader from being collected
+    Map<String, Listing> listings = LISTINGS.computeIfAbsent(contextClassLoader, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(vfs.getClass().getName(), k -> new ConcurrentHashMap<>());
+    Listing listing = listings.get(path);
+    if (listing == null) {
+      List<String> roots = new ArrayList<>();
+      for (URL root : Collections.list(contextClassLoader.getResources(path))) {
+        roots.add(root.toString());
+      }
+      List<String> children = listFromParent(listings, path, roots);
+      if (children == null) {
+        children = Collections.unmodifiableList(new ArrayList<>(vfs.list(path)));
+      }
+      listing = new Listing(roots, children);
+      listings.put(path, listing);
+    }
+    return listing.children;
+  }
+
+  private static List<String> listFromParent(Map<String, Listing> listings, String path, List<String> roots) {
+    String prefix = path + "/";
+    for (int index = path.lastIndexOf('/'); index > 0; index = path.lastIndexOf('/', index - 1)) {
+      Listing parent = listings.get(path.substring(0, index));
+      if (parent != null) {
+        if (!parent.covers(roots)) {
+          return null;
+        }
+        List<String> children = new ArrayList<>();
+        for (String child : parent.children) {
+          if (child.startsWith(prefix)) {
+            children.add(child);
+          }
+        }
+        return Collections.unmodifiableList(children);
+      }
+    }
+    return null;
+  }
+
+  private static class Listing {
+    // the urls of the package in the jars and directories of the class path
+    private final List<String> roots;
+    private final List<String> children;
+
+    Listing(List<String> roots, List<String> children) {
+      this.roots = roots;
+      this.children = children;
+    }
+
+    boolean covers(List<String> subPackageRoots) {
+      for (String subPackageRoot : subPackageRoots) {
+        if (roots.stream().noneMatch(subPackageRoot::startsWith)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Discards the cached package listings, e.g. after classes have been added to the class path.
+   *
+   * @since 3.5.4
+   */
+  public static void clearCache() {
+    LISTINGS.clear();
+  }
+
   /**
    * Converts a Java package name to a path that can be looked up with a call to
    * {@link ClassLoader#getResources(String)}.
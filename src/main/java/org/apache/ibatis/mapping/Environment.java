@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,9 +15,15 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import javax.sql.DataSource;
 
 import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.replica.ReplicaSelector;
+import org.apache.ibatis.transaction.replica.RoundRobinReplicaSelector;
 
 /**
  * @author Clinton Begin
@@ -26,8 +32,22 @@ public final class Environment {
   private final String id;
   private final TransactionFactory transactionFactory;
   private final DataSource dataSource;
+  private final List<DataSource> replicaDataSources;
+  private final ReplicaSelector replicaSelector;
+  private final boolean readYourWrites;
 
   public Environment(String id, TransactionFactory transactionFactory, DataSource dataSource) {
+    this(id, transactionFactory, dataSource, Collections.emptyList(), null, false);
+  }
+
+  /**
+   * @param replicaDataSources the replicas the selects are routed to, may be empty
+   * @param replicaSelector the policy choosing the replica of a session, round robin if {@code null}
+   * @param readYourWrites whether the sessions keep reading from the primary once they have written
+   * @since 3.5.4
+   */
+  public Environment(String id, TransactionFactory transactionFactory, DataSource dataSource,
+      List<DataSource> replicaDataSources, ReplicaSelector replicaSelector, boolean readYourWrites) {
     if (id == null) {
       throw new IllegalArgumentException("Parameter 'id' must not be null");
     }
@@ -40,12 +60,19 @@ public final class Environment {
     }
     this.transactionFactory = transactionFactory;
     this.dataSource = dataSource;
+    this.replicaDataSources = replicaDataSources == null ? Collections.emptyList()
+        : Collections.unmodifiableList(new ArrayList<>(replicaDataSources));
+    this.replicaSelector = replicaSelector == null ? new RoundRobinReplicaSelector() : replicaSelector;
+    this.readYourWrites = readYourWrites;
   }
 
   public static class Builder {
     private final String id;
     private TransactionFactory transactionFactory;
     private DataSource dataSource;
+    private List<DataSource> replicaDataSources = Collections.emptyList();
+    private ReplicaSelector replicaSelector;
+    private boolean readYourWrites;
 
     public Builder(String id) {
       this.id = id;
@@ -61,12 +88,37 @@ public final class Environment {
       return this;
     }
 
+    /**
+     * @since 3.5.4
+     */
+    public Builder replicaDataSources(List<DataSource> replicaDataSources) {
+      this.replicaDataSources = replicaDataSources;
+      return this;
+    }
+
+    /**
+     * @since 3.5.4
+     */
+    public Builder replicaSelector(ReplicaSelector replicaSelector) {
+      this.replicaSelector = replicaSelector;
+      return this;
+    }
+
+    /**
+     * @since 3.5.4
+     */
+    public Builder readYourWrites(boolean readYourWrites) {
+      this.readYourWrites = readYourWrites;
+      return this;
+    }
+
     public String id() {
       return this.id;
     }
 
     public Environment build() {
-      return new Environment(this.id, this.transactionFactory, this.dataSource);
+      return new Environment(this.id, this.transactionFactory, this.dataSource, this.replicaDataSources,
+          this.replicaSelector, this.readYourWrites);
     }
 
   }
@@ -83,4 +135,33 @@ public final class Environment {
     return this.dataSource;
   }
 
+  /**
+   * @return the replicas the selects are routed to, empty if all the statements use the data source
+   * @since 3.5.4
+   */
+  public List<DataSource> getReplicaDataSources() {
+    return this.replicaDataSources;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean hasReplicas() {
+    return !this.replicaDataSources.isEmpty();
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public ReplicaSelector getReplicaSelector() {
+    return this.replicaSelector;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isReadYourWrites() {
+    return this.readYourWrites;
+  }
+
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.metrics.ExecutionPhase;
+import org.apache.ibatis.executor.metrics.MetricsRegistry;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
@@ -56,6 +58,7 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private String shardKey;
 
   MappedStatement() {
     // constructor disabled
@@ -174,6 +177,15 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * @param shardKey the parameter property that selects the target shard
+     * @since 3.5.4
+     */
+    public Builder shardKey(String shardKey) {
+      mappedStatement.shardKey = shardKey;
+      return this;
+    }
+
     /**
      * @deprecated Use {@link #resultSets}
      */
@@ -285,6 +297,17 @@ public final class MappedStatement {
     return resultSets;
   }
 
+  /**
+   * Returns the parameter property used by {@link org.apache.ibatis.session.sharding.ShardedSqlSession}
+   * to route this statement to a shard.
+   *
+   * @return the shard key property, or {@code null} if the statement is not routed by key
+   * @since 3.5.4
+   */
+  public String getShardKey() {
+    return shardKey;
+  }
+
   /**
    * @deprecated Use {@link #getResultSets()}
    */
@@ -294,6 +317,8 @@ public final class MappedStatement {
   }
 
   public BoundSql getBoundSql(Object parameterObject) {
+    MetricsRegistry metricsRegistry = configuration.getMetricsRegistry();
+    long start = metricsRegistry == null ? 0 : System.nanoTime();
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings == null || parameterMappings.isEmpty()) {
@@ -311,6 +336,9 @@ public final class MappedStatement {
       }
     }
 
+    if (metricsRegistry != null) {
+      metricsRegistry.recordPhase(id, ExecutionPhase.SQL_BUILD, System.nanoTime() - start);
+    }
     return boundSql;
   }
 
@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * A location path made only of element names, like {@code /mapper/resultMap}, {@code cache-ref}
+ * or {@code select|insert|update|delete}, evaluated by walking the child elements of the DOM
+ * instead of going through the XPath engine.
+ * Other expressions are not supported and are left to XPath.
+ *
+ * @since 3.5.4
+ */
+final class ElementPath {
+
+  private static final int MAX_CACHED_EXPRESSIONS = 1024;
+  private static final ElementPath UNSUPPORTED = new ElementPath(false, Collections.emptyList());
+  private static final Map<String, ElementPath> CACHE = new ConcurrentHashMap<>();
+
+  private final boolean absolute;
+  // the names accepted by each step, the alternatives of a union are only allowed on a single step path
+  private final List<String[]> steps;
+
+  private ElementPath(boolean absolute, List<String[]> steps) {
+    this.absolute = absolute;
+    this.steps = steps;
+  }
+
+  /**
+   * @return the path or {@code null} if the expression is not a plain element path
+   */
+  static ElementPath of(String expression) {
+    ElementPath path = CACHE.get(expression);
+    if (path == null) {
+      path = parse(expression);
+      if (CACHE.size() < MAX_CACHED_EXPRESSIONS) {
+        CACHE.put(expression, path);
+      }
+    }
+    return path == UNSUPPORTED ? null : path;
+  }
+
+  private static ElementPath parse(String expression) {
+    boolean absolute = expression.startsWith("/");
+    String[] stepExpressions = (absolute ? expression.substring(1) : expression).split("/", -1);
+    List<String[]> steps = new ArrayList<>(stepExpressions.length);
+    for (String stepExpression : stepExpressions) {
+      String[] names = stepExpression.split("\\|", -1);
+      for (String name : names) {
+        if (!isElementName(name)) {
+          return UNSUPPORTED;
+        }
+      }
+      steps.add(names);
+    }
+    // a union of multi step paths or of an absolute path is left to XPath
+    if (steps.size() > 1 || absolute) {
+      for (String[] names : steps) {
+        if (names.length > 1) {
+          return UNSUPPORTED;
+        }
+      }
+    }
+    return new ElementPath(absolute, steps);
+  }
+
+  private static boolean isElementName(String name) {
+    if (name.isEmpty()) {
+      return false;
+    }
+    char first = name.charAt(0);
+    if (!Character.isLetter(first) && first != '_') {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the matching elements in document order
+   */
+  List<Node> select(Node root) {
+    List<Node> current = Collections.singletonList(absolute ? documentOf(root) : root);
+    for (String[] names : steps) {
+      List<Node> next = new ArrayList<>();
+      for (Node node : current) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+          if (child.getNodeType() == Node.ELEMENT_NODE && matches(names, child.getNodeName())) {
+            next.add(child);
+          }
+        }
+      }
+      if (next.isEmpty()) {
+        return next;
+      }
+      current = next;
+    }
+    return current;
+  }
+
+  /**
+   * @return the first matching element in document order or {@code null}
+   */
+  Node selectFirst(Node root) {
+    List<Node> nodes = select(root);
+    return nodes.isEmpty() ? null : nodes.get(0);
+  }
+
+  private static Node documentOf(Node node) {
+    return node instanceof Document ? node : node.getOwnerDocument();
+  }
+
+  private static boolean matches(String[] names, String nodeName) {
+    for (String name : names) {
+      if (name.equals(nodeName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,12 +20,15 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.WeakHashMap;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathFactory;
@@ -49,6 +52,8 @@ import org.xml.sax.SAXParseException;
  */
 public class XPathParser {
 
+  // the JAXP factories by the context class loader they were looked up with
+  private static final Map<ClassLoader, Factories> FACTORIES = new WeakHashMap<>();
 
   /**
    * XML Document对象
@@ -273,6 +278,13 @@ public class XPathParser {
 
   public List<XNode> evalNodes(Object root, String expression) {
     List<XNode> xnodes = new ArrayList<>();
+    ElementPath path = root instanceof Node ? ElementPath.of(expression) : null;
+    if (path != null) {
+      for (Node node : path.select((Node) root)) {
+        xnodes.add(new XNode(this, node, variables));
+      }
+      return xnodes;
+    }
     //获取XML配置文件中的节点和值
     NodeList nodes = (NodeList) evaluate(expression, root, XPathConstants.NODESET);
     for (int i = 0; i < nodes.getLength(); i++) {
@@ -287,7 +299,8 @@ public class XPathParser {
   }
 
   public XNode evalNode(Object root, String expression) {
-    Node node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    ElementPath path = root instanceof Node ? ElementPath.of(expression) : null;
+    Node node = path != null ? path.selectFirst((Node) root) : (Node) evaluate(expression, root, XPathConstants.NODE);
     if (node == null) {
       return null;
     }
@@ -321,20 +334,8 @@ public class XPathParser {
     // important: this must only be called AFTER common constructor
     //重要：这个必须在 common constructor后调用
     try {
-      //1.构建DocumentBuilderFactory对象 以及一些基本的配置
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-      //是否对XML进行检验 使用的是成员属性的值
-      factory.setValidating(validation);
-      //工厂的基本配置 无关核心内容
-      factory.setNamespaceAware(false);
-      factory.setIgnoringComments(true);
-      factory.setIgnoringElementContentWhitespace(false);
-      factory.setCoalescing(false);
-      factory.setExpandEntityReferences(true);
-
-      //2.构建DocumentBuilder对象
-      DocumentBuilder builder = factory.newDocumentBuilder();
+      //1.构建DocumentBuilder对象 工厂是共享的
+      DocumentBuilder builder = newDocumentBuilder(validation);
       // 设置解析器实体 使用成员属性的值
       builder.setEntityResolver(entityResolver);
       //设置异常处理器 发生异常后的处理  无关核心
@@ -372,8 +373,68 @@ public class XPathParser {
     this.entityResolver = entityResolver;
     this.variables = variables;
     //构建Xpath对象
-    XPathFactory factory = XPathFactory.newInstance();
-    this.xpath = factory.newXPath();
+    this.xpath = newXPath();
+  }
+
+  /**
+   * Looking up the JAXP factories goes through the service loader and is slow,
+   * so they are created once per context class loader and shared. They are not thread safe, hence the lock.
+   */
+  private static DocumentBuilder newDocumentBuilder(boolean validation) throws ParserConfigurationException {
+    synchronized (FACTORIES) {
+      Factories factories = factories();
+      DocumentBuilderFactory factory = validation ? factories.validating : factories.nonValidating;
+      if (factory == null) {
+        factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setValidating(validation);
+        factory.setNamespaceAware(false);
+        factory.setIgnoringComments(true);
+        factory.setIgnoringElementContentWhitespace(false);
+        factory.setCoalescing(false);
+        factory.setExpandEntityReferences(true);
+        if (isShareable(factory)) {
+          if (validation) {
+            factories.validating = factory;
+          } else {
+            factories.nonValidating = factory;
+          }
+        }
+      }
+      return factory.newDocumentBuilder();
+    }
+  }
+
+  private static XPath newXPath() {
+    synchronized (FACTORIES) {
+      Factories factories = factories();
+      XPathFactory factory = factories.xpath;
+      if (factory == null) {
+        factory = XPathFactory.newInstance();
+        if (isShareable(factory)) {
+          factories.xpath = factory;
+        }
+      }
+      return factory.newXPath();
+    }
+  }
+
+  private static Factories factories() {
+    return FACTORIES.computeIfAbsent(Thread.currentThread().getContextClassLoader(), classLoader -> new Factories());
+  }
+
+  /**
+   * Only the factories of the JDK are kept: a factory loaded by an application class loader
+   * would keep its weak key, and the whole application, from being collected after an undeploy.
+   */
+  private static boolean isShareable(Object factory) {
+    return factory.getClass().getClassLoader() == null;
+  }
+
+  private static class Factories {
+    private DocumentBuilderFactory validating;
+    private DocumentBuilderFactory nonValidating;
+    private XPathFactory xpath;
   }
 
 }
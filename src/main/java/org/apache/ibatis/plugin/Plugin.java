@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
 
@@ -30,6 +32,15 @@ import org.apache.ibatis.reflection.ExceptionUtil;
  */
 public class Plugin implements InvocationHandler {
 
+  // the signatures of an interceptor class and the interfaces of each target type they intercept,
+  // resolved once instead of every time a statement handler, executor, etc. is wrapped
+  private static final ClassValue<InterceptorSignatures> SIGNATURES = new ClassValue<InterceptorSignatures>() {
+    @Override
+    protected InterceptorSignatures computeValue(Class<?> interceptorType) {
+      return new InterceptorSignatures(getSignatureMap(interceptorType));
+    }
+  };
+
   private final Object target;
   private final Interceptor interceptor;
   private final Map<Class<?>, Set<Method>> signatureMap;
@@ -41,14 +52,14 @@ public class Plugin implements InvocationHandler {
   }
 
   public static Object wrap(Object target, Interceptor interceptor) {
-    Map<Class<?>, Set<Method>> signatureMap = getSignatureMap(interceptor);
+    InterceptorSignatures signatures = SIGNATURES.get(interceptor.getClass());
     Class<?> type = target.getClass();
-    Class<?>[] interfaces = getAllInterfaces(type, signatureMap);
+    Class<?>[] interfaces = signatures.getInterfaces(type);
     if (interfaces.length > 0) {
       return Proxy.newProxyInstance(
           type.getClassLoader(),
           interfaces,
-          new Plugin(target, interceptor, signatureMap));
+          new Plugin(target, interceptor, signatures.signatureMap));
     }
     return target;
   }
@@ -66,11 +77,11 @@ public class Plugin implements InvocationHandler {
     }
   }
 
-  private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
-    Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
+  private static Map<Class<?>, Set<Method>> getSignatureMap(Class<?> interceptorType) {
+    Intercepts interceptsAnnotation = interceptorType.getAnnotation(Intercepts.class);
     // issue #251
     if (interceptsAnnotation == null) {
-      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptor.getClass().getName());
+      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptorType.getName());
     }
     Signature[] sigs = interceptsAnnotation.value();
     Map<Class<?>, Set<Method>> signatureMap = new HashMap<>();
@@ -99,4 +110,23 @@ public class Plugin implements InvocationHandler {
     return interfaces.toArray(new Class<?>[interfaces.size()]);
   }
 
+  private static class InterceptorSignatures {
+
+    private final Map<Class<?>, Set<Method>> signatureMap;
+    private final ConcurrentMap<Class<?>, Class<?>[]> interfaces = new ConcurrentHashMap<>();
+
+    InterceptorSignatures(Map<Class<?>, Set<Method>> signatureMap) {
+      this.signatureMap = signatureMap;
+    }
+
+    Class<?>[] getInterfaces(Class<?> type) {
+      Class<?>[] result = interfaces.get(type);
+      if (result == null) {
+        result = getAllInterfaces(type, signatureMap);
+        interfaces.putIfAbsent(type, result);
+      }
+      return result;
+    }
+  }
+
 }
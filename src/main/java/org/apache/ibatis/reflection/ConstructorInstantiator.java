@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Creates instances through a constructor bound once to a {@link MethodHandle}, so repeated instantiations
+ * do not look the constructor up again nor copy the arguments out of lists.
+ * The arguments are passed in an array the caller may reuse once {@link #newInstance(Object[])} returns.
+ *
+ * @since 3.5.4
+ * @see Reflector#getConstructorInstantiator(Class[])
+ */
+public final class ConstructorInstantiator {
+
+  private final Constructor<?> constructor;
+  private final MethodHandle handle;
+
+  private ConstructorInstantiator(Constructor<?> constructor, MethodHandle handle) {
+    this.constructor = constructor;
+    this.handle = handle;
+  }
+
+  /**
+   * @return an instantiator, or {@code null} if the constructor does not exist or cannot be made accessible
+   */
+  static ConstructorInstantiator create(Class<?> type, Class<?>... parameterTypes) {
+    if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+      return null;
+    }
+    try {
+      Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+      if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(type.getModifiers())) {
+        if (!Reflector.canControlMemberAccessible()) {
+          return null;
+        }
+        constructor.setAccessible(true);
+      }
+      MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(constructor)
+          .asSpreader(Object[].class, parameterTypes.length)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+      return new ConstructorInstantiator(constructor, handle);
+    } catch (Exception e) {
+      // e.g. a class in a module that is not open, let the object factory use reflection
+      return null;
+    }
+  }
+
+  public Object newInstance(Object[] args) {
+    try {
+      return handle.invokeExact(args);
+    } catch (Throwable t) {
+      String argTypes = Arrays.stream(constructor.getParameterTypes()).map(Class::getSimpleName)
+          .collect(Collectors.joining(","));
+      String argValues = Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(","));
+      throw new ReflectionException("Error instantiating " + constructor.getDeclaringClass() + " with invalid types ("
+          + argTypes + ") or values (" + argValues + "). Cause: " + t, t);
+    }
+  }
+
+  public Constructor<?> getConstructor() {
+    return constructor;
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.reflection.wrapper.CollectionWrapper;
@@ -32,6 +33,8 @@ import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
  */
 public class MetaObject {
 
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
   private final Object originalObject;
   private final ObjectWrapper objectWrapper;
   private final ObjectFactory objectFactory;
@@ -110,21 +113,52 @@ public class MetaObject {
   }
 
   public Object getValue(String name) {
-    PropertyTokenizer prop = new PropertyTokenizer(name);
-    if (prop.hasNext()) {
-      MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
-      if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
-        return null;
+    PropertyTokenizer prop = PropertyTokenizer.of(name);
+    if (!prop.hasNext()) {
+      return objectWrapper.get(prop);
+    }
+    // walk the path one property at a time, plain beans are read without wrapping them in a MetaObject
+    ObjectWrapper wrapper = objectWrapper;
+    Object bean = null;
+    while (true) {
+      PropertyTokenizer segment = prop.hasNext() ? PropertyTokenizer.of(prop.getIndexedName()) : prop;
+      Object value = wrapper == null ? getBeanProperty(bean, segment.getName()) : wrapper.get(segment);
+      if (value == null || !prop.hasNext()) {
+        return value;
+      }
+      prop = prop.next();
+      if (prop.getIndex() == null && isPlainBean(value)) {
+        wrapper = null;
+        bean = value;
       } else {
-        return metaValue.getValue(prop.getChildren());
+        wrapper = new MetaObject(value, objectFactory, objectWrapperFactory, reflectorFactory).objectWrapper;
       }
-    } else {
-      return objectWrapper.get(prop);
+    }
+  }
+
+  private boolean isPlainBean(Object object) {
+    return !(object instanceof ObjectWrapper) && !(object instanceof Map) && !(object instanceof Collection)
+        && !objectWrapperFactory.hasWrapperFor(object);
+  }
+
+  // same as BeanWrapper#get for a property without index
+  private Object getBeanProperty(Object bean, String name) {
+    try {
+      Invoker method = reflectorFactory.findForClass(bean.getClass()).getGetInvoker(name);
+      try {
+        return method.invoke(bean, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not get property '" + name + "' from " + bean.getClass() + ".  Cause: " + t.toString(), t);
     }
   }
 
   public void setValue(String name, Object value) {
-    PropertyTokenizer prop = new PropertyTokenizer(name);
+    PropertyTokenizer prop = PropertyTokenizer.of(name);
     if (prop.hasNext()) {
       MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
       if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -49,6 +49,11 @@ public class ParamNameResolver {
 
   private boolean hasParamAnnotation;
 
+  // the content of names flattened when the method is resolved, so arguments are named without iterating the map
+  private final int[] argIndexes;
+  private final String[] paramNames;
+  private final String[] genericParamNames;
+
   public ParamNameResolver(Configuration config, Method method) {
     final Class<?>[] paramTypes = method.getParameterTypes();
     final Annotation[][] paramAnnotations = method.getParameterAnnotations();
@@ -82,6 +87,18 @@ public class ParamNameResolver {
       map.put(paramIndex, name);
     }
     names = Collections.unmodifiableSortedMap(map);
+    argIndexes = new int[names.size()];
+    paramNames = new String[names.size()];
+    genericParamNames = new String[names.size()];
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : names.entrySet()) {
+      argIndexes[i] = entry.getKey();
+      paramNames[i] = entry.getValue();
+      final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
+      // ensure not to overwrite parameter named with @Param
+      genericParamNames[i] = names.containsValue(genericParamName) ? null : genericParamName;
+      i++;
+    }
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -108,23 +125,20 @@ public class ParamNameResolver {
    * </p>
    */
   public Object getNamedParams(Object[] args) {
-    final int paramCount = names.size();
+    final int paramCount = argIndexes.length;
     if (args == null || paramCount == 0) {
       return null;
     } else if (!hasParamAnnotation && paramCount == 1) {
-      return args[names.firstKey()];
+      return args[argIndexes[0]];
     } else {
       final Map<String, Object> param = new ParamMap<>();
-      int i = 0;
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
-        param.put(entry.getValue(), args[entry.getKey()]);
+      for (int i = 0; i < paramCount; i++) {
+        final Object arg = args[argIndexes[i]];
+        param.put(paramNames[i], arg);
         // add generic param names (param1, param2, ...)
-        final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
-          param.put(genericParamName, args[entry.getKey()]);
+        if (genericParamNames[i] != null) {
+          param.put(genericParamNames[i], arg);
         }
-        i++;
       }
       return param;
     }
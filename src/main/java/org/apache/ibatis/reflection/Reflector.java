@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -33,10 +33,14 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.invoker.AmbiguousMethodInvoker;
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.LambdaMethodInvoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
 import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
 import org.apache.ibatis.reflection.property.PropertyNamer;
@@ -110,12 +114,27 @@ public class Reflector {
    */
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
 
+  private final boolean lambdaInvokers;
+
+  private final ConcurrentMap<List<Class<?>>, Optional<ConstructorInstantiator>> constructorInstantiators = new ConcurrentHashMap<>();
+
+  private volatile Optional<Constructor<?>> recordConstructor;
 
   /**
    * 反射器的构造器
    * @param clazz
    */
   public Reflector(Class<?> clazz) {
+    this(clazz, false);
+  }
+
+  /**
+   * @param clazz the reflected class
+   * @param lambdaInvokers whether getters and setters are called through {@link LambdaMethodInvoker}s instead of reflection
+   * @since 3.5.4
+   */
+  public Reflector(Class<?> clazz, boolean lambdaInvokers) {
+    this.lambdaInvokers = lambdaInvokers;
     //类型
     type = clazz;
     //设置被反射的class文件的类的默认无参构造器
@@ -244,7 +263,7 @@ public class Reflector {
         ? new AmbiguousMethodInvoker(method, MessageFormat.format(
             "Illegal overloaded getter method with ambiguous type for property ''{0}'' in class ''{1}''. This breaks the JavaBeans specification and can cause unpredictable results.",
             name, method.getDeclaringClass().getName()))
-        : new MethodInvoker(method);
+        : newMethodInvoker(method);
     getMethods.put(name, invoker);
     //返回类型的解析
     Type returnType = TypeParameterResolver.resolveReturnType(method, type);
@@ -321,12 +340,16 @@ public class Reflector {
   }
 
   private void addSetMethod(String name, Method method) {
-    MethodInvoker invoker = new MethodInvoker(method);
+    MethodInvoker invoker = newMethodInvoker(method);
     setMethods.put(name, invoker);
     Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
     setTypes.put(name, typeToClass(paramTypes[0]));
   }
 
+  private MethodInvoker newMethodInvoker(Method method) {
+    return lambdaInvokers ? LambdaMethodInvoker.create(method) : new MethodInvoker(method);
+  }
+
   private Class<?> typeToClass(Type src) {
     Class<?> result = null;
     if (src instanceof Class) {
@@ -519,6 +542,56 @@ public class Reflector {
     return defaultConstructor != null;
   }
 
+  /**
+   * Returns an instantiator bound to the constructor with the given parameter types.
+   * Instantiators are created once and cached by this reflector.
+   *
+   * @return the instantiator, or {@code null} if the constructor does not exist or cannot be called through a method handle
+   * @since 3.5.4
+   */
+  public ConstructorInstantiator getConstructorInstantiator(Class<?>... parameterTypes) {
+    List<Class<?>> key = Arrays.asList(parameterTypes);
+    Optional<ConstructorInstantiator> instantiator = constructorInstantiators.get(key);
+    if (instantiator == null) {
+      instantiator = constructorInstantiators.computeIfAbsent(new ArrayList<>(key),
+          k -> Optional.ofNullable(ConstructorInstantiator.create(type, parameterTypes)));
+    }
+    return instantiator.orElse(null);
+  }
+
+  /**
+   * Returns the canonical constructor of a record class, whose parameters are the record components in declaration order.
+   * Records are detected reflectively so this works on every Java version.
+   *
+   * @return the canonical constructor, or {@code null} if the type is not a record
+   * @since 3.5.4
+   */
+  public Constructor<?> getRecordConstructor() {
+    Optional<Constructor<?>> constructor = recordConstructor;
+    if (constructor == null) {
+      constructor = Optional.ofNullable(findRecordConstructor(type));
+      recordConstructor = constructor;
+    }
+    return constructor.orElse(null);
+  }
+
+  private static Constructor<?> findRecordConstructor(Class<?> type) {
+    try {
+      if (!Boolean.TRUE.equals(Class.class.getMethod("isRecord").invoke(type))) {
+        return null;
+      }
+      Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+      Class<?>[] parameterTypes = new Class<?>[components.length];
+      for (int i = 0; i < components.length; i++) {
+        parameterTypes[i] = (Class<?>) components[i].getClass().getMethod("getType").invoke(components[i]);
+      }
+      return type.getDeclaredConstructor(parameterTypes);
+    } catch (Exception e) {
+      // no records before Java 16
+      return null;
+    }
+  }
+
   public Invoker getSetInvoker(String propertyName) {
     Invoker method = setMethods.get(propertyName);
     if (method == null) {
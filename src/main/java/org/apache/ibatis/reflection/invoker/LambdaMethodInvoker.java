@@ -0,0 +1,157 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A getter or setter invoker backed by a class generated with {@link LambdaMetafactory}, so properties are
+ * read and written with plain interface calls the JIT can inline instead of {@link Method#invoke}.
+ * Primitive values are boxed and unboxed by the generated class.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.reflection.LambdaReflectorFactory
+ */
+public class LambdaMethodInvoker extends MethodInvoker {
+
+  private static final int ALLOWED_MODES = MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED
+      | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC;
+  private static final Method privateLookupInMethod;
+  private static final Constructor<Lookup> lookupConstructor;
+
+  static {
+    Method privateLookupIn;
+    try {
+      privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    } catch (NoSuchMethodException e) {
+      privateLookupIn = null;
+    }
+    privateLookupInMethod = privateLookupIn;
+
+    Constructor<Lookup> lookup = null;
+    if (privateLookupInMethod == null) {
+      // JDK 1.8
+      try {
+        lookup = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+        lookup.setAccessible(true);
+      } catch (Exception e) {
+        lookup = null;
+      }
+    }
+    lookupConstructor = lookup;
+  }
+
+  private final Class<?> declaringClass;
+  private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+
+  private LambdaMethodInvoker(Method method, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+    super(method);
+    this.declaringClass = method.getDeclaringClass();
+    this.getter = getter;
+    this.setter = setter;
+  }
+
+  /**
+   * Creates an invoker for a getter (no parameter) or a setter (one parameter).
+   *
+   * @return a lambda based invoker, or a {@link MethodInvoker} if the method cannot be bound to a lambda
+   */
+  public static MethodInvoker create(Method method) {
+    try {
+      if (!Modifier.isStatic(method.getModifiers())) {
+        int parameterCount = method.getParameterTypes().length;
+        if (parameterCount == 0 && !void.class.equals(method.getReturnType())) {
+          return new LambdaMethodInvoker(method, createGetter(method), null);
+        } else if (parameterCount == 1) {
+          return new LambdaMethodInvoker(method, null, createSetter(method));
+        }
+      }
+    } catch (Throwable e) {
+      // not accessible, e.g. a class in a module that is not open, use reflection
+    }
+    return new MethodInvoker(method);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> createGetter(Method method) throws Throwable {
+    Class<?> declaringClass = method.getDeclaringClass();
+    Lookup lookup = lookupFor(declaringClass);
+    MethodHandle handle = lookup.unreflect(method);
+    CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+        MethodType.methodType(Object.class, Object.class), handle,
+        MethodType.methodType(wrap(method.getReturnType()), declaringClass));
+    return (Function<Object, Object>) site.getTarget().invokeWithArguments();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BiConsumer<Object, Object> createSetter(Method method) throws Throwable {
+    Class<?> declaringClass = method.getDeclaringClass();
+    Lookup lookup = lookupFor(declaringClass);
+    MethodHandle handle = lookup.unreflect(method);
+    CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+        MethodType.methodType(void.class, Object.class, Object.class), handle,
+        MethodType.methodType(void.class, declaringClass, wrap(method.getParameterTypes()[0])));
+    return (BiConsumer<Object, Object>) site.getTarget().invokeWithArguments();
+  }
+
+  private static Lookup lookupFor(Class<?> declaringClass) throws Exception {
+    if (privateLookupInMethod != null) {
+      return (Lookup) privateLookupInMethod.invoke(null, declaringClass, MethodHandles.lookup());
+    }
+    return lookupConstructor.newInstance(declaringClass, ALLOWED_MODES);
+  }
+
+  private static Class<?> wrap(Class<?> type) {
+    return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    try {
+      if (getter != null) {
+        return getter.apply(target);
+      }
+      setter.accept(target, args[0]);
+      return null;
+    } catch (ClassCastException | NullPointerException e) {
+      if (!declaringClass.isInstance(target) || (setter != null && !isAssignable(args[0]))) {
+        // report what Method.invoke would report
+        throw new IllegalArgumentException(e.getMessage(), e);
+      }
+      throw new InvocationTargetException(e);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  private boolean isAssignable(Object arg) {
+    Class<?> parameterType = wrap(getType());
+    return arg == null ? !getType().isPrimitive() : parameterType.isInstance(arg);
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,31 +16,64 @@
 package org.apache.ibatis.reflection.property;
 
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Clinton Begin
  */
 public class PropertyTokenizer implements Iterator<PropertyTokenizer> {
-  private String name;
+
+  // property paths come from mappings and parameter names, but dynamic SQL can produce many distinct
+  // names (e.g. foreach item bindings), so the cache stops growing at this size
+  private static final int MAX_CACHE_SIZE = 4096;
+  private static final ConcurrentMap<String, PropertyTokenizer> CACHE = new ConcurrentHashMap<>();
+
+  private final String name;
   private final String indexedName;
-  private String index;
+  private final String index;
   private final String children;
 
   public PropertyTokenizer(String fullname) {
     int delim = fullname.indexOf('.');
+    String indexedName;
     if (delim > -1) {
-      name = fullname.substring(0, delim);
+      indexedName = fullname.substring(0, delim);
       children = fullname.substring(delim + 1);
     } else {
-      name = fullname;
+      indexedName = fullname;
       children = null;
     }
-    indexedName = name;
-    delim = name.indexOf('[');
+    this.indexedName = indexedName;
+    delim = indexedName.indexOf('[');
     if (delim > -1) {
-      index = name.substring(delim + 1, name.length() - 1);
-      name = name.substring(0, delim);
+      index = indexedName.substring(delim + 1, indexedName.length() - 1);
+      name = indexedName.substring(0, delim);
+    } else {
+      index = null;
+      name = indexedName;
+    }
+  }
+
+  /**
+   * Returns the tokenizer of a property path, parsed once and shared as tokenizers are immutable.
+   *
+   * @param fullname the property path, e.g. {@code order.items[0].name}
+   * @return the cached tokenizer
+   * @since 3.5.4
+   */
+  public static PropertyTokenizer of(String fullname) {
+    PropertyTokenizer tokenizer = CACHE.get(fullname);
+    if (tokenizer == null) {
+      tokenizer = new PropertyTokenizer(fullname);
+      if (CACHE.size() < MAX_CACHE_SIZE) {
+        PropertyTokenizer existing = CACHE.putIfAbsent(fullname, tokenizer);
+        if (existing != null) {
+          tokenizer = existing;
+        }
+      }
     }
+    return tokenizer;
   }
 
   public String getName() {
@@ -66,7 +99,7 @@ public class PropertyTokenizer implements Iterator<PropertyTokenizer> {
 
   @Override
   public PropertyTokenizer next() {
-    return new PropertyTokenizer(children);
+    return of(children);
   }
 
   @Override
@@ -0,0 +1,456 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ognl.ArrayPropertyAccessor;
+import ognl.MapPropertyAccessor;
+import ognl.ObjectPropertyAccessor;
+import ognl.OgnlOps;
+import ognl.OgnlRuntime;
+import ognl.PropertyAccessor;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+
+/**
+ * An OGNL expression of the subset commonly found in {@code test}, {@code collection} and {@code bind} attributes,
+ * compiled into a tree of lambdas so that it is evaluated without creating an OGNL context.
+ * <p>
+ * The subset is made of property paths, the {@code size()}, {@code isEmpty()} and {@code length()} methods,
+ * {@code null}, boolean, integer, decimal and string literals, comparisons, {@code and}, {@code or}, {@code not}
+ * and parentheses. Operators are applied with {@link OgnlOps} and properties are read with the same accessors
+ * OGNL would pick, so the results are those of OGNL. When a value is met that the compiled form does not handle
+ * (e.g. a property of a {@code null} or of a collection), {@link #FALLBACK} is returned and the expression must be
+ * evaluated by OGNL.
+ *
+ * @since 3.5.4
+ */
+final class CompiledExpression {
+
+  /** Returned when the expression must be evaluated by OGNL. */
+  static final Object FALLBACK = new Object();
+
+  private static final ReflectorFactory REFLECTOR_FACTORY = new DefaultReflectorFactory();
+  private static final Set<String> MAP_PSEUDO_PROPERTIES = new HashSet<>(Arrays.asList("size", "keys", "keySet", "values", "isEmpty"));
+  private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList("in", "instanceof", "shl", "shr", "ushr",
+      "band", "bor", "xor", "new"));
+
+  @FunctionalInterface
+  private interface Evaluation {
+    Object evaluate(Object root);
+  }
+
+  private final Evaluation evaluation;
+
+  private CompiledExpression(Evaluation evaluation) {
+    this.evaluation = evaluation;
+  }
+
+  /**
+   * @return the compiled expression or {@code null} if the expression is not part of the supported subset
+   */
+  static CompiledExpression compile(String expression) {
+    List<Object> tokens = tokenize(expression);
+    if (tokens == null || tokens.isEmpty()) {
+      return null;
+    }
+    Parser parser = new Parser(tokens);
+    Evaluation evaluation = parser.parseOr();
+    return evaluation == null || !parser.isDone() ? null : new CompiledExpression(evaluation);
+  }
+
+  /**
+   * @return the value of the expression or {@link #FALLBACK}
+   */
+  Object getValue(Object root) {
+    return evaluation.evaluate(root);
+  }
+
+  private static final class Operator {
+    private final String symbol;
+
+    private Operator(String symbol) {
+      this.symbol = symbol;
+    }
+  }
+
+  private static final class Identifier {
+    private final String name;
+
+    private Identifier(String name) {
+      this.name = name;
+    }
+  }
+
+  private static final class Literal {
+    private final Object value;
+
+    private Literal(Object value) {
+      this.value = value;
+    }
+  }
+
+  private static List<Object> tokenize(String expression) {
+    List<Object> tokens = new ArrayList<>();
+    int length = expression.length();
+    int i = 0;
+    while (i < length) {
+      char c = expression.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (Character.isJavaIdentifierStart(c)) {
+        int start = i;
+        while (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+          i++;
+        }
+        Object token = keyword(expression.substring(start, i));
+        if (token == null) {
+          return null;
+        }
+        tokens.add(token);
+      } else if (c >= '0' && c <= '9') {
+        int start = i;
+        while (i < length && expression.charAt(i) >= '0' && expression.charAt(i) <= '9') {
+          i++;
+        }
+        boolean decimal = i + 1 < length && expression.charAt(i) == '.'
+            && expression.charAt(i + 1) >= '0' && expression.charAt(i + 1) <= '9';
+        if (decimal) {
+          i++;
+          while (i < length && expression.charAt(i) >= '0' && expression.charAt(i) <= '9') {
+            i++;
+          }
+        }
+        if (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+          // suffixes and exponents
+          return null;
+        }
+        String number = expression.substring(start, i);
+        if (decimal) {
+          tokens.add(new Literal(Double.valueOf(number)));
+        } else if ((number.length() > 1 && number.charAt(0) == '0') || number.length() > 9) {
+          // octal and values that could overflow an int
+          return null;
+        } else {
+          tokens.add(new Literal(Integer.valueOf(number)));
+        }
+      } else if (c == '\'' || c == '"') {
+        int end = expression.indexOf(c, i + 1);
+        if (end < 0) {
+          return null;
+        }
+        String value = expression.substring(i + 1, end);
+        // escapes, and single quoted values of one character that are characters in OGNL
+        if (value.indexOf('\\') >= 0 || (c == '\'' && value.length() <= 1)) {
+          return null;
+        }
+        tokens.add(new Literal(value));
+        i = end + 1;
+      } else {
+        String symbol = i + 1 < length ? expression.substring(i, i + 2) : null;
+        if ("==".equals(symbol) || "!=".equals(symbol) || "<=".equals(symbol) || ">=".equals(symbol)
+            || "&&".equals(symbol) || "||".equals(symbol)) {
+          tokens.add(new Operator(symbol));
+          i += 2;
+        } else if ("<>!().".indexOf(c) >= 0) {
+          tokens.add(new Operator(String.valueOf(c)));
+          i++;
+        } else {
+          return null;
+        }
+      }
+    }
+    return tokens;
+  }
+
+  private static Object keyword(String word) {
+    switch (word) {
+      case "and":
+        return new Operator("&&");
+      case "or":
+        return new Operator("||");
+      case "not":
+        return new Operator("!");
+      case "eq":
+        return new Operator("==");
+      case "neq":
+        return new Operator("!=");
+      case "lt":
+        return new Operator("<");
+      case "gt":
+        return new Operator(">");
+      case "lte":
+        return new Operator("<=");
+      case "gte":
+        return new Operator(">=");
+      case "null":
+        return new Literal(null);
+      case "true":
+        return new Literal(Boolean.TRUE);
+      case "false":
+        return new Literal(Boolean.FALSE);
+      default:
+        return RESERVED_WORDS.contains(word) ? null : new Identifier(word);
+    }
+  }
+
+  private static final class Parser {
+    private final List<Object> tokens;
+    private int position;
+
+    private Parser(List<Object> tokens) {
+      this.tokens = tokens;
+    }
+
+    private boolean isDone() {
+      return position == tokens.size();
+    }
+
+    private boolean accept(String symbol) {
+      if (position < tokens.size() && tokens.get(position) instanceof Operator
+          && ((Operator) tokens.get(position)).symbol.equals(symbol)) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    private Evaluation parseOr() {
+      Evaluation left = parseAnd();
+      while (left != null && accept("||")) {
+        Evaluation first = left;
+        Evaluation second = parseAnd();
+        if (second == null) {
+          return null;
+        }
+        left = root -> {
+          Object value = first.evaluate(root);
+          if (value == FALLBACK || OgnlOps.booleanValue(value)) {
+            return value;
+          }
+          return second.evaluate(root);
+        };
+      }
+      return left;
+    }
+
+    private Evaluation parseAnd() {
+      Evaluation left = parseEquality();
+      while (left != null && accept("&&")) {
+        Evaluation first = left;
+        Evaluation second = parseEquality();
+        if (second == null) {
+          return null;
+        }
+        left = root -> {
+          Object value = first.evaluate(root);
+          if (value == FALLBACK || !OgnlOps.booleanValue(value)) {
+            return value;
+          }
+          return second.evaluate(root);
+        };
+      }
+      return left;
+    }
+
+    private Evaluation parseEquality() {
+      Evaluation left = parseRelational();
+      while (left != null) {
+        if (accept("==")) {
+          left = comparison(left, parseRelational(), (v1, v2) -> OgnlOps.equal(v1, v2));
+        } else if (accept("!=")) {
+          left = comparison(left, parseRelational(), (v1, v2) -> !OgnlOps.equal(v1, v2));
+        } else {
+          break;
+        }
+      }
+      return left;
+    }
+
+    private Evaluation parseRelational() {
+      Evaluation left = parseUnary();
+      while (left != null) {
+        if (accept("<")) {
+          left = comparison(left, parseUnary(), OgnlOps::less);
+        } else if (accept(">")) {
+          left = comparison(left, parseUnary(), OgnlOps::greater);
+        } else if (accept("<=")) {
+          left = comparison(left, parseUnary(), (v1, v2) -> !OgnlOps.greater(v1, v2));
+        } else if (accept(">=")) {
+          left = comparison(left, parseUnary(), (v1, v2) -> !OgnlOps.less(v1, v2));
+        } else {
+          break;
+        }
+      }
+      return left;
+    }
+
+    private Evaluation comparison(Evaluation left, Evaluation right, Comparison comparison) {
+      if (right == null) {
+        return null;
+      }
+      return root -> {
+        Object v1 = left.evaluate(root);
+        if (v1 == FALLBACK) {
+          return FALLBACK;
+        }
+        Object v2 = right.evaluate(root);
+        if (v2 == FALLBACK) {
+          return FALLBACK;
+        }
+        try {
+          return comparison.compare(v1, v2) ? Boolean.TRUE : Boolean.FALSE;
+        } catch (RuntimeException e) {
+          // e.g. an invalid comparison, let OGNL report it
+          return FALLBACK;
+        }
+      };
+    }
+
+    private Evaluation parseUnary() {
+      if (accept("!")) {
+        Evaluation operand = parseUnary();
+        if (operand == null) {
+          return null;
+        }
+        return root -> {
+          Object value = operand.evaluate(root);
+          if (value == FALLBACK) {
+            return FALLBACK;
+          }
+          return OgnlOps.booleanValue(value) ? Boolean.FALSE : Boolean.TRUE;
+        };
+      }
+      return parsePrimary();
+    }
+
+    private Evaluation parsePrimary() {
+      if (position >= tokens.size()) {
+        return null;
+      }
+      Object token = tokens.get(position);
+      if (token instanceof Literal) {
+        position++;
+        Object value = ((Literal) token).value;
+        return root -> value;
+      }
+      if (token instanceof Identifier) {
+        return parsePath();
+      }
+      if (accept("(")) {
+        Evaluation evaluation = parseOr();
+        return evaluation != null && accept(")") ? evaluation : null;
+      }
+      return null;
+    }
+
+    private Evaluation parsePath() {
+      Evaluation path = null;
+      do {
+        if (position >= tokens.size() || !(tokens.get(position) instanceof Identifier)) {
+          return null;
+        }
+        String name = ((Identifier) tokens.get(position++)).name;
+        Evaluation target = path;
+        if (accept("(")) {
+          if (target == null || !accept(")")) {
+            return null;
+          }
+          path = root -> {
+            Object value = target.evaluate(root);
+            return value == FALLBACK ? FALLBACK : callMethod(value, name);
+          };
+        } else if (target == null) {
+          path = root -> getProperty(root, name);
+        } else {
+          path = root -> {
+            Object value = target.evaluate(root);
+            return value == FALLBACK ? FALLBACK : getProperty(value, name);
+          };
+        }
+      } while (accept("."));
+      return path;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Comparison {
+    boolean compare(Object v1, Object v2);
+  }
+
+  private static Object getProperty(Object target, String name) {
+    if (target == null) {
+      return FALLBACK;
+    }
+    try {
+      PropertyAccessor accessor = OgnlRuntime.getPropertyAccessor(target.getClass());
+      if (accessor instanceof DynamicContext.ContextAccessor) {
+        return accessor.getProperty(null, target, name);
+      }
+      Class<?> accessorType = accessor == null ? null : accessor.getClass();
+      if (accessorType == MapPropertyAccessor.class) {
+        return MAP_PSEUDO_PROPERTIES.contains(name) ? FALLBACK : ((Map<?, ?>) target).get(name);
+      }
+      if (accessorType == ArrayPropertyAccessor.class) {
+        return "length".equals(name) ? Array.getLength(target) : FALLBACK;
+      }
+      if (accessorType == ObjectPropertyAccessor.class) {
+        Reflector reflector = REFLECTOR_FACTORY.findForClass(target.getClass());
+        return reflector.hasGetter(name) ? reflector.getGetInvoker(name).invoke(target, null) : FALLBACK;
+      }
+      return FALLBACK;
+    } catch (Exception e) {
+      // let OGNL report it
+      return FALLBACK;
+    }
+  }
+
+  private static Object callMethod(Object target, String name) {
+    switch (name) {
+      case "size":
+        if (target instanceof Collection) {
+          return ((Collection<?>) target).size();
+        } else if (target instanceof Map) {
+          return ((Map<?, ?>) target).size();
+        }
+        return FALLBACK;
+      case "isEmpty":
+        if (target instanceof Collection) {
+          return ((Collection<?>) target).isEmpty();
+        } else if (target instanceof Map) {
+          return ((Map<?, ?>) target).isEmpty();
+        } else if (target instanceof String) {
+          return ((String) target).isEmpty();
+        }
+        return FALLBACK;
+      case "length":
+        return target instanceof CharSequence ? ((CharSequence) target).length() : FALLBACK;
+      default:
+        return FALLBACK;
+    }
+  }
+
+}
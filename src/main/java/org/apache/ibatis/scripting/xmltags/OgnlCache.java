@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import org.apache.ibatis.builder.BuilderException;
 
 /**
  * Caches OGNL parsed expressions.
+ * Expressions of the subset supported by {@link CompiledExpression} are evaluated without OGNL.
  *
  * @author Eduardo Macarron
  *
@@ -35,12 +36,21 @@ public final class OgnlCache {
   private static final OgnlMemberAccess MEMBER_ACCESS = new OgnlMemberAccess();
   private static final OgnlClassResolver CLASS_RESOLVER = new OgnlClassResolver();
   private static final Map<String, Object> expressionCache = new ConcurrentHashMap<>();
+  private static final Map<String, Object> compiledExpressionCache = new ConcurrentHashMap<>();
+  private static final Object NOT_COMPILABLE = new Object();
 
   private OgnlCache() {
     // Prevent Instantiation of Static Class
   }
 
   public static Object getValue(String expression, Object root) {
+    Object compiled = compiledExpression(expression);
+    if (compiled != NOT_COMPILABLE) {
+      Object value = ((CompiledExpression) compiled).getValue(root);
+      if (value != CompiledExpression.FALLBACK) {
+        return value;
+      }
+    }
     try {
       Map context = Ognl.createDefaultContext(root, MEMBER_ACCESS, CLASS_RESOLVER, null);
       return Ognl.getValue(parseExpression(expression), context, root);
@@ -49,6 +59,18 @@ public final class OgnlCache {
     }
   }
 
+  private static Object compiledExpression(String expression) {
+    Object compiled = compiledExpressionCache.get(expression);
+    if (compiled == null) {
+      compiled = CompiledExpression.compile(expression);
+      if (compiled == null) {
+        compiled = NOT_COMPILABLE;
+      }
+      compiledExpressionCache.put(expression, compiled);
+    }
+    return compiled;
+  }
+
   private static Object parseExpression(String expression) throws OgnlException {
     Object node = expressionCache.get(expression);
     if (node == null) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import java.util.function.BiFunction;
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
+import org.apache.ibatis.builder.LazySqlSource;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
@@ -51,11 +52,19 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.MetricsRegistry;
+import org.apache.ibatis.executor.metrics.MetricsResultSetHandler;
+import org.apache.ibatis.executor.metrics.MetricsStatementHandler;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.FetchSizeHistory;
+import org.apache.ibatis.executor.statement.LoggingStatementHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
+import org.apache.ibatis.executor.statement.StatementCaptureBuffer;
 import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.executor.statement.StatementLogSampler;
+import org.apache.ibatis.executor.statement.WatchdogStatementHandler;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -90,6 +99,9 @@ import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
+import org.apache.ibatis.transaction.replica.LatencyWeightedReplicaSelector;
+import org.apache.ibatis.transaction.replica.LeastActiveReplicaSelector;
+import org.apache.ibatis.transaction.replica.RoundRobinReplicaSelector;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeAliasRegistry;
 import org.apache.ibatis.type.TypeHandler;
@@ -112,6 +124,19 @@ public class Configuration {
   protected boolean cacheEnabled = true;
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
+  protected boolean useGeneratedMappers;
+  protected boolean preloadReflectors;
+  protected String reflectorSnapshotFile;
+  protected boolean parallelMapperParsing;
+  protected boolean lazySqlSourceEnabled;
+  protected boolean lightweightStatementLogging;
+  protected int statementLogSampleRate = 1;
+  protected Integer slowStatementLogThreshold;
+  protected Integer slowStatementCaptureThreshold;
+  protected Integer largeResultCaptureThreshold;
+  protected Integer maxResultRows;
+  protected boolean multipleStatementsEnabled;
+  protected boolean sessionIdentityMapEnabled;
   protected boolean returnInstanceForEmptyRow;
 
   protected String logPrefix;
@@ -122,6 +147,9 @@ public class Configuration {
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
+  protected boolean adaptiveFetchSizeEnabled;
+  protected int adaptiveFetchSizeMin = 10;
+  protected int adaptiveFetchSizeMax = 1000;
   protected ResultSetType defaultResultSetType;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
@@ -134,6 +162,7 @@ public class Configuration {
 
   protected boolean lazyLoadingEnabled = false;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
+  protected MetricsRegistry metricsRegistry;
 
   protected String databaseId;
   /**
@@ -149,6 +178,9 @@ public class Configuration {
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry(this);
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
   protected final LanguageDriverRegistry languageRegistry = new LanguageDriverRegistry();
+  protected final FetchSizeHistory fetchSizeHistory = new FetchSizeHistory();
+  protected final StatementLogSampler statementLogSampler = new StatementLogSampler();
+  protected StatementCaptureBuffer statementCaptureBuffer = new StatementCaptureBuffer(100);
 
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection")
       .conflictMessageProducer((savedValue, targetValue) ->
@@ -208,6 +240,10 @@ public class Configuration {
     typeAliasRegistry.registerAlias("CGLIB", CglibProxyFactory.class);
     typeAliasRegistry.registerAlias("JAVASSIST", JavassistProxyFactory.class);
 
+    typeAliasRegistry.registerAlias("ROUND_ROBIN", RoundRobinReplicaSelector.class);
+    typeAliasRegistry.registerAlias("LEAST_ACTIVE", LeastActiveReplicaSelector.class);
+    typeAliasRegistry.registerAlias("LATENCY_WEIGHTED", LatencyWeightedReplicaSelector.class);
+
     languageRegistry.setDefaultDriverClass(XMLLanguageDriver.class);
     languageRegistry.register(RawLanguageDriver.class);
   }
@@ -258,6 +294,253 @@ public class Configuration {
     this.useActualParamName = useActualParamName;
   }
 
+  /**
+   * @since 3.5.4
+   */
+  public boolean isUseGeneratedMappers() {
+    return useGeneratedMappers;
+  }
+
+  /**
+   * When enabled, mapper instances are generated classes instead of dynamic proxies. The classes are generated
+   * when the session factory is built. Mappers that cannot be generated fall back to a dynamic proxy.
+   * @since 3.5.4
+   */
+  public void setUseGeneratedMappers(boolean useGeneratedMappers) {
+    this.useGeneratedMappers = useGeneratedMappers;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isPreloadReflectors() {
+    return preloadReflectors;
+  }
+
+  /**
+   * When enabled, the reflectors of the mapped types are built in parallel when the SqlSessionFactory is built.
+   * @since 3.5.4
+   * @see org.apache.ibatis.builder.ReflectorPreloader
+   */
+  public void setPreloadReflectors(boolean preloadReflectors) {
+    this.preloadReflectors = preloadReflectors;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public String getReflectorSnapshotFile() {
+    return reflectorSnapshotFile;
+  }
+
+  /**
+   * The file listing the types to preload in addition to the mapped ones.
+   * @since 3.5.4
+   * @see org.apache.ibatis.builder.ReflectorPreloader#writeSnapshot(Configuration)
+   */
+  public void setReflectorSnapshotFile(String reflectorSnapshotFile) {
+    this.reflectorSnapshotFile = reflectorSnapshotFile;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isParallelMapperParsing() {
+    return parallelMapperParsing;
+  }
+
+  /**
+   * When enabled, the XML documents of the mappers declared by resource or url are parsed in parallel
+   * before the mapped statements are built in the declared order.
+   * @since 3.5.4
+   */
+  public void setParallelMapperParsing(boolean parallelMapperParsing) {
+    this.parallelMapperParsing = parallelMapperParsing;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isLazySqlSourceEnabled() {
+    return lazySqlSourceEnabled;
+  }
+
+  /**
+   * When enabled, the SQL of the statements declared in XML mappers is built the first time each statement is used.
+   * @since 3.5.4
+   * @see #buildLazySqlSources()
+   */
+  public void setLazySqlSourceEnabled(boolean lazySqlSourceEnabled) {
+    this.lazySqlSourceEnabled = lazySqlSourceEnabled;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isLightweightStatementLogging() {
+    return lightweightStatementLogging;
+  }
+
+  /**
+   * When enabled, the statements are logged by a {@link LoggingStatementHandler} instead of JDBC proxies.
+   * @since 3.5.4
+   */
+  public void setLightweightStatementLogging(boolean lightweightStatementLogging) {
+    this.lightweightStatementLogging = lightweightStatementLogging;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getStatementLogSampleRate() {
+    return statementLogSampleRate;
+  }
+
+  /**
+   * Logs one in every {@code statementLogSampleRate} executions of each statement, only applies to the lightweight logging.
+   * @since 3.5.4
+   */
+  public void setStatementLogSampleRate(int statementLogSampleRate) {
+    this.statementLogSampleRate = statementLogSampleRate;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public Integer getSlowStatementLogThreshold() {
+    return slowStatementLogThreshold;
+  }
+
+  /**
+   * Only logs the executions that took at least this number of milliseconds, only applies to the lightweight logging.
+   * @since 3.5.4
+   */
+  public void setSlowStatementLogThreshold(Integer slowStatementLogThreshold) {
+    this.slowStatementLogThreshold = slowStatementLogThreshold;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public StatementLogSampler getStatementLogSampler() {
+    return statementLogSampler;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+  /**
+   * Records the execution metrics of the statements in the given registry, {@code null} disables the metrics.
+   * @since 3.5.4
+   */
+  public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public Integer getSlowStatementCaptureThreshold() {
+    return slowStatementCaptureThreshold;
+  }
+
+  /**
+   * Captures the executions that took at least this number of milliseconds in the statement capture buffer.
+   * @since 3.5.4
+   */
+  public void setSlowStatementCaptureThreshold(Integer slowStatementCaptureThreshold) {
+    this.slowStatementCaptureThreshold = slowStatementCaptureThreshold;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public Integer getLargeResultCaptureThreshold() {
+    return largeResultCaptureThreshold;
+  }
+
+  /**
+   * Captures the queries that returned more than this number of rows in the statement capture buffer.
+   * @since 3.5.4
+   */
+  public void setLargeResultCaptureThreshold(Integer largeResultCaptureThreshold) {
+    this.largeResultCaptureThreshold = largeResultCaptureThreshold;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getStatementCaptureCapacity() {
+    return statementCaptureBuffer.getCapacity();
+  }
+
+  /**
+   * Replaces the statement capture buffer by an empty one holding up to the given number of statements.
+   * @since 3.5.4
+   */
+  public void setStatementCaptureCapacity(int statementCaptureCapacity) {
+    this.statementCaptureBuffer = new StatementCaptureBuffer(statementCaptureCapacity);
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public StatementCaptureBuffer getStatementCaptureBuffer() {
+    return statementCaptureBuffer;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public Integer getMaxResultRows() {
+    return maxResultRows;
+  }
+
+  /**
+   * Fails the queries that map more than this number of rows into a list, the rows handled by a
+   * {@link ResultHandler} or a cursor are not limited.
+   * @since 3.5.4
+   */
+  public void setMaxResultRows(Integer maxResultRows) {
+    this.maxResultRows = maxResultRows;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isMultipleStatementsEnabled() {
+    return multipleStatementsEnabled;
+  }
+
+  /**
+   * Sends the selects of a {@link QueryGroup} as one statement made of several queries separated by semicolons.
+   * The driver must accept such statements and return one result set per query.
+   * @since 3.5.4
+   */
+  public void setMultipleStatementsEnabled(boolean multipleStatementsEnabled) {
+    this.multipleStatementsEnabled = multipleStatementsEnabled;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isSessionIdentityMapEnabled() {
+    return sessionIdentityMapEnabled;
+  }
+
+  /**
+   * Builds an entity read by several queries of a session only once: the objects of result maps with id mappings
+   * are kept by id until the local cache is cleared and returned as they are by the next queries.
+   * @since 3.5.4
+   */
+  public void setSessionIdentityMapEnabled(boolean sessionIdentityMapEnabled) {
+    this.sessionIdentityMapEnabled = sessionIdentityMapEnabled;
+  }
+
   public boolean isReturnInstanceForEmptyRow() {
     return returnInstanceForEmptyRow;
   }
@@ -433,6 +716,65 @@ public class Configuration {
     this.defaultFetchSize = defaultFetchSize;
   }
 
+  /**
+   * @since 3.5.4
+   */
+  public boolean isAdaptiveFetchSizeEnabled() {
+    return adaptiveFetchSizeEnabled;
+  }
+
+  /**
+   * When enabled, the fetch size of a statement that does not specify one is derived
+   * from the number of rows its previous executions returned.
+   * @since 3.5.4
+   */
+  public void setAdaptiveFetchSizeEnabled(boolean adaptiveFetchSizeEnabled) {
+    this.adaptiveFetchSizeEnabled = adaptiveFetchSizeEnabled;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getAdaptiveFetchSizeMin() {
+    return adaptiveFetchSizeMin;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public void setAdaptiveFetchSizeMin(int adaptiveFetchSizeMin) {
+    this.adaptiveFetchSizeMin = adaptiveFetchSizeMin;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getAdaptiveFetchSizeMax() {
+    return adaptiveFetchSizeMax;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public void setAdaptiveFetchSizeMax(int adaptiveFetchSizeMax) {
+    this.adaptiveFetchSizeMax = adaptiveFetchSizeMax;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public FetchSizeHistory getFetchSizeHistory() {
+    return fetchSizeHistory;
+  }
+
+  /**
+   * Returns the fetch sizes learned so far, keyed by mapped statement id.
+   * @since 3.5.4
+   */
+  public Map<String, Integer> getAdaptiveFetchSizes() {
+    return fetchSizeHistory.getFetchSizes(adaptiveFetchSizeMin, adaptiveFetchSizeMax);
+  }
+
   /**
    * @since 3.5.2
    */
@@ -585,12 +927,25 @@ public class Configuration {
       ResultHandler resultHandler, BoundSql boundSql) {
     ResultSetHandler resultSetHandler = new DefaultResultSetHandler(executor, mappedStatement, parameterHandler, resultHandler, boundSql, rowBounds);
     resultSetHandler = (ResultSetHandler) interceptorChain.pluginAll(resultSetHandler);
+    if (metricsRegistry != null) {
+      resultSetHandler = new MetricsResultSetHandler(resultSetHandler, mappedStatement.getId(), metricsRegistry);
+    }
     return resultSetHandler;
   }
 
   public StatementHandler newStatementHandler(Executor executor, MappedStatement mappedStatement, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     StatementHandler statementHandler = new RoutingStatementHandler(executor, mappedStatement, parameterObject, rowBounds, resultHandler, boundSql);
     statementHandler = (StatementHandler) interceptorChain.pluginAll(statementHandler);
+    if (slowStatementCaptureThreshold != null || largeResultCaptureThreshold != null) {
+      statementHandler = new WatchdogStatementHandler(statementHandler, mappedStatement);
+    }
+    if (metricsRegistry != null) {
+      statementHandler = new MetricsStatementHandler(statementHandler, mappedStatement.getId(), metricsRegistry);
+    }
+    if (lightweightStatementLogging && mappedStatement.getStatementLog().isDebugEnabled()) {
+      // outside of the plugins, which may navigate the routing handler
+      statementHandler = new LoggingStatementHandler(statementHandler, mappedStatement);
+    }
     return statementHandler;
   }
 
@@ -599,6 +954,16 @@ public class Configuration {
   }
 
   public Executor newExecutor(Transaction transaction, ExecutorType executorType) {
+    return newExecutor(transaction, executorType, cacheEnabled);
+  }
+
+  /**
+   * Creates an executor that uses the second level cache only if both {@code secondLevelCache}
+   * and {@link #isCacheEnabled()} are true.
+   *
+   * @since 3.5.4
+   */
+  public Executor newExecutor(Transaction transaction, ExecutorType executorType, boolean secondLevelCache) {
     executorType = executorType == null ? defaultExecutorType : executorType;
     executorType = executorType == null ? ExecutorType.SIMPLE : executorType;
     Executor executor;
@@ -609,7 +974,7 @@ public class Configuration {
     } else {
       executor = new SimpleExecutor(this, transaction);
     }
-    if (cacheEnabled) {
+    if (cacheEnabled && secondLevelCache) {
       executor = new CachingExecutor(executor);
     }
     executor = (Executor) interceptorChain.pluginAll(executor);
@@ -712,6 +1077,20 @@ public class Configuration {
     return mappedStatements.values();
   }
 
+  /**
+   * Builds the SQL of all the statements that have not been used yet when {@link #isLazySqlSourceEnabled()}.
+   * This reports at once the errors that would otherwise be thrown on first use, e.g. in a test checking the mappers.
+   * @since 3.5.4
+   */
+  public void buildLazySqlSources() {
+    buildAllStatements();
+    for (Object value : mappedStatements.values()) {
+      if (value instanceof MappedStatement && ((MappedStatement) value).getSqlSource() instanceof LazySqlSource) {
+        ((LazySqlSource) ((MappedStatement) value).getSqlSource()).getSqlSource();
+      }
+    }
+  }
+
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
     return incompleteStatements;
   }
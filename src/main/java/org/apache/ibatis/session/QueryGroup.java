@@ -0,0 +1,184 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.ibatis.exceptions.TooManyResultsException;
+
+/**
+ * Gathers independent selects so that they are executed together instead of one round trip after the other.
+ * <pre>
+ * QueryGroup group = sqlSession.newQueryGroup();
+ * QueryGroup.Result&lt;Author&gt; author = group.selectOne("selectAuthor", id);
+ * QueryGroup.Result&lt;List&lt;Post&gt;&gt; posts = group.selectList("selectRecentPosts");
+ * group.execute();
+ * </pre>
+ * This base implementation runs the selects one after the other on the session. The group of a
+ * {@link org.apache.ibatis.session.defaults.DefaultSqlSession} sends them as a single statement when
+ * {@link Configuration#isMultipleStatementsEnabled()} is set, or runs them in parallel on their own connections
+ * when an {@link ExecutorService} is given and the session is in auto-commit mode.
+ *
+ * @since 3.5.4
+ * @see SqlSession#newQueryGroup()
+ */
+public class QueryGroup {
+
+  protected final SqlSession sqlSession;
+  private final List<Query<?>> queries = new ArrayList<>();
+
+  public QueryGroup(SqlSession sqlSession) {
+    this.sqlSession = sqlSession;
+  }
+
+  public <T> Result<T> selectOne(String statement) {
+    return selectOne(statement, null);
+  }
+
+  public <T> Result<T> selectOne(String statement, Object parameter) {
+    return add(statement, parameter, RowBounds.DEFAULT, true);
+  }
+
+  public <E> Result<List<E>> selectList(String statement) {
+    return selectList(statement, null);
+  }
+
+  public <E> Result<List<E>> selectList(String statement, Object parameter) {
+    return selectList(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  public <E> Result<List<E>> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    return add(statement, parameter, rowBounds, false);
+  }
+
+  private <T> Result<T> add(String statement, Object parameter, RowBounds rowBounds, boolean single) {
+    Query<T> query = new Query<>(statement, parameter, rowBounds, single);
+    queries.add(query);
+    return query.result;
+  }
+
+  /**
+   * @return the number of selects waiting for {@link #execute()}
+   */
+  public int size() {
+    return queries.size();
+  }
+
+  /**
+   * Executes the gathered selects on the session. The group is emptied and can be reused.
+   */
+  public void execute() {
+    execute(null);
+  }
+
+  /**
+   * Executes the gathered selects, in parallel on the executor service if the session supports it.
+   * The group is emptied and can be reused.
+   *
+   * @param executorService the executor service running the selects, or {@code null} to use the session only
+   */
+  public void execute(ExecutorService executorService) {
+    if (queries.isEmpty()) {
+      return;
+    }
+    List<Query<?>> pending = new ArrayList<>(queries);
+    queries.clear();
+    executeQueries(Collections.unmodifiableList(pending), executorService);
+  }
+
+  /**
+   * Executes the queries and completes them with {@link Query#complete(List)}.
+   */
+  protected void executeQueries(List<Query<?>> queries, ExecutorService executorService) {
+    for (Query<?> query : queries) {
+      query.complete(sqlSession.selectList(query.getStatement(), query.getParameter(), query.getRowBounds()));
+    }
+  }
+
+  /**
+   * A select of the group.
+   */
+  protected static final class Query<T> {
+
+    private final String statement;
+    private final Object parameter;
+    private final RowBounds rowBounds;
+    private final boolean single;
+    private final Result<T> result = new Result<>();
+
+    private Query(String statement, Object parameter, RowBounds rowBounds, boolean single) {
+      this.statement = statement;
+      this.parameter = parameter;
+      this.rowBounds = rowBounds;
+      this.single = single;
+    }
+
+    public String getStatement() {
+      return statement;
+    }
+
+    public Object getParameter() {
+      return parameter;
+    }
+
+    public RowBounds getRowBounds() {
+      return rowBounds;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void complete(List<?> rows) {
+      if (!single) {
+        result.set((T) rows);
+      } else if (rows.size() > 1) {
+        throw new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found: " + rows.size());
+      } else {
+        result.set(rows.isEmpty() ? null : (T) rows.get(0));
+      }
+    }
+  }
+
+  /**
+   * The result of a select, available once the group has been executed.
+   */
+  public static final class Result<T> {
+
+    private T value;
+    private boolean done;
+
+    private Result() {
+    }
+
+    private void set(T value) {
+      this.value = value;
+      this.done = true;
+    }
+
+    public boolean isDone() {
+      return done;
+    }
+
+    public T get() {
+      if (!done) {
+        throw new IllegalStateException("The query group has not been executed yet.");
+      }
+      return value;
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -280,4 +280,23 @@ public interface SqlSession extends Closeable {
    * @return Connection
    */
   Connection getConnection();
+
+  /**
+   * Overrides for this session whether the selects keep using the primary data source once the session has written.
+   * Ignored when the environment has no replica, and by the implementations not routing to replicas.
+   * @param readYourWrites whether the reads following a write use the primary until the session is closed
+   * @since 3.5.4
+   */
+  default void setReadYourWrites(boolean readYourWrites) {
+    // sessions without replica routing always read their writes
+  }
+
+  /**
+   * Creates a group of independent selects executed together by {@link QueryGroup#execute()}.
+   * @return a new empty group bound to this session
+   * @since 3.5.4
+   */
+  default QueryGroup newQueryGroup() {
+    return new QueryGroup(this);
+  }
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -270,6 +270,25 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSession.getConnection();
   }
 
+  @Override
+  public void setReadYourWrites(boolean readYourWrites) {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession == null) {
+      throw new SqlSessionException("Error:  Cannot set read your writes.  No managed session is started.");
+    }
+    sqlSession.setReadYourWrites(readYourWrites);
+  }
+
+  @Override
+  public QueryGroup newQueryGroup() {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession == null) {
+      // every select of the group opens its own session
+      return new QueryGroup(this);
+    }
+    return sqlSession.newQueryGroup();
+  }
+
   @Override
   public void clearCache() {
     final SqlSession sqlSession = localSqlSession.get();
@@ -0,0 +1,251 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.QueryGroup;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * The query group of a {@link DefaultSqlSession}.
+ * <p>
+ * When {@link Configuration#isMultipleStatementsEnabled()} is set, the plain prepared selects are joined into one
+ * statement run by the executor of the session, and every result set is mapped by the result map of its select.
+ * Given an executor service and an auto-commit session, the other selects run in parallel, each one on a session of
+ * its own opened with auto-commit. Within a transaction they run on the session, as do the selects that cannot be
+ * isolated.
+ *
+ * @since 3.5.4
+ */
+public class DefaultQueryGroup extends QueryGroup {
+
+  private final DefaultSqlSession session;
+  private final Configuration configuration;
+  private final Executor executor;
+
+  DefaultQueryGroup(DefaultSqlSession session, Configuration configuration, Executor executor) {
+    super(session);
+    this.session = session;
+    this.configuration = configuration;
+    this.executor = executor;
+  }
+
+  @Override
+  protected void executeQueries(List<Query<?>> queries, ExecutorService executorService) {
+    List<Query<?>> remaining = queries;
+    if (configuration.isMultipleStatementsEnabled()) {
+      List<Query<?>> combined = new ArrayList<>();
+      remaining = new ArrayList<>();
+      for (Query<?> query : queries) {
+        (isCombinable(query) ? combined : remaining).add(query);
+      }
+      if (combined.size() > 1) {
+        executeAsOneStatement(combined);
+      } else {
+        remaining = queries;
+      }
+    }
+    // the selects of a transaction must all see its snapshot and its changes, so only auto-commit sessions fan out
+    if (executorService != null && remaining.size() > 1 && session.isAutoCommit() && configuration.getEnvironment() != null) {
+      List<Query<?>> isolated = new ArrayList<>();
+      List<Query<?>> local = new ArrayList<>();
+      for (Query<?> query : remaining) {
+        (isIsolatable(query) ? isolated : local).add(query);
+      }
+      if (isolated.size() > 1) {
+        executeInParallel(isolated, executorService);
+        remaining = local;
+      }
+    }
+    super.executeQueries(remaining, null);
+  }
+
+  private boolean isCombinable(Query<?> query) {
+    if (!configuration.hasStatement(query.getStatement())) {
+      return false;
+    }
+    MappedStatement ms = configuration.getMappedStatement(query.getStatement());
+    RowBounds rowBounds = query.getRowBounds();
+    return ms.getSqlCommandType() == SqlCommandType.SELECT
+        && ms.getStatementType() == StatementType.PREPARED
+        && ms.getResultSets() == null
+        && ms.getResultMaps().size() == 1
+        // a second level cache hit must not be bypassed
+        && (ms.getCache() == null || !ms.isUseCache())
+        && rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET
+        && rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT;
+  }
+
+  private boolean isIsolatable(Query<?> query) {
+    if (!configuration.hasStatement(query.getStatement())) {
+      return false;
+    }
+    if (!configuration.isLazyLoadingEnabled()) {
+      return true;
+    }
+    // lazy loaders would outlive the session of the query
+    for (ResultMap resultMap : configuration.getMappedStatement(query.getStatement()).getResultMaps()) {
+      if (resultMap.hasNestedQueries()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void executeAsOneStatement(List<Query<?>> queries) {
+    List<Object> results;
+    try {
+      MappedStatement ms = combine(queries);
+      results = executor.query(ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      if (results.size() != queries.size()) {
+        throw new ExecutorException("Expected " + queries.size() + " result sets from a query group but got "
+            + results.size() + ". Check that the driver supports multiple statements.");
+      }
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+    for (int i = 0; i < queries.size(); i++) {
+      queries.get(i).complete((List<?>) results.get(i));
+    }
+  }
+
+  /**
+   * Joins the selects into one statement. The parameter values are resolved upfront and bound as additional
+   * parameters, as every select has its own parameter object.
+   */
+  private MappedStatement combine(List<Query<?>> queries) {
+    TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    StringBuilder sql = new StringBuilder();
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+    List<ResultMap> resultMaps = new ArrayList<>();
+    Integer timeout = null;
+    String resource = null;
+    for (Query<?> query : queries) {
+      MappedStatement ms = configuration.getMappedStatement(query.getStatement());
+      Object parameterObject = session.wrapCollection(query.getParameter());
+      BoundSql boundSql = ms.getBoundSql(parameterObject);
+      MetaObject metaObject = null;
+      for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+        if (parameterMapping.getMode() == ParameterMode.OUT) {
+          throw new ExecutorException("Statement '" + ms.getId() + "' has OUT parameters and cannot be grouped.");
+        }
+        String propertyName = parameterMapping.getProperty();
+        Object value;
+        if (boundSql.hasAdditionalParameter(propertyName)) {
+          value = boundSql.getAdditionalParameter(propertyName);
+        } else if (parameterObject == null) {
+          value = null;
+        } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+          value = parameterObject;
+        } else {
+          if (metaObject == null) {
+            metaObject = configuration.newMetaObject(parameterObject);
+          }
+          value = metaObject.getValue(propertyName);
+        }
+        parameterMappings.add(new ParameterMapping.Builder(configuration, "__group_" + values.size(), parameterMapping.getTypeHandler())
+            .javaType(parameterMapping.getJavaType())
+            .jdbcType(parameterMapping.getJdbcType())
+            .numericScale(parameterMapping.getNumericScale())
+            .build());
+        values.add(value);
+      }
+      if (sql.length() > 0) {
+        sql.append(";\n");
+      }
+      sql.append(boundSql.getSql());
+      resultMaps.addAll(ms.getResultMaps());
+      if (ms.getTimeout() != null && (timeout == null || ms.getTimeout() > timeout)) {
+        timeout = ms.getTimeout();
+      }
+      if (resource == null) {
+        resource = ms.getResource();
+      }
+    }
+    BoundSql boundSql = new BoundSql(configuration, sql.toString(), parameterMappings, null);
+    for (int i = 0; i < values.size(); i++) {
+      boundSql.setAdditionalParameter("__group_" + i, values.get(i));
+    }
+    // one id for all the groups, it also names the statement logger
+    return new MappedStatement.Builder(configuration, QueryGroup.class.getName(), parameterObject -> boundSql, SqlCommandType.SELECT)
+        .resource(resource)
+        .statementType(StatementType.PREPARED)
+        .resultMaps(resultMaps)
+        .timeout(timeout)
+        .useCache(false)
+        .flushCacheRequired(false)
+        .build();
+  }
+
+  private void executeInParallel(List<Query<?>> queries, ExecutorService executorService) {
+    SqlSessionFactory sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+    List<Future<List<Object>>> futures = new ArrayList<>(queries.size());
+    for (Query<?> query : queries) {
+      futures.add(executorService.submit(() -> {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+          return sqlSession.selectList(query.getStatement(), query.getParameter(), query.getRowBounds());
+        }
+      }));
+    }
+    RuntimeException failure = null;
+    for (int i = 0; i < queries.size(); i++) {
+      try {
+        queries.get(i).complete(futures.get(i).get());
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+              : ExceptionFactory.wrapException("Error querying database.  Cause: " + e.getCause(), e);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(future -> future.cancel(true));
+        throw ExceptionFactory.wrapException("Interrupted while querying database.  Cause: " + e, e);
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -35,9 +35,12 @@ import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.QueryGroup;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.replica.ReplicaRoutingTransaction;
 
 /**
  * The default implementation for {@link SqlSession}.
@@ -294,12 +297,33 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public Connection getConnection() {
     try {
-      return executor.getTransaction().getConnection();
+      Transaction transaction = executor.getTransaction();
+      if (transaction instanceof ReplicaRoutingTransaction) {
+        return ((ReplicaRoutingTransaction) transaction).getPrimaryConnection();
+      }
+      return transaction.getConnection();
     } catch (SQLException e) {
       throw ExceptionFactory.wrapException("Error getting a new connection.  Cause: " + e, e);
     }
   }
 
+  @Override
+  public void setReadYourWrites(boolean readYourWrites) {
+    Transaction transaction = executor.getTransaction();
+    if (transaction instanceof ReplicaRoutingTransaction) {
+      ((ReplicaRoutingTransaction) transaction).setReadYourWrites(readYourWrites);
+    }
+  }
+
+  @Override
+  public QueryGroup newQueryGroup() {
+    return new DefaultQueryGroup(this, configuration, executor);
+  }
+
+  boolean isAutoCommit() {
+    return autoCommit;
+  }
+
   @Override
   public void clearCache() {
     executor.clearLocalCache();
@@ -316,7 +340,7 @@ public class DefaultSqlSession implements SqlSession {
     return (!autoCommit && dirty) || force;
   }
 
-  private Object wrapCollection(final Object object) {
+  Object wrapCollection(final Object object) {
     if (object instanceof Collection) {
       StrictMap<Object> map = new StrictMap<>();
       map.put("collection", object);
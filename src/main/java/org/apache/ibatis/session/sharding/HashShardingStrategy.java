@@ -0,0 +1,35 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+/**
+ * Spreads the keys over the shards by modulo.
+ * Integral numbers are used as is, so consecutive ids land on consecutive shards,
+ * any other key is spread by its {@link Object#hashCode()}.
+ *
+ * @since 3.5.4
+ */
+public class HashShardingStrategy implements ShardingStrategy {
+
+  @Override
+  public int getShard(Object shardKey, int shardCount) {
+    if (shardKey instanceof Integer || shardKey instanceof Long || shardKey instanceof Short || shardKey instanceof Byte) {
+      return (int) Math.floorMod(((Number) shardKey).longValue(), (long) shardCount);
+    }
+    return Math.floorMod(shardKey.hashCode(), shardCount);
+  }
+
+}
@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.ibatis.cursor.Cursor;
+
+/**
+ * A cursor over the cursors of several shards, merged with a {@link MergingIterator}.
+ */
+class MergedCursor<T> implements Cursor<T> {
+
+  private final List<Cursor<T>> cursors;
+  private final Comparator<? super T> comparator;
+  private boolean iteratorRetrieved;
+  private boolean closed;
+  private int currentIndex = -1;
+
+  MergedCursor(List<Cursor<T>> cursors, Comparator<? super T> comparator) {
+    this.cursors = cursors;
+    this.comparator = comparator;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return !closed && cursors.stream().anyMatch(Cursor::isOpen);
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return cursors.stream().allMatch(Cursor::isConsumed);
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return currentIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    List<Iterator<T>> iterators = new ArrayList<>(cursors.size());
+    for (Cursor<T> cursor : cursors) {
+      iterators.add(cursor.iterator());
+    }
+    MergingIterator<T> merged = new MergingIterator<>(iterators, comparator);
+    return new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return !closed && merged.hasNext();
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        T next = merged.next();
+        currentIndex++;
+        return next;
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    IOException failure = null;
+    for (Cursor<T> cursor : cursors) {
+      try {
+        cursor.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges the iterators of several shards, each already sorted by the comparator, with a heap
+ * holding the next element of every shard. Only one element per shard is buffered, so cursors
+ * are merged while they are read.
+ * Without comparator the shards are concatenated in their order.
+ */
+class MergingIterator<T> implements Iterator<T> {
+
+  private final List<? extends Iterator<? extends T>> iterators;
+  private final PriorityQueue<Head<T>> heads;
+  private boolean started;
+
+  MergingIterator(List<? extends Iterator<? extends T>> iterators, Comparator<? super T> comparator) {
+    this.iterators = iterators;
+    Comparator<Head<T>> byShard = Comparator.comparingInt(head -> head.shard);
+    this.heads = new PriorityQueue<>(Math.max(1, iterators.size()),
+        comparator == null ? byShard : Comparator.<Head<T>, T>comparing(head -> head.value, comparator).thenComparing(byShard));
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!started) {
+      started = true;
+      for (int shard = 0; shard < iterators.size(); shard++) {
+        advance(shard);
+      }
+    }
+    return !heads.isEmpty();
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Head<T> head = heads.poll();
+    advance(head.shard);
+    return head.value;
+  }
+
+  private void advance(int shard) {
+    Iterator<? extends T> iterator = iterators.get(shard);
+    if (iterator.hasNext()) {
+      heads.add(new Head<>(iterator.next(), shard));
+    }
+  }
+
+  private static class Head<T> {
+    private final T value;
+    private final int shard;
+
+    Head(T value, int shard) {
+      this.value = value;
+      this.shard = shard;
+    }
+  }
+
+}
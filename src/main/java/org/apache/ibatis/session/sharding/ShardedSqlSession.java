@@ -0,0 +1,584 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.DefaultMapResultHandler;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * A session over all the shards of a {@link ShardedSqlSessionFactory}.
+ * <p>
+ * A statement that declares a shard key (the {@code shardKey} attribute of the mapper XML) is sent to the shard
+ * its parameter value maps to. Any other select is broadcast to all the shards: the lists are concatenated
+ * in shard order and {@link RowBounds} are applied to the combined result. Writes without shard key are
+ * rejected, except updates and deletes run with {@link #updateAllShards(String, Object)} and
+ * {@link #deleteAllShards(String, Object)}, whose update counts are summed.
+ * The methods taking a {@link Comparator} merge results that every shard returns already sorted in that order,
+ * the ones taking shard keys only query the shards of those keys, and
+ * {@link #selectAggregate(String, Object, BinaryOperator)} combines the single result of every shard.
+ * Mapper interfaces obtained from this session are routed the same way.
+ * <p>
+ * A session per shard is opened on first use. Commit and rollback are sent to every opened shard one after the
+ * other, there is no two phase commit. Like any {@link SqlSession}, this class is not thread safe.
+ *
+ * @since 3.5.4
+ */
+public class ShardedSqlSession implements SqlSession {
+
+  private static final int BROADCAST = -1;
+
+  private final ShardedSqlSessionFactory factory;
+  private final Configuration configuration;
+  private final ExecutorType execType;
+  private final boolean autoCommit;
+  private final SqlSession[] sessions;
+
+  ShardedSqlSession(ShardedSqlSessionFactory factory, ExecutorType execType, boolean autoCommit) {
+    this.factory = factory;
+    this.configuration = factory.getConfiguration();
+    this.execType = execType;
+    this.autoCommit = autoCommit;
+    this.sessions = new SqlSession[factory.getShardCount()];
+  }
+
+  public int getShardCount() {
+    return sessions.length;
+  }
+
+  /**
+   * @return the session of a shard, opened on first use
+   */
+  public SqlSession getShard(int shard) {
+    if (shard < 0 || shard >= sessions.length) {
+      throw new ShardingException("There is no shard " + shard + ", the shard count is " + sessions.length + ".");
+    }
+    if (sessions[shard] == null) {
+      sessions[shard] = factory.openShardSession(shard, execType, autoCommit);
+    }
+    return sessions[shard];
+  }
+
+  /**
+   * @return the session of the shard that holds a shard key value
+   */
+  public SqlSession getShardFor(Object shardKey) {
+    return getShard(getShardIndex(shardKey));
+  }
+
+  public int getShardIndex(Object shardKey) {
+    if (shardKey == null) {
+      throw new ShardingException("The shard key must not be null.");
+    }
+    int shard = factory.getShardingStrategy().getShard(shardKey, sessions.length);
+    if (shard < 0 || shard >= sessions.length) {
+      throw new ShardingException("The sharding strategy mapped key '" + shardKey + "' to shard " + shard
+          + " but the shard count is " + sessions.length + ".");
+    }
+    return shard;
+  }
+
+  @Override
+  public <T> T selectOne(String statement) {
+    return this.selectOne(statement, null);
+  }
+
+  @Override
+  public <T> T selectOne(String statement, Object parameter) {
+    int shard = route(statement, parameter);
+    if (shard != BROADCAST) {
+      return getShard(shard).selectOne(statement, parameter);
+    }
+    List<T> list = this.selectList(statement, parameter);
+    if (list.size() == 1) {
+      return list.get(0);
+    } else if (list.size() > 1) {
+      throw new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found: " + list.size());
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Runs a statement returning one row on the targeted shards and combines their results,
+   * e.g. with {@code Long::sum} for a count or {@code BinaryOperator.maxBy(comparator)} for a maximum.
+   *
+   * @return the combined non null results, or {@code null} if all the shards returned {@code null}
+   */
+  public <T> T selectAggregate(String statement, Object parameter, BinaryOperator<T> combiner) {
+    return selectAggregate(statement, parameter, targets(statement, parameter), combiner);
+  }
+
+  /**
+   * Same as {@link #selectAggregate(String, Object, BinaryOperator)} on the shards of the given keys only.
+   */
+  public <T> T selectAggregate(String statement, Object parameter, Collection<?> shardKeys, BinaryOperator<T> combiner) {
+    return selectAggregate(statement, parameter, shardsOf(shardKeys), combiner);
+  }
+
+  private <T> T selectAggregate(String statement, Object parameter, List<Integer> shards, BinaryOperator<T> combiner) {
+    List<T> results = fanOut(statement, shards, session -> session.selectOne(statement, parameter));
+    T aggregate = null;
+    for (T result : results) {
+      if (result != null) {
+        aggregate = aggregate == null ? result : combiner.apply(aggregate, result);
+      }
+    }
+    return aggregate;
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, String mapKey) {
+    return this.selectMap(statement, null, mapKey, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey) {
+    return this.selectMap(statement, parameter, mapKey, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey, RowBounds rowBounds) {
+    int shard = route(statement, parameter);
+    if (shard != BROADCAST) {
+      return getShard(shard).selectMap(statement, parameter, mapKey, rowBounds);
+    }
+    final List<? extends V> list = selectList(statement, parameter, rowBounds);
+    final DefaultMapResultHandler<K, V> mapResultHandler = new DefaultMapResultHandler<>(mapKey,
+        configuration.getObjectFactory(), configuration.getObjectWrapperFactory(), configuration.getReflectorFactory());
+    final DefaultResultContext<V> context = new DefaultResultContext<>();
+    for (V o : list) {
+      context.nextResultObject(o);
+      mapResultHandler.handleResult(context);
+    }
+    return mapResultHandler.getMappedResults();
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement) {
+    return selectCursor(statement, null);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter) {
+    return selectCursor(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    int shard = route(statement, parameter);
+    if (shard != BROADCAST) {
+      return getShard(shard).selectCursor(statement, parameter, rowBounds);
+    }
+    if (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+      throw new ShardingException("RowBounds are not supported by a cursor over several shards.");
+    }
+    return selectCursor(statement, parameter, allShards(), null);
+  }
+
+  /**
+   * Streams the rows of all the targeted shards in the order of the comparator, every shard must return its rows
+   * already sorted in that order. Only the next row of each shard is held in memory.
+   */
+  public <T> Cursor<T> selectCursor(String statement, Object parameter, Comparator<? super T> comparator) {
+    return selectCursor(statement, parameter, targets(statement, parameter), comparator);
+  }
+
+  private <T> Cursor<T> selectCursor(String statement, Object parameter, List<Integer> shards, Comparator<? super T> comparator) {
+    List<Cursor<T>> cursors = fanOut(statement, shards, session -> session.selectCursor(statement, parameter));
+    return new MergedCursor<>(cursors, comparator);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement) {
+    return this.selectList(statement, null);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter) {
+    return this.selectList(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    return selectList(statement, parameter, rowBounds, targets(statement, parameter), null);
+  }
+
+  /**
+   * Merges the rows of all the targeted shards in the order of the comparator, every shard must return its rows
+   * already sorted in that order.
+   */
+  public <E> List<E> selectList(String statement, Object parameter, Comparator<? super E> comparator) {
+    return selectList(statement, parameter, RowBounds.DEFAULT, targets(statement, parameter), comparator);
+  }
+
+  /**
+   * Queries the shards of the given keys only, e.g. the shards of a range of ids.
+   *
+   * @param comparator the order of the rows of every shard, or {@code null} to concatenate them in shard order
+   */
+  public <E> List<E> selectList(String statement, Object parameter, Collection<?> shardKeys, Comparator<? super E> comparator) {
+    return selectList(statement, parameter, RowBounds.DEFAULT, shardsOf(shardKeys), comparator);
+  }
+
+  private <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds, List<Integer> shards,
+      Comparator<? super E> comparator) {
+    if (shards.size() == 1) {
+      return getShard(shards.get(0)).selectList(statement, parameter, rowBounds);
+    }
+    RowBounds shardBounds = shardBounds(rowBounds);
+    List<List<E>> results = fanOut(statement, shards, session -> session.selectList(statement, parameter, shardBounds));
+    List<Iterator<E>> iterators = new ArrayList<>(results.size());
+    int size = 0;
+    for (List<E> result : results) {
+      iterators.add(result.iterator());
+      size += result.size();
+    }
+    List<E> merged = new ArrayList<>(size);
+    new MergingIterator<>(iterators, comparator).forEachRemaining(merged::add);
+    return applyBounds(merged, rowBounds);
+  }
+
+  @Override
+  public void select(String statement, Object parameter, ResultHandler handler) {
+    select(statement, parameter, RowBounds.DEFAULT, handler);
+  }
+
+  @Override
+  public void select(String statement, ResultHandler handler) {
+    select(statement, null, RowBounds.DEFAULT, handler);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    int shard = route(statement, parameter);
+    if (shard != BROADCAST) {
+      getShard(shard).select(statement, parameter, rowBounds, handler);
+      return;
+    }
+    // the handler is not thread safe, so the shards are read one after the other
+    final DefaultResultContext<Object> context = new DefaultResultContext<>();
+    if (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+      for (Object o : selectList(statement, parameter, rowBounds)) {
+        context.nextResultObject(o);
+        handler.handleResult(context);
+        if (context.isStopped()) {
+          return;
+        }
+      }
+      return;
+    }
+    for (int i = 0; i < sessions.length && !context.isStopped(); i++) {
+      getShard(i).select(statement, parameter, shardContext -> {
+        context.nextResultObject(shardContext.getResultObject());
+        handler.handleResult(context);
+        if (context.isStopped()) {
+          shardContext.stop();
+        }
+      });
+    }
+  }
+
+  @Override
+  public int insert(String statement) {
+    return insert(statement, null);
+  }
+
+  @Override
+  public int insert(String statement, Object parameter) {
+    return execute(statement, parameter, null, session -> session.insert(statement, parameter));
+  }
+
+  @Override
+  public int update(String statement) {
+    return update(statement, null);
+  }
+
+  @Override
+  public int update(String statement, Object parameter) {
+    return execute(statement, parameter, "updateAllShards", session -> session.update(statement, parameter));
+  }
+
+  @Override
+  public int delete(String statement) {
+    return delete(statement, null);
+  }
+
+  @Override
+  public int delete(String statement, Object parameter) {
+    return execute(statement, parameter, "deleteAllShards", session -> session.delete(statement, parameter));
+  }
+
+  /**
+   * Runs an update on every shard, whether its statement declares a shard key or not.
+   *
+   * @return the sum of the update counts of the shards
+   */
+  public int updateAllShards(String statement, Object parameter) {
+    return sum(fanOut(statement, allShards(), session -> session.update(statement, parameter)));
+  }
+
+  /**
+   * Runs a delete on every shard, whether its statement declares a shard key or not.
+   *
+   * @return the sum of the update counts of the shards
+   */
+  public int deleteAllShards(String statement, Object parameter) {
+    return sum(fanOut(statement, allShards(), session -> session.delete(statement, parameter)));
+  }
+
+  /**
+   * Sends a write to the shard of its shard key. A write without shard key is rejected rather than broadcast:
+   * an insert belongs to one shard and updates and deletes of every shard must be asked for explicitly.
+   */
+  private int execute(String statement, Object parameter, String broadcastMethod, Function<SqlSession, Integer> operation) {
+    int shard = route(statement, parameter);
+    if (shard == BROADCAST) {
+      if (!configuration.hasStatement(statement)) {
+        // let a shard report the missing statement
+        return sum(fanOut(statement, Collections.singletonList(0), operation));
+      }
+      if (broadcastMethod == null) {
+        throw new ShardingException("Statement '" + statement + "' has no shard key, an insert must be sent to a single shard.");
+      }
+      throw new ShardingException("Statement '" + statement + "' has no shard key, use " + broadcastMethod
+          + "() to run it on every shard.");
+    }
+    return sum(fanOut(statement, Collections.singletonList(shard), operation));
+  }
+
+  private static int sum(List<Integer> counts) {
+    int count = 0;
+    for (Integer shardCount : counts) {
+      count += shardCount;
+    }
+    return count;
+  }
+
+  @Override
+  public void commit() {
+    commit(false);
+  }
+
+  @Override
+  public void commit(boolean force) {
+    forEachOpenedShard(session -> session.commit(force));
+  }
+
+  @Override
+  public void rollback() {
+    rollback(false);
+  }
+
+  @Override
+  public void rollback(boolean force) {
+    forEachOpenedShard(session -> session.rollback(force));
+  }
+
+  @Override
+  public List<BatchResult> flushStatements() {
+    List<BatchResult> results = new ArrayList<>();
+    forEachOpenedShard(session -> results.addAll(session.flushStatements()));
+    return results;
+  }
+
+  @Override
+  public void close() {
+    try {
+      forEachOpenedShard(SqlSession::close);
+    } finally {
+      Arrays.fill(sessions, null);
+    }
+  }
+
+  @Override
+  public void clearCache() {
+    forEachOpenedShard(SqlSession::clearCache);
+  }
+
+  private void forEachOpenedShard(Consumer<SqlSession> action) {
+    RuntimeException failure = null;
+    for (SqlSession session : sessions) {
+      if (session != null) {
+        try {
+          action.accept(session);
+        } catch (RuntimeException e) {
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  @Override
+  public <T> T getMapper(Class<T> type) {
+    return configuration.getMapper(type, this);
+  }
+
+  /**
+   * There is one connection per shard, use {@code getShard(shard).getConnection()}.
+   */
+  @Override
+  public Connection getConnection() {
+    throw new ShardingException("A sharded session has one connection per shard, use getShard(int).getConnection().");
+  }
+
+  private int route(String statement, Object parameter) {
+    if (!configuration.hasStatement(statement)) {
+      // let the shards report the missing statement
+      return BROADCAST;
+    }
+    MappedStatement ms = configuration.getMappedStatement(statement);
+    String shardKey = ms.getShardKey();
+    if (shardKey == null) {
+      return BROADCAST;
+    }
+    if (parameter == null) {
+      throw new ShardingException("Statement '" + ms.getId() + "' is routed by shard key '" + shardKey
+          + "' but has no parameter.");
+    }
+    Object value = configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())
+        ? parameter : configuration.newMetaObject(parameter).getValue(shardKey);
+    if (value == null) {
+      throw new ShardingException("The shard key '" + shardKey + "' of statement '" + ms.getId() + "' is null.");
+    }
+    return getShardIndex(value);
+  }
+
+  private List<Integer> targets(String statement, Object parameter) {
+    int shard = route(statement, parameter);
+    return shard == BROADCAST ? allShards() : Collections.singletonList(shard);
+  }
+
+  private List<Integer> allShards() {
+    List<Integer> shards = new ArrayList<>(sessions.length);
+    for (int i = 0; i < sessions.length; i++) {
+      shards.add(i);
+    }
+    return shards;
+  }
+
+  private List<Integer> shardsOf(Collection<?> shardKeys) {
+    TreeSet<Integer> shards = new TreeSet<>();
+    for (Object shardKey : shardKeys) {
+      shards.add(getShardIndex(shardKey));
+    }
+    return new ArrayList<>(shards);
+  }
+
+  /**
+   * Runs an operation on several shards, in parallel when the factory has an executor service.
+   * The shard sessions are opened on the calling thread and all the shards are awaited before failing.
+   */
+  private <R> List<R> fanOut(String statement, List<Integer> shards, Function<SqlSession, R> operation) {
+    List<SqlSession> targets = new ArrayList<>(shards.size());
+    for (Integer shard : shards) {
+      targets.add(getShard(shard));
+    }
+    List<R> results = new ArrayList<>(shards.size());
+    ExecutorService executorService = factory.getExecutorService();
+    if (executorService == null || shards.size() == 1) {
+      for (int i = 0; i < shards.size(); i++) {
+        try {
+          results.add(operation.apply(targets.get(i)));
+        } catch (RuntimeException e) {
+          throw shardFailure(statement, shards.get(i), e);
+        }
+      }
+      return results;
+    }
+    List<Future<R>> futures = new ArrayList<>(shards.size());
+    for (SqlSession target : targets) {
+      futures.add(executorService.submit(() -> operation.apply(target)));
+    }
+    ShardingException failure = null;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        results.add(futures.get(i).get());
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = shardFailure(statement, shards.get(i), e.getCause());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(future -> future.cancel(true));
+        throw new ShardingException("Interrupted while executing '" + statement + "' on the shards.", e);
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+  private ShardingException shardFailure(String statement, int shard, Throwable cause) {
+    return new ShardingException("Error executing '" + statement + "' on shard " + shard + ".  Cause: " + cause, cause);
+  }
+
+  private static RowBounds shardBounds(RowBounds rowBounds) {
+    if (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET && rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT) {
+      return rowBounds;
+    }
+    // every shard may hold the rows of the requested page
+    long limit = (long) rowBounds.getOffset() + rowBounds.getLimit();
+    return new RowBounds(RowBounds.NO_ROW_OFFSET, (int) Math.min(limit, RowBounds.NO_ROW_LIMIT));
+  }
+
+  private static <E> List<E> applyBounds(List<E> list, RowBounds rowBounds) {
+    if (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET && rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT) {
+      return list;
+    }
+    int from = Math.min(rowBounds.getOffset(), list.size());
+    int to = (int) Math.min(list.size(), (long) from + rowBounds.getLimit());
+    return new ArrayList<>(list.subList(from, to));
+  }
+
+}
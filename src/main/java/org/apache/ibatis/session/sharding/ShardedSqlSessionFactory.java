@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
+
+/**
+ * Opens {@link ShardedSqlSession}s over a list of shard data sources that share one {@link Configuration},
+ * so the mapped statements, result maps and plugins are loaded once for all the shards.
+ * <p>
+ * The transaction factory of the configured environment is used for every shard, its data source is ignored.
+ * When an {@link ExecutorService} is given, the statements sent to several shards run in parallel on it,
+ * otherwise they run one shard after the other on the calling thread.
+ *
+ * @since 3.5.4
+ */
+public class ShardedSqlSessionFactory {
+
+  private final Configuration configuration;
+  private final List<DataSource> shards;
+  private final ShardingStrategy shardingStrategy;
+  private final ExecutorService executorService;
+
+  public ShardedSqlSessionFactory(Configuration configuration, List<DataSource> shards) {
+    this(configuration, shards, new HashShardingStrategy(), null);
+  }
+
+  public ShardedSqlSessionFactory(Configuration configuration, List<DataSource> shards,
+      ShardingStrategy shardingStrategy, ExecutorService executorService) {
+    if (shards == null || shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard data source is required.");
+    }
+    this.configuration = configuration;
+    this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    this.shardingStrategy = shardingStrategy;
+    this.executorService = executorService;
+  }
+
+  public ShardedSqlSession openSession() {
+    return openSession(configuration.getDefaultExecutorType(), false);
+  }
+
+  public ShardedSqlSession openSession(boolean autoCommit) {
+    return openSession(configuration.getDefaultExecutorType(), autoCommit);
+  }
+
+  public ShardedSqlSession openSession(ExecutorType execType, boolean autoCommit) {
+    return new ShardedSqlSession(this, execType, autoCommit);
+  }
+
+  SqlSession openShardSession(int shard, ExecutorType execType, boolean autoCommit) {
+    Transaction tx = null;
+    try {
+      final TransactionFactory transactionFactory = getTransactionFactoryFromEnvironment(configuration.getEnvironment());
+      tx = transactionFactory.newTransaction(shards.get(shard), null, autoCommit);
+      // cache keys do not tell the shards apart, so the second level cache is bypassed
+      final Executor executor = configuration.newExecutor(tx, execType, false);
+      return new DefaultSqlSession(configuration, executor, autoCommit);
+    } catch (Exception e) {
+      if (tx != null) {
+        try {
+          tx.close();
+        } catch (Exception ignore) {
+          // Intentionally ignore. Prefer previous error.
+        }
+      }
+      throw ExceptionFactory.wrapException("Error opening session on shard " + shard + ".  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
+  private TransactionFactory getTransactionFactoryFromEnvironment(Environment environment) {
+    if (environment == null || environment.getTransactionFactory() == null) {
+      return new ManagedTransactionFactory();
+    }
+    return environment.getTransactionFactory();
+  }
+
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  public int getShardCount() {
+    return shards.size();
+  }
+
+  public ShardingStrategy getShardingStrategy() {
+    return shardingStrategy;
+  }
+
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+}
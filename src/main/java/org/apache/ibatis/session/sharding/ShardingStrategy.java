@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+/**
+ * Maps the value of a shard key to the index of the shard that holds it.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.mapping.MappedStatement#getShardKey()
+ */
+public interface ShardingStrategy {
+
+  /**
+   * @param shardKey the value of the shard key, never {@code null}
+   * @param shardCount the number of shards
+   * @return the zero based index of the shard, lower than {@code shardCount}
+   */
+  int getShard(Object shardKey, int shardCount);
+
+}
@@ -0,0 +1,86 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.replica;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+/**
+ * Selects the replicas randomly, with a probability inversely proportional to the moving average
+ * of their query latency. A replica without recorded latency is selected first so that it gets measured.
+ *
+ * @since 3.5.4
+ */
+public class LatencyWeightedReplicaSelector implements ReplicaSelector {
+
+  private static final double SMOOTHING_FACTOR = 0.2d;
+
+  // average latencies in nanoseconds stored as double bits
+  private final Map<DataSource, AtomicLong> latencies = new ConcurrentHashMap<>();
+
+  @Override
+  public DataSource select(List<DataSource> replicas) {
+    double[] weights = new double[replicas.size()];
+    double total = 0;
+    for (int i = 0; i < weights.length; i++) {
+      Double latency = getAverageLatency(replicas.get(i));
+      if (latency == null) {
+        return replicas.get(i);
+      }
+      weights[i] = 1 / Math.max(1d, latency);
+      total += weights[i];
+    }
+    double random = ThreadLocalRandom.current().nextDouble(total);
+    for (int i = 0; i < weights.length; i++) {
+      random -= weights[i];
+      if (random < 0) {
+        return replicas.get(i);
+      }
+    }
+    return replicas.get(weights.length - 1);
+  }
+
+  @Override
+  public void recordLatency(DataSource replica, long nanos) {
+    AtomicLong latency = latencies.computeIfAbsent(replica, k -> new AtomicLong(Double.doubleToLongBits(Double.NaN)));
+    long current;
+    long next;
+    do {
+      current = latency.get();
+      double previous = Double.longBitsToDouble(current);
+      double updated = Double.isNaN(previous) ? nanos : previous + SMOOTHING_FACTOR * (nanos - previous);
+      next = Double.doubleToLongBits(updated);
+    } while (!latency.compareAndSet(current, next));
+  }
+
+  /**
+   * @return the average latency of the replica in nanoseconds, or {@code null} if none was recorded
+   */
+  public Double getAverageLatency(DataSource replica) {
+    AtomicLong latency = latencies.get(replica);
+    if (latency == null) {
+      return null;
+    }
+    double value = Double.longBitsToDouble(latency.get());
+    return Double.isNaN(value) ? null : value;
+  }
+
+}
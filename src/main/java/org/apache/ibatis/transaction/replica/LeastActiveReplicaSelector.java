@@ -0,0 +1,73 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.replica;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+
+/**
+ * Selects the replica with the fewest active connections, in turn among the equally loaded ones.
+ * The active connections of a {@link PooledDataSource} are read from its pool state,
+ * for other data sources they are the sessions reading from the replica through this selector.
+ *
+ * @since 3.5.4
+ */
+public class LeastActiveReplicaSelector implements ReplicaSelector {
+
+  private final Map<DataSource, AtomicInteger> sessions = new ConcurrentHashMap<>();
+  private final AtomicInteger next = new AtomicInteger();
+
+  @Override
+  public DataSource select(List<DataSource> replicas) {
+    int size = replicas.size();
+    int offset = Math.floorMod(next.getAndIncrement(), size);
+    DataSource selected = null;
+    int selectedActive = Integer.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      DataSource replica = replicas.get((offset + i) % size);
+      int active = activeCount(replica);
+      if (active < selectedActive) {
+        selected = replica;
+        selectedActive = active;
+      }
+    }
+    sessionsOf(selected).incrementAndGet();
+    return selected;
+  }
+
+  @Override
+  public void release(DataSource replica) {
+    sessionsOf(replica).decrementAndGet();
+  }
+
+  protected int activeCount(DataSource replica) {
+    if (replica instanceof PooledDataSource) {
+      return ((PooledDataSource) replica).getPoolState().getActiveConnectionCount();
+    }
+    return sessionsOf(replica).get();
+  }
+
+  private AtomicInteger sessionsOf(DataSource replica) {
+    return sessions.computeIfAbsent(replica, k -> new AtomicInteger());
+  }
+
+}
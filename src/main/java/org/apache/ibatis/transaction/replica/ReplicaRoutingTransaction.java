@@ -0,0 +1,163 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.replica;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * A {@link Transaction} that reads from a replica of the environment until the session writes.
+ * <p>
+ * Only auto-commit sessions read from a replica: a session managing its own transactions reads from the
+ * primary so that its reads and writes see the same data. The executor tells the transaction whether the
+ * next statement reads or writes. Reads use a replica, chosen on the first read of the session and opened
+ * in auto-commit mode, and writes use the primary transaction. As every write is committed on its own, the
+ * reads that follow it go back to the replica, unless read-your-writes keeps them on the primary until the
+ * session is closed.
+ *
+ * @since 3.5.4
+ * @see Environment#getReplicaDataSources()
+ */
+public class ReplicaRoutingTransaction implements Transaction {
+
+  private final Transaction primary;
+  private final Environment environment;
+  private final TransactionIsolationLevel level;
+  private final boolean autoCommit;
+  private boolean readYourWrites;
+  private boolean read;
+  private boolean written;
+  private DataSource replicaDataSource;
+  private Transaction replica;
+
+  public ReplicaRoutingTransaction(Transaction primary, Environment environment, TransactionIsolationLevel level,
+      boolean autoCommit) {
+    if (!environment.hasReplicas()) {
+      throw new IllegalArgumentException("The environment '" + environment.getId() + "' has no replica.");
+    }
+    this.primary = primary;
+    this.environment = environment;
+    this.level = level;
+    this.autoCommit = autoCommit;
+    this.readYourWrites = environment.isReadYourWrites();
+  }
+
+  /**
+   * Routes the next statements to a replica unless the session has written.
+   */
+  public void routeRead() {
+    read = true;
+  }
+
+  /**
+   * Routes the next statements to the primary and marks the session as written.
+   */
+  public void routeWrite() {
+    read = false;
+    written = true;
+  }
+
+  /**
+   * @return whether the next statement uses a replica
+   */
+  public boolean isRoutedToReplica() {
+    return autoCommit && read && !(readYourWrites && written);
+  }
+
+  public boolean isReadYourWrites() {
+    return readYourWrites;
+  }
+
+  /**
+   * Overrides the read-your-writes behavior of the environment for this session.
+   */
+  public void setReadYourWrites(boolean readYourWrites) {
+    this.readYourWrites = readYourWrites;
+  }
+
+  /**
+   * @return the replica chosen by this session, or {@code null} if it has not read from a replica yet
+   */
+  public DataSource getReplicaDataSource() {
+    return replicaDataSource;
+  }
+
+  /**
+   * Reports the duration of a query executed on the replica to the replica selector.
+   */
+  public void recordReadLatency(long nanos) {
+    if (replicaDataSource != null && isRoutedToReplica()) {
+      environment.getReplicaSelector().recordLatency(replicaDataSource, nanos);
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (isRoutedToReplica()) {
+      if (replica == null) {
+        replicaDataSource = environment.getReplicaSelector().select(environment.getReplicaDataSources());
+        replica = environment.getTransactionFactory().newTransaction(replicaDataSource, level, true);
+      }
+      return replica.getConnection();
+    }
+    return primary.getConnection();
+  }
+
+  /**
+   * @return the connection of the primary transaction, whatever the routing
+   */
+  public Connection getPrimaryConnection() throws SQLException {
+    return primary.getConnection();
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    primary.commit();
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    primary.rollback();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    try {
+      if (replica != null) {
+        replica.close();
+      }
+    } finally {
+      if (replicaDataSource != null) {
+        environment.getReplicaSelector().release(replicaDataSource);
+        replicaDataSource = null;
+        replica = null;
+      }
+      primary.close();
+    }
+  }
+
+  @Override
+  public Integer getTimeout() throws SQLException {
+    return primary.getTimeout();
+  }
+
+}
@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.replica;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * Chooses the replica a session reads from. A session keeps the chosen replica until it is closed.
+ * Implementations are shared by all the sessions of an environment and must be thread safe.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.mapping.Environment#getReplicaDataSources()
+ */
+public interface ReplicaSelector {
+
+  /**
+   * @param replicas the replicas of the environment, never empty
+   * @return one of the replicas
+   */
+  DataSource select(List<DataSource> replicas);
+
+  /**
+   * Called when a session that selected the replica is closed.
+   */
+  default void release(DataSource replica) {
+    // NOP
+  }
+
+  /**
+   * Called after each query executed on the replica.
+   */
+  default void recordLatency(DataSource replica, long nanos) {
+    // NOP
+  }
+
+}
@@ -0,0 +1,162 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class GeneratedMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setup() throws Exception {
+    DataSource dataSource = BaseDataTest.createBlogDataSource();
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DDL);
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DATA);
+    Environment environment = new Environment("Production", new JdbcTransactionFactory(), dataSource);
+    Configuration configuration = new Configuration(environment);
+    configuration.setUseGeneratedMappers(true);
+    configuration.getTypeAliasRegistry().registerAlias(Blog.class);
+    configuration.getTypeAliasRegistry().registerAlias(Post.class);
+    configuration.getTypeAliasRegistry().registerAlias(Author.class);
+    configuration.addMapper(BoundBlogMapper.class);
+    configuration.addMapper(BoundAuthorMapper.class);
+    configuration.addMapper(DefaultMethodMapper.class);
+    configuration.addMapper(UnboundMethodMapper.class);
+    configuration.addMapper(ArrayMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @Test
+  void shouldUseAGeneratedClass() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundBlogMapper mapper = session.getMapper(BoundBlogMapper.class);
+      assertFalse(Proxy.isProxyClass(mapper.getClass()));
+      assertSame(mapper.getClass(), session.getMapper(BoundBlogMapper.class).getClass());
+      Blog blog = mapper.selectBlog(1);
+      assertEquals("Jim Business", blog.getTitle());
+      assertEquals(2, mapper.selectBlogs().size());
+      assertEquals(1, mapper.selectPostsLike(new RowBounds(1, 1), "%a%").size());
+      assertNotNull(mapper.toString());
+    }
+  }
+
+  @Test
+  void shouldConvertPrimitiveResults() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      BoundAuthorMapper mapper = session.getMapper(BoundAuthorMapper.class);
+      Author author = new Author(-1, "cbegin", "******", "cbegin@nowhere.com", "N/A", null);
+      assertEquals(1, mapper.insertAuthor(author));
+      assertEquals("cbegin", mapper.selectAuthor(author.getId()).getUsername());
+      session.rollback();
+    }
+  }
+
+  @Test
+  void shouldCallDefaultMethods() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      DefaultMethodMapper mapper = session.getMapper(DefaultMethodMapper.class);
+      assertFalse(Proxy.isProxyClass(mapper.getClass()));
+      assertEquals(101, mapper.countPlus(100));
+      assertEquals(2, mapper.selectBlogIds().size());
+    }
+  }
+
+  @Test
+  void shouldFallBackToAProxyWhenAMethodIsNotBound() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      UnboundMethodMapper mapper = session.getMapper(UnboundMethodMapper.class);
+      assertTrue(Proxy.isProxyClass(mapper.getClass()));
+      assertEquals(2, mapper.countBlogs());
+      assertThrows(BindingException.class, mapper::unbound);
+    }
+  }
+
+  @Test
+  void shouldGenerateMethodsWithArrayTypes() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      ArrayMapper mapper = session.getMapper(ArrayMapper.class);
+      assertFalse(Proxy.isProxyClass(mapper.getClass()));
+      assertArrayEquals(new int[] { 101, 102 }, mapper.selectAuthorIds());
+      assertEquals(1, mapper.countBlogs(new Integer[] { 1, 3 }));
+    }
+  }
+
+  @Test
+  void shouldGenerateAClassForEachConfiguration() throws Exception {
+    Configuration configuration = new Configuration(
+        new Environment("Other", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    configuration.setUseGeneratedMappers(true);
+    configuration.addMapper(DefaultMethodMapper.class);
+    SqlSessionFactory otherFactory = new SqlSessionFactoryBuilder().build(configuration);
+    try (SqlSession session = sqlSessionFactory.openSession(); SqlSession other = otherFactory.openSession()) {
+      DefaultMethodMapper mapper = session.getMapper(DefaultMethodMapper.class);
+      DefaultMethodMapper otherMapper = other.getMapper(DefaultMethodMapper.class);
+      assertFalse(Proxy.isProxyClass(otherMapper.getClass()));
+      assertNotSame(mapper.getClass(), otherMapper.getClass());
+      assertEquals(2, otherMapper.selectBlogIds().size());
+    }
+  }
+
+  public interface DefaultMethodMapper {
+    @Select("select count(*) from author")
+    int countAuthors();
+
+    @Select("select id from blog order by id")
+    List<Integer> selectBlogIds();
+
+    default int countPlus(int value) {
+      return countAuthors() - 1 + value;
+    }
+  }
+
+  public interface UnboundMethodMapper {
+    @Select("select count(*) from blog")
+    long countBlogs();
+
+    void unbound();
+  }
+
+  public interface ArrayMapper {
+    @Select("select id from author order by id")
+    int[] selectAuthorIds();
+
+    @Select({ "<script>select count(*) from blog where id in",
+        "<foreach collection='array' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>" })
+    int countBlogs(Integer[] ids);
+  }
+
+}
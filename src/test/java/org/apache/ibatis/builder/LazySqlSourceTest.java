@@ -0,0 +1,162 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class LazySqlSourceTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"lazy\">\n"
+      + "  <sql id=\"columns\">id, username</sql>\n"
+      + "  <select id=\"selectAuthor\" resultType=\"map\">\n"
+      + "    select <include refid=\"columns\"/> from author where id = #{id}\n"
+      + "  </select>\n"
+      + "  <select id=\"selectAuthorIds\" resultType=\"int\">\n"
+      + "    select id from author <where><if test=\"id != null\">id = #{id}</if></where> order by id\n"
+      + "  </select>\n"
+      + "  <insert id=\"insertAuthor\">\n"
+      + "    <selectKey keyProperty=\"id\" resultType=\"int\" order=\"BEFORE\">select 1000 from sysibm.sysdummy1</selectKey>\n"
+      + "    insert into author (id, username, password, email) values (#{id}, #{username}, 'secret', 'lazy@example.com')\n"
+      + "  </insert>\n"
+      + "  <select id=\"selectBroken\" resultType=\"int\">\n"
+      + "    select id from author where id = #{id,typeHandler=NoSuchTypeHandler}\n"
+      + "  </select>\n"
+      + "</mapper>\n";
+
+  private Configuration newConfiguration(boolean lazySqlSourceEnabled) throws Exception {
+    Configuration configuration = new Configuration(
+        new Environment("test", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    configuration.setLazySqlSourceEnabled(lazySqlSourceEnabled);
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "lazy-mapper", configuration.getSqlFragments()).parse();
+    return configuration;
+  }
+
+  @Test
+  void shouldBuildTheSqlOnFirstUse() throws Exception {
+    Configuration configuration = newConfiguration(true);
+    LazySqlSource selectAuthor = (LazySqlSource) configuration.getMappedStatement("lazy.selectAuthor").getSqlSource();
+    LazySqlSource selectAuthorIds = (LazySqlSource) configuration.getMappedStatement("lazy.selectAuthorIds").getSqlSource();
+    assertThat(selectAuthor.isBuilt()).isFalse();
+    assertThat(selectAuthorIds.isBuilt()).isFalse();
+    assertThat(configuration.getMappedStatement("lazy.insertAuthor!selectKey").getSqlSource()).isInstanceOf(LazySqlSource.class);
+
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      Map<String, Object> author = session.selectOne("lazy.selectAuthor", 101);
+      assertThat(author).containsEntry("USERNAME", "jim");
+      assertThat(selectAuthor.isBuilt()).isTrue();
+      assertThat(selectAuthorIds.isBuilt()).isFalse();
+
+      List<Integer> ids = session.selectList("lazy.selectAuthorIds", Collections.singletonMap("id", null));
+      assertThat(ids).containsExactly(101, 102);
+      ids = session.selectList("lazy.selectAuthorIds", Collections.singletonMap("id", 102));
+      assertThat(ids).containsExactly(102);
+
+      Map<String, Object> newAuthor = new HashMap<>();
+      newAuthor.put("username", "lazy");
+      assertThat(session.insert("lazy.insertAuthor", newAuthor)).isEqualTo(1);
+      assertThat(newAuthor).containsEntry("id", 1000);
+      session.rollback(true);
+    }
+  }
+
+  @Test
+  void shouldReportSqlErrorsOnFirstUseOrWhenBuildingAll() throws Exception {
+    assertThrows(BuilderException.class, () -> newConfiguration(false));
+
+    Configuration configuration = newConfiguration(true);
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      assertThat(session.<Map<String, Object>>selectOne("lazy.selectAuthor", 101)).isNotNull();
+      Exception e = assertThrows(Exception.class, () -> session.selectOne("lazy.selectBroken", 101));
+      assertThat(e).hasMessageContaining("Error building the SQL of statement 'lazy.selectBroken'");
+    }
+    BuilderException e = assertThrows(BuilderException.class, configuration::buildLazySqlSources);
+    assertThat(e).hasMessageContaining("lazy.selectBroken");
+  }
+
+  @Test
+  void shouldBuildFromADetachedCopyOfTheStatement() throws Exception {
+    Configuration configuration = newConfiguration(true);
+    configuration.getLanguageRegistry().register(ScriptRecordingDriver.class);
+    configuration.setDefaultScriptingLanguage(ScriptRecordingDriver.class);
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"detached\">\n"
+        + "  <select id=\"selectAuthorIds\" resultType=\"int\">select id from author <where><if test=\"id != null\">id = #{id}</if></where></select>\n"
+        + "  <select id=\"selectBlogIds\" resultType=\"int\">select id from blog</select>\n"
+        + "</mapper>\n";
+    new XMLMapperBuilder(new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8)), configuration,
+        "detached-mapper", configuration.getSqlFragments()).parse();
+    ScriptRecordingDriver.scripts.clear();
+
+    configuration.getMappedStatement("detached.selectAuthorIds").getBoundSql(Collections.singletonMap("id", 101));
+    configuration.getMappedStatement("detached.selectBlogIds").getBoundSql(null);
+    assertThat(ScriptRecordingDriver.scripts).hasSize(2);
+    for (XNode script : ScriptRecordingDriver.scripts) {
+      assertThat(script.getNode().getParentNode()).isSameAs(script.getNode().getOwnerDocument());
+    }
+    assertThat(ScriptRecordingDriver.scripts.get(0).getNode().getOwnerDocument())
+        .isNotSameAs(ScriptRecordingDriver.scripts.get(1).getNode().getOwnerDocument());
+  }
+
+  @Test
+  void shouldBuildOnce() {
+    AtomicInteger builds = new AtomicInteger();
+    SqlSource built = parameterObject -> null;
+    LazySqlSource sqlSource = new LazySqlSource("test", () -> {
+      builds.incrementAndGet();
+      return built;
+    });
+    assertThat(sqlSource.getSqlSource()).isSameAs(built);
+    assertThat(sqlSource.getSqlSource()).isSameAs(built);
+    assertThat(builds).hasValue(1);
+  }
+
+  public static class ScriptRecordingDriver extends XMLLanguageDriver {
+    static final List<XNode> scripts = new ArrayList<>();
+
+    @Override
+    public SqlSource createSqlSource(Configuration configuration, XNode script, Class<?> parameterType) {
+      scripts.add(script);
+      return super.createSqlSource(configuration, script, parameterType);
+    }
+  }
+
+}
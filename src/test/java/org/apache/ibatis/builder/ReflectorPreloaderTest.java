@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.ibatis.binding.BoundAuthorMapper;
+import org.apache.ibatis.binding.BoundBlogMapper;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReflectorPreloaderTest {
+
+  private Configuration newConfiguration() {
+    Configuration configuration = new Configuration();
+    configuration.getTypeAliasRegistry().registerAlias(Blog.class);
+    configuration.getTypeAliasRegistry().registerAlias(Post.class);
+    configuration.getTypeAliasRegistry().registerAlias(Author.class);
+    configuration.addMapper(BoundBlogMapper.class);
+    configuration.addMapper(BoundAuthorMapper.class);
+    return configuration;
+  }
+
+  @Test
+  void shouldCollectMappedBeanTypes() {
+    Set<Class<?>> types = ReflectorPreloader.collectTypes(newConfiguration());
+    assertThat(types).contains(Blog.class, Post.class, Author.class);
+    assertThat(types).doesNotContain(String.class, Integer.class, List.class);
+  }
+
+  @Test
+  void shouldPreloadWithShortIdsUsedInSeveralNamespaces() {
+    Configuration configuration = new Configuration();
+    for (String type : new String[] { Author.class.getName(), Blog.class.getName() }) {
+      String namespace = type.substring(type.lastIndexOf('.') + 1);
+      String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+          + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+          + "<mapper namespace=\"" + namespace + "\">\n"
+          + "  <resultMap id=\"BaseResultMap\" type=\"" + type + "\"/>\n"
+          + "  <select id=\"selectAll\" resultMap=\"BaseResultMap\">select * from " + namespace + "</select>\n"
+          + "</mapper>\n";
+      new XMLMapperBuilder(new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8)), configuration,
+          namespace, configuration.getSqlFragments()).parse();
+    }
+    configuration.setPreloadReflectors(true);
+    new SqlSessionFactoryBuilder().build(configuration);
+    DefaultReflectorFactory reflectorFactory = (DefaultReflectorFactory) configuration.getReflectorFactory();
+    assertThat(reflectorFactory.getCachedTypes()).contains(Blog.class, Author.class);
+  }
+
+  @Test
+  void shouldPreloadWhenBuildingTheFactory() {
+    Configuration configuration = newConfiguration();
+    configuration.setPreloadReflectors(true);
+    new SqlSessionFactoryBuilder().build(configuration);
+    DefaultReflectorFactory reflectorFactory = (DefaultReflectorFactory) configuration.getReflectorFactory();
+    assertThat(reflectorFactory.getCachedTypes()).contains(Blog.class, Post.class, Author.class);
+  }
+
+  @Test
+  void shouldNotPreloadByDefault(@TempDir Path dir) throws Exception {
+    Path snapshot = dir.resolve("reflectors.txt");
+    Files.write(snapshot, Arrays.asList(RichType.class.getName()));
+    Configuration configuration = newConfiguration();
+    configuration.setReflectorSnapshotFile(snapshot.toString());
+    new SqlSessionFactoryBuilder().build(configuration);
+    DefaultReflectorFactory reflectorFactory = (DefaultReflectorFactory) configuration.getReflectorFactory();
+    assertThat(reflectorFactory.getCachedTypes()).doesNotContain(RichType.class);
+  }
+
+  @Test
+  void shouldRoundTripSnapshot() throws Exception {
+    DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    ReflectorPreloader.preload(reflectorFactory, Arrays.asList(Author.class, RichType.class));
+    StringWriter writer = new StringWriter();
+    ReflectorPreloader.writeSnapshot(reflectorFactory, writer);
+    List<Class<?>> types = ReflectorPreloader.readSnapshot(
+        new StringReader("# comment\n\n" + writer.toString() + "org.example.Missing\n"));
+    assertThat(types).containsExactly(Author.class, RichType.class);
+  }
+
+  @Test
+  void shouldPreloadTypesOfTheSnapshotFile(@TempDir Path dir) throws Exception {
+    Path snapshot = dir.resolve("reflectors.txt");
+    Configuration first = newConfiguration();
+    first.setReflectorSnapshotFile(snapshot.toString());
+    first.getReflectorFactory().findForClass(RichType.class);
+    ReflectorPreloader.writeSnapshot(first);
+    assertThat(Files.readAllLines(snapshot)).contains(RichType.class.getName());
+
+    Configuration second = newConfiguration();
+    second.setPreloadReflectors(true);
+    second.setReflectorSnapshotFile(snapshot.toString());
+    new SqlSessionFactoryBuilder().build(second);
+    assertThat(((DefaultReflectorFactory) second.getReflectorFactory()).getCachedTypes()).contains(RichType.class, Blog.class);
+  }
+
+}
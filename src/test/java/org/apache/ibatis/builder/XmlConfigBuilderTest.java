@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,15 +15,26 @@
  */
 package org.apache.ibatis.builder;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.math.RoundingMode;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.ibatis.builder.mapper.CustomMapper;
@@ -37,6 +48,7 @@ import org.apache.ibatis.domain.blog.mappers.NestedBlogMapper;
 import org.apache.ibatis.domain.jpetstore.Cart;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.DefaultMetricsRegistry;
 import org.apache.ibatis.io.JBoss6VFS;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
@@ -87,6 +99,9 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
+      assertThat(config.isAdaptiveFetchSizeEnabled()).isFalse();
+      assertThat(config.getAdaptiveFetchSizeMin()).isEqualTo(10);
+      assertThat(config.getAdaptiveFetchSizeMax()).isEqualTo(1000);
       assertNull(config.getDefaultResultSetType());
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
@@ -96,6 +111,21 @@ class XmlConfigBuilderTest {
       assertThat(config.isSafeResultHandlerEnabled()).isTrue();
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(XMLLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isFalse();
+      assertThat(config.isUseGeneratedMappers()).isFalse();
+      assertThat(config.isPreloadReflectors()).isFalse();
+      assertNull(config.getReflectorSnapshotFile());
+      assertThat(config.isParallelMapperParsing()).isFalse();
+      assertThat(config.isLazySqlSourceEnabled()).isFalse();
+      assertThat(config.isLightweightStatementLogging()).isFalse();
+      assertThat(config.getStatementLogSampleRate()).isEqualTo(1);
+      assertNull(config.getSlowStatementLogThreshold());
+      assertNull(config.getMetricsRegistry());
+      assertNull(config.getSlowStatementCaptureThreshold());
+      assertNull(config.getLargeResultCaptureThreshold());
+      assertThat(config.getStatementCaptureCapacity()).isEqualTo(100);
+      assertNull(config.getMaxResultRows());
+      assertThat(config.isMultipleStatementsEnabled()).isFalse();
+    assertThat(config.isSessionIdentityMapEnabled()).isFalse();
       assertNull(config.getLogPrefix());
       assertNull(config.getLogImpl());
       assertNull(config.getConfigurationFactory());
@@ -181,6 +211,9 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
       assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
       assertThat(config.getDefaultFetchSize()).isEqualTo(100);
+      assertThat(config.isAdaptiveFetchSizeEnabled()).isTrue();
+      assertThat(config.getAdaptiveFetchSizeMin()).isEqualTo(50);
+      assertThat(config.getAdaptiveFetchSizeMax()).isEqualTo(5000);
       assertThat(config.getDefaultResultSetType()).isEqualTo(ResultSetType.SCROLL_INSENSITIVE);
       assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
       assertThat(config.isSafeRowBoundsEnabled()).isTrue();
@@ -190,6 +223,21 @@ class XmlConfigBuilderTest {
       assertThat(config.isSafeResultHandlerEnabled()).isFalse();
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(RawLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isTrue();
+      assertThat(config.isUseGeneratedMappers()).isTrue();
+      assertThat(config.isPreloadReflectors()).isTrue();
+      assertThat(config.getReflectorSnapshotFile()).isEqualTo("target/reflectors.txt");
+      assertThat(config.isParallelMapperParsing()).isTrue();
+      assertThat(config.isLazySqlSourceEnabled()).isTrue();
+      assertThat(config.isLightweightStatementLogging()).isTrue();
+      assertThat(config.getStatementLogSampleRate()).isEqualTo(10);
+      assertThat(config.getSlowStatementLogThreshold()).isEqualTo(500);
+      assertThat(config.getMetricsRegistry()).isInstanceOf(DefaultMetricsRegistry.class);
+      assertThat(config.getSlowStatementCaptureThreshold()).isEqualTo(1000);
+      assertThat(config.getLargeResultCaptureThreshold()).isEqualTo(10000);
+      assertThat(config.getStatementCaptureCapacity()).isEqualTo(50);
+      assertThat(config.getMaxResultRows()).isEqualTo(100000);
+      assertThat(config.isMultipleStatementsEnabled()).isTrue();
+    assertThat(config.isSessionIdentityMapEnabled()).isTrue();
       assertThat(config.getLogPrefix()).isEqualTo("mybatis_");
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
@@ -302,4 +350,119 @@ class XmlConfigBuilderTest {
       .hasMessageContaining("The properties element cannot specify both a URL and a resource based property file reference.  Please specify one or the other.");
   }
 
+  @Test
+  void shouldBuildTheSameStatementsWhenMapperDocumentsAreParsedInParallel() {
+    Configuration sequential = new XMLConfigBuilder(new StringReader(mapperConfig(false,
+        "<mapper resource=\"org/apache/ibatis/builder/PostMapper.xml\"/>"))).parse();
+    Configuration parallel = new XMLConfigBuilder(new StringReader(mapperConfig(true,
+        "<mapper resource=\"org/apache/ibatis/builder/PostMapper.xml\"/>"))).parse();
+
+    assertThat(parallel.isParallelMapperParsing()).isTrue();
+    assertThat(parallel.getMappedStatementNames()).isNotEmpty()
+        .hasSameElementsAs(sequential.getMappedStatementNames());
+    assertThat(parallel.getResultMapNames()).hasSameElementsAs(sequential.getResultMapNames());
+    assertThat(parallel.getCacheNames()).hasSameElementsAs(sequential.getCacheNames());
+    assertTrue(parallel.isResourceLoaded("file:./src/test/java/org/apache/ibatis/builder/NestedBlogMapper.xml"));
+  }
+
+  @Test
+  void shouldReportMissingMapperResourceWhenParsingInParallel() {
+    XMLConfigBuilder builder = new XMLConfigBuilder(new StringReader(mapperConfig(true,
+        "<mapper resource=\"org/apache/ibatis/builder/MissingMapper.xml\"/>")));
+    when(builder::parse);
+    then(caughtException()).isInstanceOf(BuilderException.class)
+      .hasMessageContaining("Could not find resource org/apache/ibatis/builder/MissingMapper.xml");
+  }
+
+  @Test
+  void shouldCloseTheMapperStreamsWhenParsingInParallelFails() {
+    List<TrackedInputStream> streams = Collections.synchronizedList(new ArrayList<>());
+    Resources.setDefaultClassLoader(new TrackingClassLoader(streams));
+    try {
+      XMLConfigBuilder builder = new XMLConfigBuilder(new StringReader(mapperConfig(true,
+          "<mapper resource=\"org/apache/ibatis/builder/BrokenMapper.xml\"/>")));
+      when(builder::parse);
+      then(caughtException()).isInstanceOf(BuilderException.class);
+    } finally {
+      Resources.setDefaultClassLoader(null);
+    }
+
+    assertThat(streams).hasSize(3).allMatch(stream -> stream.closed);
+  }
+
+  private static String mapperConfig(boolean parallelMapperParsing, String lastMapper) {
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+        + "<configuration>\n"
+        + "  <settings>\n"
+        + "    <setting name=\"parallelMapperParsing\" value=\"" + parallelMapperParsing + "\"/>\n"
+        + "  </settings>\n"
+        + "  <typeAliases>\n"
+        + "    <package name=\"org.apache.ibatis.domain.blog\"/>\n"
+        + "  </typeAliases>\n"
+        + "  <mappers>\n"
+        + "    <mapper resource=\"org/apache/ibatis/builder/AuthorMapper.xml\"/>\n"
+        + "    <mapper resource=\"org/apache/ibatis/builder/BlogMapper.xml\"/>\n"
+        + "    <mapper class=\"org.apache.ibatis.builder.CachedAuthorMapper\"/>\n"
+        + "    <mapper url=\"file:./src/test/java/org/apache/ibatis/builder/NestedBlogMapper.xml\"/>\n"
+        + "    " + lastMapper + "\n"
+        + "  </mappers>\n"
+        + "</configuration>\n";
+  }
+
+  private static class TrackingClassLoader extends ClassLoader {
+
+    private final List<TrackedInputStream> streams;
+
+    TrackingClassLoader(List<TrackedInputStream> streams) {
+      super(XmlConfigBuilderTest.class.getClassLoader());
+      this.streams = streams;
+    }
+
+    @Override
+    public URL getResource(String name) {
+      if (!name.endsWith("Mapper.xml")) {
+        return super.getResource(name);
+      }
+      URL resource = super.getResource(name);
+      try {
+        return new URL(null, "tracked:" + name, new URLStreamHandler() {
+          @Override
+          protected URLConnection openConnection(URL url) {
+            return new URLConnection(url) {
+              @Override
+              public void connect() {
+              }
+
+              @Override
+              public InputStream getInputStream() throws IOException {
+                TrackedInputStream stream = new TrackedInputStream(resource == null
+                    ? new ByteArrayInputStream("<mapper namespace=".getBytes(StandardCharsets.UTF_8)) : resource.openStream());
+                streams.add(stream);
+                return stream;
+              }
+            };
+          }
+        });
+      } catch (MalformedURLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private static class TrackedInputStream extends FilterInputStream {
+
+    private volatile boolean closed;
+
+    TrackedInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+      super.close();
+    }
+  }
+
 }
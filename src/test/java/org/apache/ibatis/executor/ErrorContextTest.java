@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,6 +17,13 @@ package org.apache.ibatis.executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Collections;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.Test;
 
 class ErrorContextTest {
@@ -55,4 +62,30 @@ class ErrorContextTest {
     assertEquals(outer, recalled);
     assertEquals(outer, ErrorContext.instance());
   }
+
+  @Test
+  void shouldDescribeTheStatementAndBoundSqlOnlyWhenBuildingTheMessage() {
+    Configuration configuration = new Configuration();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "selectAuthor",
+        new StaticSqlSource(configuration, "select"), SqlCommandType.SELECT).resource("AuthorMapper.xml").build();
+    BoundSql boundSql = new BoundSql(configuration, "select *\n from author", Collections.emptyList(), null);
+
+    ErrorContext context = ErrorContext.instance().mappedStatement(ms).activity("executing a query").boundSql(boundSql);
+    try {
+      String description = context.toString();
+      assertTrue(description.contains("### The error may exist in AuthorMapper.xml"));
+      assertTrue(description.contains("### The error may involve selectAuthor"));
+      assertTrue(description.contains("### SQL: select *  from author"));
+
+      context.object("other object").sql("select 1");
+      description = context.toString();
+      assertTrue(description.contains("### The error may exist in AuthorMapper.xml"));
+      assertTrue(description.contains("### The error may involve other object"));
+      assertTrue(description.contains("### SQL: select 1"));
+    } finally {
+      context.reset();
+    }
+    assertFalse(ErrorContext.instance().toString().contains("AuthorMapper.xml"));
+  }
+
 }
@@ -0,0 +1,161 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DefaultMetricsRegistryTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"metrics\">\n"
+      + "  <cache/>\n"
+      + "  <select id=\"selectAuthor\" resultType=\"map\">\n"
+      + "    select id, username from author where id = #{id}\n"
+      + "  </select>\n"
+      + "  <select id=\"selectAuthors\" resultType=\"map\" useCache=\"false\">\n"
+      + "    select id, username from author order by id\n"
+      + "  </select>\n"
+      + "  <resultMap id=\"blog\" type=\"map\">\n"
+      + "    <id property=\"id\" column=\"id\"/>\n"
+      + "    <collection property=\"posts\" javaType=\"list\" ofType=\"map\">\n"
+      + "      <id property=\"id\" column=\"post_id\"/>\n"
+      + "    </collection>\n"
+      + "  </resultMap>\n"
+      + "  <select id=\"selectBlogs\" resultMap=\"blog\" resultOrdered=\"true\" useCache=\"false\">\n"
+      + "    select b.id, p.id as post_id from blog b join post p on p.blog_id = b.id order by b.id, p.id\n"
+      + "  </select>\n"
+      + "  <update id=\"updateAuthor\" flushCache=\"false\">\n"
+      + "    update author set username = username where id = #{id}\n"
+      + "  </update>\n"
+      + "</mapper>\n";
+
+  private DefaultMetricsRegistry registry;
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Configuration configuration = new Configuration(
+        new Environment("test", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "metrics-mapper", configuration.getSqlFragments()).parse();
+    registry = new DefaultMetricsRegistry();
+    configuration.setMetricsRegistry(registry);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @Test
+  void shouldRecordEachPhaseOfTheExecutions() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      List<Map<String, Object>> authors = session.selectList("metrics.selectAuthors");
+      assertThat(authors).hasSize(2);
+      session.clearCache();
+      session.selectList("metrics.selectAuthors");
+      session.update("metrics.updateAuthor", 101);
+      session.rollback(true);
+    }
+
+    StatementMetrics select = registry.getStatementMetrics("metrics.selectAuthors");
+    for (ExecutionPhase phase : ExecutionPhase.values()) {
+      assertThat(select.getHistogram(phase).getCount()).as(phase.name()).isEqualTo(2);
+    }
+    assertThat(select.getRowCount()).isEqualTo(4);
+    assertThat(select.getCacheHitCount() + select.getCacheMissCount()).isZero();
+
+    StatementMetrics update = registry.getStatementMetrics("metrics.updateAuthor");
+    assertThat(update.getHistogram(ExecutionPhase.SQL_BUILD).getCount()).isEqualTo(1);
+    assertThat(update.getHistogram(ExecutionPhase.PREPARE).getCount()).isEqualTo(1);
+    assertThat(update.getHistogram(ExecutionPhase.PARAMETERIZE).getCount()).isEqualTo(1);
+    assertThat(update.getHistogram(ExecutionPhase.EXECUTE).getCount()).isEqualTo(1);
+    assertThat(update.getHistogram(ExecutionPhase.RESULT_MAPPING).getCount()).isZero();
+    assertThat(update.getRowCount()).isZero();
+  }
+
+  @Test
+  void shouldRecordTheRowsReadRatherThanTheResults() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      assertThat(session.<Map<String, Object>>selectList("metrics.selectBlogs")).hasSize(2);
+      session.clearCache();
+      session.select("metrics.selectBlogs", context -> { });
+    }
+    assertThat(registry.getRowCount("metrics.selectBlogs")).isEqualTo(8);
+  }
+
+  @Test
+  void shouldRecordSecondLevelCacheLookups() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      session.selectOne("metrics.selectAuthor", 101);
+      session.commit();
+    }
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      session.selectOne("metrics.selectAuthor", 101);
+    }
+    assertThat(registry.getCacheMissCount("metrics.selectAuthor")).isEqualTo(1);
+    assertThat(registry.getCacheHitCount("metrics.selectAuthor")).isEqualTo(1);
+    assertThat(registry.getStatementMetrics("metrics.selectAuthor").getHistogram(ExecutionPhase.EXECUTE).getCount())
+        .isEqualTo(1);
+    assertThat(registry.getRowCount("metrics.selectAuthor")).isEqualTo(1);
+    assertThat(registry.getRowCount("metrics.unknown")).isZero();
+  }
+
+  @Test
+  void shouldExposeTheMetricsThroughJmx() throws Exception {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      session.selectList("metrics.selectAuthors");
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("org.apache.ibatis:type=StatementMetrics,name=test");
+    server.registerMBean(registry, name);
+    try {
+      assertThat((String[]) server.getAttribute(name, "StatementIds")).containsExactly("metrics.selectAuthors");
+      CompositeData[] statistics = (CompositeData[]) server.getAttribute(name, "PhaseStatistics");
+      assertThat(statistics).hasSize(ExecutionPhase.values().length);
+      assertThat(statistics[0].get("statementId")).isEqualTo("metrics.selectAuthors");
+      assertThat(statistics[0].get("phase")).isEqualTo("SQL_BUILD");
+      assertThat(statistics[0].get("count")).isEqualTo(1L);
+      assertThat(server.invoke(name, "getRowCount", new Object[] {"metrics.selectAuthors"},
+          new String[] {String.class.getName()})).isEqualTo(2L);
+
+      server.invoke(name, "reset", null, null);
+      assertThat(registry.getPhaseStatistics()).isEmpty();
+      assertThat(registry.getRowCount("metrics.selectAuthors")).isZero();
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+
+}
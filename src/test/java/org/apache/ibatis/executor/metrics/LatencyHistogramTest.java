@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldMapEachValueToTheBucketContainingIt() {
+    long[] values = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123_456_789L, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+    for (long value : values) {
+      int index = LatencyHistogram.indexOf(value);
+      assertThat(LatencyHistogram.lowestValueAt(index)).isLessThanOrEqualTo(value);
+      assertThat(LatencyHistogram.highestValueAt(index)).isGreaterThanOrEqualTo(value);
+    }
+    for (int index = 1; index < 900; index++) {
+      assertThat(LatencyHistogram.indexOf(LatencyHistogram.lowestValueAt(index))).isEqualTo(index);
+      assertThat(LatencyHistogram.lowestValueAt(index)).isEqualTo(LatencyHistogram.highestValueAt(index - 1) + 1);
+    }
+  }
+
+  @Test
+  void shouldComputePercentilesWithinTheBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10_000; value++) {
+      histogram.record(value * 1000);
+    }
+    assertThat(histogram.getCount()).isEqualTo(10_000);
+    assertThat(histogram.getMax()).isEqualTo(10_000_000);
+    assertThat(histogram.getMean()).isEqualTo(5_000_500d);
+    assertThat(histogram.getValueAtPercentile(50)).isBetween(5_000_000L, 5_000_000L + 5_000_000L / LatencyHistogram.SUB_BUCKET_COUNT);
+    assertThat(histogram.getValueAtPercentile(99)).isBetween(9_900_000L, 10_000_000L);
+    assertThat(histogram.getValueAtPercentile(100)).isEqualTo(10_000_000);
+    assertThat(histogram.getValueAtPercentile(0)).isEqualTo(1023);
+
+    histogram.reset();
+    assertThat(histogram.getCount()).isZero();
+    assertThat(histogram.getValueAtPercentile(50)).isZero();
+    assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+  }
+
+  @Test
+  void shouldRecordConcurrently() throws Exception {
+    LatencyHistogram histogram = new LatencyHistogram();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            histogram.record(i);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(histogram.getCount()).isEqualTo(40_000);
+    assertThat(histogram.getTotal()).isEqualTo(4L * 9_999 * 10_000 / 2);
+    assertThat(histogram.getMax()).isEqualTo(9_999);
+    assertThat(histogram.getValueAtPercentile(100)).isEqualTo(9_999);
+  }
+
+}
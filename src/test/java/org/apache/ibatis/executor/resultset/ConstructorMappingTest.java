@@ -0,0 +1,153 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class ConstructorMappingTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"ctor\">\n"
+      + "  <resultMap id=\"author\" type=\"" + ImmutableAuthor.class.getName() + "\">\n"
+      + "    <constructor>\n"
+      + "      <idArg column=\"id\" javaType=\"_int\"/>\n"
+      + "      <arg column=\"username\" javaType=\"string\"/>\n"
+      + "    </constructor>\n"
+      + "  </resultMap>\n"
+      + "  <resultMap id=\"blog\" type=\"" + ImmutableBlog.class.getName() + "\">\n"
+      + "    <constructor>\n"
+      + "      <arg column=\"title\" javaType=\"string\"/>\n"
+      + "      <arg javaType=\"" + ImmutableAuthor.class.getName() + "\" resultMap=\"ctor.author\" columnPrefix=\"author_\"/>\n"
+      + "    </constructor>\n"
+      + "  </resultMap>\n"
+      + "  <select id=\"selectAuthors\" resultMap=\"author\">select id, username from author order by id</select>\n"
+      + "  <select id=\"selectAuthorsBySignature\" resultType=\"" + ImmutableAuthor.class.getName() + "\">\n"
+      + "    select id, username from author order by id\n"
+      + "  </select>\n"
+      + "  <select id=\"selectBlogs\" resultMap=\"blog\">\n"
+      + "    select b.title, a.id as author_id, a.username as author_username\n"
+      + "    from blog b join author a on a.id = b.author_id order by b.id\n"
+      + "  </select>\n"
+      + "</mapper>\n";
+
+  private static Configuration newConfiguration() throws Exception {
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "ctor-mapper", configuration.getSqlFragments()).parse();
+    return configuration;
+  }
+
+  @Test
+  void shouldCreateEachRowWithItsOwnArguments() throws Exception {
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(newConfiguration()).openSession()) {
+      for (String statement : new String[] { "ctor.selectAuthors", "ctor.selectAuthorsBySignature" }) {
+        List<ImmutableAuthor> authors = session.selectList(statement);
+        assertThat(authors).extracting(ImmutableAuthor::getId).containsExactly(101, 102);
+        assertThat(authors).extracting(ImmutableAuthor::getUsername).containsExactly("jim", "sally");
+      }
+    }
+  }
+
+  @Test
+  void shouldCreateNestedConstructorArguments() throws Exception {
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(newConfiguration()).openSession()) {
+      List<ImmutableBlog> blogs = session.selectList("ctor.selectBlogs");
+      assertThat(blogs).hasSize(2);
+      assertThat(blogs.get(0).getTitle()).isEqualTo("Jim Business");
+      assertThat(blogs.get(0).getAuthor().getUsername()).isEqualTo("jim");
+      assertThat(blogs.get(1).getTitle()).isEqualTo("Bally Slog");
+      assertThat(blogs.get(1).getAuthor().getUsername()).isEqualTo("sally");
+    }
+  }
+
+  @Test
+  void shouldLetACustomObjectFactoryCreateEveryRow() throws Exception {
+    Configuration configuration = newConfiguration();
+    CountingObjectFactory objectFactory = new CountingObjectFactory();
+    configuration.setObjectFactory(objectFactory);
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      assertThat(session.<ImmutableAuthor>selectList("ctor.selectAuthors")).hasSize(2);
+      assertThat(session.<ImmutableAuthor>selectList("ctor.selectAuthorsBySignature")).hasSize(2);
+    }
+    assertThat(objectFactory.count.get()).isEqualTo(4);
+  }
+
+  public static class ImmutableAuthor {
+    private final int id;
+    private final String username;
+
+    private ImmutableAuthor(int id, String username) {
+      this.id = id;
+      this.username = username;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+  }
+
+  public static class ImmutableBlog {
+    private final String title;
+    private final ImmutableAuthor author;
+
+    public ImmutableBlog(String title, ImmutableAuthor author) {
+      this.title = title;
+      this.author = author;
+    }
+
+    public String getTitle() {
+      return title;
+    }
+
+    public ImmutableAuthor getAuthor() {
+      return author;
+    }
+  }
+
+  static class CountingObjectFactory extends DefaultObjectFactory {
+    private static final long serialVersionUID = 1L;
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public <T> T create(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+      if (type == ImmutableAuthor.class) {
+        count.incrementAndGet();
+      }
+      return super.create(type, constructorArgTypes, constructorArgs);
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class IdentityMapTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"identity\">\n"
+      + "  <resultMap id=\"author\" type=\"" + Author.class.getName() + "\">\n"
+      + "    <id property=\"id\" column=\"id\"/>\n"
+      + "    <result property=\"username\" column=\"username\"/>\n"
+      + "  </resultMap>\n"
+      + "  <resultMap id=\"blog\" type=\"" + Blog.class.getName() + "\">\n"
+      + "    <id property=\"id\" column=\"id\"/>\n"
+      + "    <result property=\"title\" column=\"title\"/>\n"
+      + "    <association property=\"author\" resultMap=\"identity.author\" columnPrefix=\"author_\"/>\n"
+      + "  </resultMap>\n"
+      + "  <select id=\"selectAuthor\" resultMap=\"author\">select id, username from author where id = #{id}</select>\n"
+      + "  <select id=\"selectAuthors\" resultMap=\"author\">select id, username from author order by id</select>\n"
+      + "  <select id=\"selectBlogs\" resultMap=\"blog\">\n"
+      + "    select b.id, b.title, a.id as author_id, a.username as author_username\n"
+      + "    from blog b join author a on a.id = b.author_id order by b.id\n"
+      + "  </select>\n"
+      + "</mapper>\n";
+
+  private static SqlSessionFactory newSqlSessionFactory(boolean sessionIdentityMapEnabled) throws Exception {
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    configuration.setSessionIdentityMapEnabled(sessionIdentityMapEnabled);
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "identity-mapper", configuration.getSqlFragments()).parse();
+    return new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @Test
+  void shouldFindKeysWithTheSameValues() {
+    IdentityMap map = new IdentityMap();
+    IdentityMap.Key parent = new IdentityMap.Key("blog", null, new Object[] { 1 });
+    IdentityMap.Key key = new IdentityMap.Key("author", "AUTHOR_", new Object[] { 101, new byte[] { 1, 2 } });
+    map.put(key.withParent(parent), "jim");
+    assertThat(map.get(new IdentityMap.Key("author", "AUTHOR_", new Object[] { 101, new byte[] { 1, 2 } })
+        .withParent(new IdentityMap.Key("blog", null, new Object[] { 1 })))).isEqualTo("jim");
+    assertThat(map.get(key)).isNull();
+    assertThat(map.get(key.withParent(new IdentityMap.Key("blog", null, new Object[] { 2 })))).isNull();
+    assertThat(map.get(new IdentityMap.Key("author", null, new Object[] { 101, new byte[] { 1, 2 } }))).isNull();
+    assertThat(map.get(new IdentityMap.Key("author", "AUTHOR_", new Object[] { 101, null }))).isNull();
+    assertThat(key.withParent(parent).withoutContext()).isEqualTo(new IdentityMap.Key("author", null, new Object[] { 101, new byte[] { 1, 2 } }));
+  }
+
+  @Test
+  void shouldGrowAndClear() {
+    IdentityMap map = new IdentityMap();
+    for (int i = 0; i < 10000; i++) {
+      map.put(new IdentityMap.Key("author", null, new Object[] { i }), i);
+    }
+    map.put(new IdentityMap.Key("author", null, new Object[] { 42 }), "replaced");
+    assertThat(map.size()).isEqualTo(10000);
+    for (int i = 0; i < 10000; i++) {
+      assertThat(map.get(new IdentityMap.Key("author", null, new Object[] { i }))).isEqualTo(i == 42 ? "replaced" : i);
+    }
+    map.clear();
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(new IdentityMap.Key("author", null, new Object[] { 1 }))).isNull();
+  }
+
+  @Test
+  void shouldReturnTheSameEntityToTheQueriesOfASession() throws Exception {
+    try (SqlSession session = newSqlSessionFactory(true).openSession()) {
+      Author jim = session.selectOne("identity.selectAuthor", 101);
+      List<Author> authors = session.selectList("identity.selectAuthors");
+      assertThat(authors.get(0)).isSameAs(jim);
+      List<Blog> blogs = session.selectList("identity.selectBlogs");
+      assertThat(blogs.get(0).getAuthor()).isSameAs(jim);
+      assertThat(blogs.get(1).getAuthor()).isSameAs(authors.get(1));
+      session.clearCache();
+      assertThat(session.<Author>selectOne("identity.selectAuthor", 101)).isNotSameAs(jim);
+    }
+    SqlSessionFactory sqlSessionFactory = newSqlSessionFactory(true);
+    try (SqlSession session = sqlSessionFactory.openSession(); SqlSession other = sqlSessionFactory.openSession()) {
+      assertThat(session.<Author>selectOne("identity.selectAuthor", 101)).isNotSameAs(other.selectOne("identity.selectAuthor", 101));
+    }
+  }
+
+  @Test
+  void shouldNotRetainTheRowsOfCursorsAndResultHandlers() throws Exception {
+    try (SqlSession session = newSqlSessionFactory(true).openSession()) {
+      List<Author> handled = new ArrayList<>();
+      session.select("identity.selectAuthors", context -> handled.add((Author) context.getResultObject()));
+      List<Author> streamed = new ArrayList<>();
+      try (Cursor<Author> cursor = session.selectCursor("identity.selectAuthors")) {
+        cursor.forEach(streamed::add);
+      }
+      Author jim = session.selectOne("identity.selectAuthor", 101);
+      assertThat(handled.get(0)).isNotSameAs(jim);
+      assertThat(streamed.get(0)).isNotSameAs(jim).isNotSameAs(handled.get(0));
+      assertThat(session.<Author>selectOne("identity.selectAuthor", 101)).isSameAs(jim);
+    }
+  }
+
+  @Test
+  void shouldBuildEntitiesForEachQueryByDefault() throws Exception {
+    try (SqlSession session = newSqlSessionFactory(false).openSession()) {
+      Author jim = session.selectOne("identity.selectAuthor", 101);
+      List<Author> authors = session.selectList("identity.selectAuthors");
+      assertThat(authors.get(0)).isNotSameAs(jim);
+      assertThat(authors.get(0).getUsername()).isEqualTo("jim");
+      List<Blog> blogs = session.selectList("identity.selectBlogs");
+      assertThat(blogs.get(0).getAuthor()).isNotSameAs(jim);
+      assertThat(blogs.get(0).getAuthor().getUsername()).isEqualTo("jim");
+    }
+  }
+
+}
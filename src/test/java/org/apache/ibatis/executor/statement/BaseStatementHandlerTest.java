@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -135,6 +135,63 @@ class BaseStatementHandlerTest {
         verify(statement).setQueryTimeout(5); // apply a transaction timeout
     }
 
+    @Test
+    void useDefaultFetchSizeWithoutHistory() throws SQLException {
+        doReturn(100).when(configuration).getDefaultFetchSize();
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(100); // apply a default fetch size
+    }
+
+    @Test
+    void useLearnedFetchSize() throws SQLException {
+        doReturn(100).when(configuration).getDefaultFetchSize();
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        configuration.getFetchSizeHistory().record("id", 30);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(31); // apply the learned fetch size
+    }
+
+    @Test
+    void boundLearnedFetchSize() throws SQLException {
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        configuration.setAdaptiveFetchSizeMax(500);
+        configuration.getFetchSizeHistory().record("id", 100000);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(500); // apply the maximum
+    }
+
+    @Test
+    void preferMappedStatementFetchSizeOverLearnedOne() throws SQLException {
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        configuration.getFetchSizeHistory().record("id", 30);
+        mappedStatementBuilder.fetchSize(200);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(200); // apply a mapped statement fetch size
+    }
+
+    @Test
+    void ignoreHistoryWhenAdaptiveFetchSizeIsDisabled() throws SQLException {
+        configuration.getFetchSizeHistory().record("id", 30);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verifyZeroInteractions(statement);
+    }
+
     @Test
     void specifyQueryTimeoutAndTransactionTimeoutWithSameValue() throws SQLException {
         doReturn(10).when(configuration).getDefaultStatementTimeout();
@@ -0,0 +1,106 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class FetchSizeHistoryTest {
+
+  @Test
+  void shouldReturnNullWithoutHistory() {
+    FetchSizeHistory history = new FetchSizeHistory();
+    assertThat(history.getAverageRowCount("select")).isNull();
+    assertThat(history.getFetchSize("select", 10, 1000)).isNull();
+  }
+
+  @Test
+  void shouldUseFirstObservationAsAverage() {
+    FetchSizeHistory history = new FetchSizeHistory();
+    history.record("select", 40);
+    assertThat(history.getAverageRowCount("select")).isEqualTo(40d);
+    assertThat(history.getFetchSize("select", 10, 1000)).isEqualTo(41);
+  }
+
+  @Test
+  void shouldSmoothObservations() {
+    FetchSizeHistory history = new FetchSizeHistory(0.5d);
+    history.record("select", 100);
+    history.record("select", 200);
+    assertThat(history.getAverageRowCount("select")).isEqualTo(150d);
+    history.record("select", 50);
+    assertThat(history.getAverageRowCount("select")).isEqualTo(100d);
+  }
+
+  @Test
+  void shouldBoundFetchSize() {
+    FetchSizeHistory history = new FetchSizeHistory();
+    history.record("small", 0);
+    history.record("large", 1000000);
+    assertThat(history.getFetchSize("small", 10, 1000)).isEqualTo(10);
+    assertThat(history.getFetchSize("large", 10, 1000)).isEqualTo(1000);
+    assertThat(history.getFetchSizes(10, 1000)).containsEntry("small", 10).containsEntry("large", 1000).hasSize(2);
+  }
+
+  @Test
+  void shouldRejectInvalidSmoothingFactor() {
+    assertThrows(IllegalArgumentException.class, () -> new FetchSizeHistory(0));
+    assertThrows(IllegalArgumentException.class, () -> new FetchSizeHistory(1.5));
+  }
+
+  @Test
+  void shouldRecordTheRowsReadRatherThanTheResults() throws Exception {
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"rows\">\n"
+        + "  <resultMap id=\"blog\" type=\"" + Blog.class.getName() + "\">\n"
+        + "    <id property=\"id\" column=\"id\"/>\n"
+        + "    <collection property=\"posts\" ofType=\"" + Post.class.getName() + "\">\n"
+        + "      <id property=\"id\" column=\"post_id\"/>\n"
+        + "    </collection>\n"
+        + "  </resultMap>\n"
+        + "  <select id=\"selectBlogs\" resultMap=\"blog\">\n"
+        + "    select b.id, p.id as post_id from blog b join post p on p.blog_id = b.id order by b.id, p.id\n"
+        + "  </select>\n"
+        + "</mapper>\n";
+    Configuration configuration = new Configuration(
+        new Environment("test", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    configuration.setAdaptiveFetchSizeEnabled(true);
+    new XMLMapperBuilder(new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8)), configuration,
+        "rows-mapper", configuration.getSqlFragments()).parse();
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      List<Blog> blogs = session.selectList("rows.selectBlogs");
+      assertThat(blogs).hasSize(2);
+      assertThat(configuration.getFetchSizeHistory().getAverageRowCount("rows.selectBlogs")).isEqualTo(4.0d);
+    }
+  }
+
+}
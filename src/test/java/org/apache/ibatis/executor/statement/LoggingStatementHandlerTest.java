@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LoggingStatementHandlerTest {
+
+  @Mock
+  StatementHandler delegate;
+
+  @Mock
+  ParameterHandler parameterHandler;
+
+  @Mock
+  Statement statement;
+
+  @Mock
+  Log log;
+
+  private Configuration configuration;
+  private LoggingStatementHandler handler;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    configuration = new Configuration();
+    MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "selectAuthor",
+        new StaticSqlSource(configuration, "select"), null).build();
+    BoundSql boundSql = new BoundSql(configuration, "select *\n  from author where id = ?",
+        Collections.singletonList(new ParameterMapping.Builder(configuration, "id", Integer.class).build()), 101);
+    lenient().when(delegate.getBoundSql()).thenReturn(boundSql);
+    lenient().when(delegate.getParameterHandler()).thenReturn(parameterHandler);
+    lenient().when(parameterHandler.getParameterObject()).thenReturn(101);
+    lenient().when(delegate.query(any(), any())).thenReturn(Arrays.asList("a", "b"));
+    lenient().when(delegate.update(any())).thenReturn(3);
+    lenient().when(delegate.getRowCount()).thenReturn(-1);
+    lenient().when(log.isDebugEnabled()).thenReturn(true);
+    handler = new LoggingStatementHandler(delegate, mappedStatement, log);
+  }
+
+  @Test
+  void shouldLogStatementParametersAndResults() throws SQLException {
+    assertThat(handler.<String>query(statement, null)).containsExactly("a", "b");
+    assertThat(handler.update(statement)).isEqualTo(3);
+
+    verify(log, times(2)).debug("==>  Preparing: select * from author where id = ? ");
+    verify(log, times(2)).debug("==> Parameters: 101(Integer)");
+    verify(log).debug(startsWith("<==      Total: 2 ("));
+    verify(log).debug(startsWith("<==    Updates: 3 ("));
+  }
+
+  @Test
+  void shouldLogTheRowsReadRatherThanTheResults() throws SQLException {
+    ResultHandler<?> resultHandler = context -> { };
+    when(delegate.query(statement, resultHandler)).thenReturn(Collections.emptyList());
+    when(delegate.getRowCount()).thenReturn(5);
+    handler.query(statement, resultHandler);
+    verify(log).debug(startsWith("<==      Total: 5 ("));
+  }
+
+  @Test
+  void shouldLogOneInSampleRateExecutions() throws SQLException {
+    configuration.setStatementLogSampleRate(3);
+    for (int i = 0; i < 6; i++) {
+      handler.query(statement, null);
+    }
+    verify(delegate, times(6)).query(statement, null);
+    verify(log, times(2)).debug("==> Parameters: 101(Integer)");
+    verify(log, times(2)).debug(startsWith("<==      Total: 2"));
+  }
+
+  @Test
+  void shouldOnlyLogSlowExecutions() throws SQLException {
+    configuration.setSlowStatementLogThreshold(60000);
+    handler.query(statement, null);
+    verify(log, never()).debug(any());
+    verify(parameterHandler, never()).getParameterObject();
+
+    configuration.setSlowStatementLogThreshold(0);
+    handler.query(statement, null);
+    verify(log).debug("==> Parameters: 101(Integer)");
+    verify(log).debug(startsWith("<==      Total: 2"));
+  }
+
+  @Test
+  void shouldNotRenderParametersWhenDebugIsDisabled() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(false);
+    handler.update(statement);
+    verify(log, never()).debug(any());
+    verify(parameterHandler, never()).getParameterObject();
+  }
+
+}
@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class WatchdogStatementHandlerTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"watchdog\">\n"
+      + "  <select id=\"selectAuthors\" resultType=\"int\">\n"
+      + "    select id\n      from author where id >= #{id} order by id\n"
+      + "  </select>\n"
+      + "  <update id=\"updateAuthor\">\n"
+      + "    update author set username = username where id = #{id}\n"
+      + "  </update>\n"
+      + "  <insert id=\"insertAuthor\">\n"
+      + "    insert into author (id, username, password, email) values (#{id}, 'watchdog', 'secret', 'watchdog@example.com')\n"
+      + "  </insert>\n"
+      + "</mapper>\n";
+
+  private Configuration newConfiguration() throws Exception {
+    Configuration configuration = new Configuration(
+        new Environment("test", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "watchdog-mapper", configuration.getSqlFragments()).parse();
+    return configuration;
+  }
+
+  @Test
+  void shouldCaptureLargeResults() throws Exception {
+    Configuration configuration = newConfiguration();
+    configuration.setLargeResultCaptureThreshold(1);
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      assertThat(session.<Integer>selectList("watchdog.selectAuthors", 102)).containsExactly(102);
+      assertThat(session.<Integer>selectList("watchdog.selectAuthors", 0)).containsExactly(101, 102);
+      session.update("watchdog.updateAuthor", 101);
+      session.rollback(true);
+    }
+    List<CapturedStatement> captured = configuration.getStatementCaptureBuffer().getStatements();
+    assertThat(captured).hasSize(1);
+    CapturedStatement statement = captured.get(0);
+    assertThat(statement.getStatementId()).isEqualTo("watchdog.selectAuthors");
+    assertThat(statement.getSql()).isEqualTo("select id from author where id >= ? order by id");
+    assertThat(statement.getParameters()).isEqualTo("0(Integer)");
+    assertThat(statement.getRowCount()).isEqualTo(2);
+    assertThat(statement.getTimestamp()).isPositive();
+  }
+
+  @Test
+  void shouldCaptureSlowStatements() throws Exception {
+    Configuration configuration = newConfiguration();
+    configuration.setSlowStatementCaptureThreshold(0);
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      session.selectList("watchdog.selectAuthors", 102);
+      session.update("watchdog.updateAuthor", 101);
+      session.rollback(true);
+    }
+    List<CapturedStatement> captured = configuration.getStatementCaptureBuffer().getStatements();
+    assertThat(captured).extracting(CapturedStatement::getStatementId)
+        .containsExactly("watchdog.selectAuthors", "watchdog.updateAuthor");
+    assertThat(captured.get(1).getRowCount()).isEqualTo(1);
+    assertThat(captured.get(1).getParameters()).isEqualTo("101(Integer)");
+  }
+
+  @Test
+  void shouldFailQueriesMappingTooManyRows() throws Exception {
+    Configuration configuration = newConfiguration();
+    configuration.setMaxResultRows(1);
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      assertThat(session.<Integer>selectList("watchdog.selectAuthors", 102)).containsExactly(102);
+      PersistenceException e = assertThrows(PersistenceException.class,
+          () -> session.selectList("watchdog.selectAuthors", 0));
+      assertThat(e.getCause()).isInstanceOf(ExecutorException.class);
+      assertThat(e.getCause().getMessage()).contains("'watchdog.selectAuthors' mapped more than 1 rows");
+
+      List<Integer> handled = new ArrayList<>();
+      session.select("watchdog.selectAuthors", 0, context -> handled.add((Integer) context.getResultObject()));
+      assertThat(handled).containsExactly(101, 102);
+    }
+  }
+
+  @Test
+  void shouldCaptureFailedExecutions() throws Exception {
+    Configuration configuration = newConfiguration();
+    configuration.setMaxResultRows(1);
+    configuration.setLargeResultCaptureThreshold(1);
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      assertThrows(PersistenceException.class, () -> session.selectList("watchdog.selectAuthors", 0));
+    }
+    configuration.setLargeResultCaptureThreshold(null);
+    configuration.setSlowStatementCaptureThreshold(0);
+    try (SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession()) {
+      assertThrows(PersistenceException.class, () -> session.insert("watchdog.insertAuthor", 101));
+    }
+    List<CapturedStatement> captured = configuration.getStatementCaptureBuffer().getStatements();
+    assertThat(captured).extracting(CapturedStatement::getStatementId)
+        .containsExactly("watchdog.selectAuthors", "watchdog.insertAuthor");
+    assertThat(captured.get(0).getRowCount()).isEqualTo(2);
+    assertThat(captured.get(1).getRowCount()).isEqualTo(-1);
+  }
+
+  @Test
+  void shouldKeepTheLastCapturedStatements() {
+    StatementCaptureBuffer buffer = new StatementCaptureBuffer(3);
+    for (int i = 0; i < 5; i++) {
+      buffer.add(new CapturedStatement("statement" + i, "select", "", i, i, i));
+    }
+    assertThat(buffer.getCapturedCount()).isEqualTo(5);
+    assertThat(buffer.getStatements()).extracting(CapturedStatement::getStatementId)
+        .containsExactly("statement2", "statement3", "statement4");
+    buffer.clear();
+    assertThat(buffer.getStatements()).isEmpty();
+    assertThrows(IllegalArgumentException.class, () -> new StatementCaptureBuffer(0));
+  }
+
+}
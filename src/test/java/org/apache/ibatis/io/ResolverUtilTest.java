@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,13 +17,23 @@ package org.apache.ibatis.io;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.apache.ibatis.annotations.CacheNamespace;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Unit tests for {@link ResolverUtil}.
@@ -142,6 +152,47 @@ class ResolverUtilTest {
     assertTrue(annotatedWith.toString().contains("@" + CacheNamespace.class.getSimpleName()));
   }
 
+  @Test
+  void listResourcesIsCached() throws IOException {
+    ResolverUtil.clearCache();
+    List<String> children = new ResolverUtil<>().listResources("org/apache/ibatis/io");
+    assertSame(children, new ResolverUtil<>().listResources("org/apache/ibatis/io"));
+    ResolverUtil.clearCache();
+    assertNotSame(children, new ResolverUtil<>().listResources("org/apache/ibatis/io"));
+  }
+
+  @Test
+  void listResourcesOfSubPackageFromParentListing() throws IOException {
+    ResolverUtil.clearCache();
+    new ResolverUtil<>().listResources("org/apache/ibatis");
+    List<String> children = new ResolverUtil<>().listResources("org/apache/ibatis/io");
+    assertEquals(new HashSet<>(VFS.getInstance().list("org/apache/ibatis/io")), new HashSet<>(children));
+    assertTrue(children.contains("org/apache/ibatis/io/ResolverUtil.class"));
+    assertFalse(children.contains("org/apache/ibatis/session/Configuration.class"));
+  }
+
+  @Test
+  void listResourcesOfSplitSubPackage(@TempDir Path dir) throws IOException {
+    Path jar = dir.resolve("split.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      // no entry for the parent package
+      out.putNextEntry(new JarEntry("org/apache/ibatis/io/"));
+      out.putNextEntry(new JarEntry("org/apache/ibatis/io/Split.class"));
+    }
+    ResolverUtil.clearCache();
+    Thread thread = Thread.currentThread();
+    ClassLoader original = thread.getContextClassLoader();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, original)) {
+      thread.setContextClassLoader(classLoader);
+      assertFalse(new ResolverUtil<>().listResources("org/apache/ibatis").contains("org/apache/ibatis/io/Split.class"));
+      List<String> children = new ResolverUtil<>().listResources("org/apache/ibatis/io");
+      assertTrue(children.contains("org/apache/ibatis/io/Split.class"));
+      assertTrue(children.contains("org/apache/ibatis/io/ResolverUtil.class"));
+    } finally {
+      thread.setContextClassLoader(original);
+      ResolverUtil.clearCache();
+    }
+  }
 
   @CacheNamespace(readWrite = false)
   private interface TestMapper {
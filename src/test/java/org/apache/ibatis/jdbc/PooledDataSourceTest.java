@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
@@ -28,7 +29,10 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.hsqldb.jdbc.JDBCConnection;
+import org.hsqldb.jdbc.JDBCPreparedStatement;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -136,6 +140,230 @@ class PooledDataSourceTest extends BaseDataTest {
     con.close();
   }
 
+  @Test
+  void shouldReusePreparedStatementsAcrossCheckouts() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolMaximumCachedStatements(10);
+      JDBCPreparedStatement first;
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st = c.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        first = st.unwrap(JDBCPreparedStatement.class);
+        exexuteQuery(st);
+        st.close();
+        assertTrue(st.isClosed());
+        assertFalse(first.isClosed());
+      }
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st = c.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        assertSame(first, st.unwrap(JDBCPreparedStatement.class));
+        exexuteQuery(st);
+        st.close();
+      }
+      assertEquals(1, ds.getPoolState().getStatementCacheHitCount());
+      assertEquals(1, ds.getPoolState().getStatementCacheMissCount());
+      ds.forceCloseAll();
+      assertTrue(first.isClosed());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseEvictedPreparedStatements() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumCachedStatements(1);
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st1 = c.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        JDBCPreparedStatement real1 = st1.unwrap(JDBCPreparedStatement.class);
+        st1.close();
+        PreparedStatement st2 = c.prepareStatement("SELECT 2 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        JDBCPreparedStatement real2 = st2.unwrap(JDBCPreparedStatement.class);
+        assertTrue(real1.isClosed());
+        st2.close();
+        assertFalse(real2.isClosed());
+      }
+      assertEquals(0, ds.getPoolState().getStatementCacheHitCount());
+      assertEquals(2, ds.getPoolState().getStatementCacheMissCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotShareAPreparedStatementInUse() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumCachedStatements(10);
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st1 = c.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        PreparedStatement st2 = c.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        JDBCPreparedStatement real2 = st2.unwrap(JDBCPreparedStatement.class);
+        assertNotSame(st1.unwrap(JDBCPreparedStatement.class), real2);
+        st2.close();
+        assertTrue(real2.isClosed());
+        st1.close();
+        assertThrows(SQLException.class, st1::executeQuery);
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotRunTheBatchOfARolledBackSession() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolMaximumCachedStatements(10);
+      try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+        st.execute("DROP TABLE BATCH_ITEM IF EXISTS");
+        st.execute("CREATE TABLE BATCH_ITEM (ID INT)");
+      }
+      try (Connection c = ds.getConnection()) {
+        c.setAutoCommit(false);
+        PreparedStatement st = c.prepareStatement("INSERT INTO BATCH_ITEM VALUES (?)");
+        st.setInt(1, 1);
+        st.addBatch();
+        st.setInt(1, 2);
+        st.addBatch();
+        st.setEscapeProcessing(false);
+        st.close();
+        st = c.prepareStatement("INSERT INTO BATCH_ITEM VALUES (?)");
+        st.setInt(1, 3);
+        st.addBatch();
+        st.setMaxFieldSize(10);
+        st.close();
+        c.rollback();
+      }
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st = c.prepareStatement("INSERT INTO BATCH_ITEM VALUES (?)");
+        assertEquals(0, st.getMaxFieldSize());
+        st.setInt(1, 4);
+        st.addBatch();
+        assertArrayEquals(new int[] { 1 }, st.executeBatch());
+        st.close();
+      }
+      assertEquals(1, ds.getPoolState().getStatementCacheHitCount());
+      assertEquals(2, ds.getPoolState().getStatementCacheMissCount());
+      try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+        st.execute("DROP TABLE BATCH_ITEM");
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotCachePreparedStatementsByDefault() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      try (Connection c = ds.getConnection()) {
+        PreparedStatement st = c.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        assertTrue(st instanceof JDBCPreparedStatement);
+        st.close();
+        assertTrue(st.isClosed());
+      }
+      assertEquals(0, ds.getPoolState().getStatementCacheMissCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldSkipRedundantDriverCallsWhenTrackingConnectionState() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolTrackConnectionState(true);
+      Connection realConnection = null;
+      for (int i = 0; i < 3; i++) {
+        JdbcTransaction transaction = new JdbcTransaction(ds, TransactionIsolationLevel.READ_COMMITTED, false);
+        Connection c = transaction.getConnection();
+        assertFalse(c.getAutoCommit());
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, c.getTransactionIsolation());
+        realConnection = PooledDataSource.unwrapConnection(c);
+        transaction.rollback();
+        transaction.close();
+      }
+      // nothing was executed, so auto-commit was never switched off on the driver
+      assertTrue(realConnection.getAutoCommit());
+      assertTrue(ds.getPoolState().getSkippedDriverCallCount() >= 8);
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldRollBackPendingWorkWhenTrackingConnectionState() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolTrackConnectionState(true);
+      try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+        st.execute("DROP TABLE CONNECTION_STATE IF EXISTS");
+        st.execute("CREATE TABLE CONNECTION_STATE (ID INT)");
+      }
+      try (Connection c = ds.getConnection()) {
+        c.setAutoCommit(false);
+        try (Statement st = c.createStatement()) {
+          st.executeUpdate("INSERT INTO CONNECTION_STATE VALUES (1)");
+        }
+      }
+      try (Connection c = ds.getConnection(); Statement st = c.createStatement();
+           ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM CONNECTION_STATE")) {
+        assertFalse(c.getAutoCommit());
+        assertTrue(rs.next());
+        assertEquals(0, rs.getInt(1));
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCommitWorkDoneThroughAStatementReusedAcrossCommitsWhenTrackingConnectionState() throws Exception {
+    PooledDataSource ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolTrackConnectionState(true);
+      try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+        st.execute("DROP TABLE CONNECTION_STATE IF EXISTS");
+        st.execute("CREATE TABLE CONNECTION_STATE (ID INT)");
+      }
+      try (Connection c = ds.getConnection()) {
+        c.setAutoCommit(false);
+        try (PreparedStatement ps = c.prepareStatement("INSERT INTO CONNECTION_STATE VALUES (?)")) {
+          ps.setInt(1, 1);
+          ps.executeUpdate();
+          c.commit();
+          long skipped = ds.getPoolState().getSkippedDriverCallCount();
+          ps.setInt(1, 2);
+          ps.executeUpdate();
+          c.commit();
+          assertEquals(skipped, ds.getPoolState().getSkippedDriverCallCount());
+        }
+        // a commit skipped above would leave the second row to this rollback
+        PooledDataSource.unwrapConnection(c).rollback();
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM CONNECTION_STATE")) {
+          assertTrue(rs.next());
+          assertEquals(2, rs.getInt(1));
+        }
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  private void exexuteQuery(PreparedStatement st) throws SQLException {
+    try (ResultSet rs = st.executeQuery()) {
+      assertTrue(rs.next());
+      assertEquals(1, rs.getInt(1));
+    }
+  }
+
   private void exexuteQuery(Connection con) throws SQLException {
     try (PreparedStatement st = con.prepareStatement("select 1");
          ResultSet rs = st.executeQuery()) {
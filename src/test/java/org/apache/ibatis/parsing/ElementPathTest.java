@@ -0,0 +1,95 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+class ElementPathTest {
+
+  private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>"
+      + "<mapper namespace=\"test\">"
+      + "  <cache-ref namespace=\"other\"/>"
+      + "  <select id=\"s1\">select 1 <include refid=\"columns\"/></select>"
+      + "  <!-- comment -->"
+      + "  <sql id=\"columns\">id</sql>"
+      + "  <insert id=\"i1\"><selectKey keyProperty=\"id\">select 2</selectKey>insert</insert>"
+      + "  <resultMap id=\"r1\"><id column=\"id\"/><result column=\"a\"/></resultMap>"
+      + "  <select id=\"s2\">select 3</select>"
+      + "  <resultMap id=\"r2\"><result column=\"b\"/></resultMap>"
+      + "  <delete id=\"d1\">delete</delete>"
+      + "</mapper>";
+
+  @Test
+  void shouldSelectTheSameNodesAsXPath() throws Exception {
+    XPathParser parser = new XPathParser(XML);
+    Node mapper = parser.evalNode("/mapper").getNode();
+    for (String expression : new String[] { "/mapper", "/mapper/resultMap", "/mapper/sql", "select|insert|update|delete",
+        "cache-ref", "cache", "resultMap/result", "/missing/resultMap", "update" }) {
+      assertThat(ElementPath.of(expression)).as(expression).isNotNull();
+
+      List<Node> expected = xpath(mapper, expression);
+      assertThat(nodes(parser.evalNodes(mapper, expression))).as(expression).containsExactlyElementsOf(expected);
+      XNode first = parser.evalNode(mapper, expression);
+      assertThat(first == null ? null : first.getNode()).as(expression).isSameAs(expected.isEmpty() ? null : expected.get(0));
+    }
+  }
+
+  @Test
+  void shouldLeaveOtherExpressionsToXPath() {
+    for (String expression : new String[] { "*", "text()", "@id", "//select", ".", "select[@id='s1']", "/mapper|select",
+        "a/b|c", "a|", "" }) {
+      assertThat(ElementPath.of(expression)).as(expression).isNull();
+    }
+  }
+
+  @Test
+  void shouldEvaluateAbsolutePathFromDocument() {
+    XPathParser parser = new XPathParser(XML);
+    assertThat(parser.evalNodes("/mapper/select")).extracting(node -> node.getStringAttribute("id"))
+        .containsExactly("s1", "s2");
+    assertThat(parser.evalNode("/mapper/select").evalNodes("/mapper/resultMap"))
+        .extracting(node -> node.getStringAttribute("id")).containsExactly("r1", "r2");
+  }
+
+  private static List<Node> nodes(List<XNode> xnodes) {
+    List<Node> nodes = new ArrayList<>();
+    xnodes.forEach(xnode -> nodes.add(xnode.getNode()));
+    return nodes;
+  }
+
+  private static List<Node> xpath(Node root, String expression) throws Exception {
+    XPath xpath = XPathFactory.newInstance().newXPath();
+    NodeList nodeList = (NodeList) xpath.evaluate(expression, root, XPathConstants.NODESET);
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < nodeList.getLength(); i++) {
+      nodes.add(nodeList.item(i));
+    }
+    return nodes;
+  }
+
+}
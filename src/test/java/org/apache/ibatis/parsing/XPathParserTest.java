@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,18 +16,31 @@
 package org.apache.ibatis.parsing;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.io.Resources;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
@@ -244,4 +257,79 @@ class XPathParserTest {
     assertEquals(carsNodeToStringExpect, carsNodeToString);
   }
 
+  @Test
+  void shouldKeepValidationSettingWhenFactoriesAreShared() {
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?><users><user><id>1</id></user></users>";
+    for (int i = 0; i < 2; i++) {
+      assertEquals(Long.valueOf(1), new XPathParser(xml, false).evalLong("/users/user/id"));
+      assertThrows(BuilderException.class, () -> new XPathParser(xml, true));
+    }
+  }
+
+  @Test
+  void shouldParseConcurrently() {
+    List<Integer> days = IntStream.range(0, 200).parallel().mapToObj(i -> {
+      try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+        return new XPathParser(inputStream, false).evalInteger("/employee/birth_date/day");
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }).collect(Collectors.toList());
+    assertEquals(200, days.size());
+    days.forEach(day -> assertEquals(Integer.valueOf(15), day));
+  }
+
+  @Test
+  void shouldNotShareTheFactoriesOfTheApplication(@TempDir Path services) throws Exception {
+    Path service = services.resolve("META-INF/services/" + DocumentBuilderFactory.class.getName());
+    Files.createDirectories(service.getParent());
+    Files.write(service, CountingDocumentBuilderFactory.class.getName().getBytes(StandardCharsets.UTF_8));
+    Thread thread = Thread.currentThread();
+    ClassLoader original = thread.getContextClassLoader();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] { services.toUri().toURL() }, original)) {
+      thread.setContextClassLoader(classLoader);
+      for (int i = 0; i < 2; i++) {
+        assertEquals(Long.valueOf(1), new XPathParser("<users><user><id>1</id></user></users>", false).evalLong("/users/user/id"));
+      }
+    } finally {
+      thread.setContextClassLoader(original);
+    }
+    assertEquals(2, CountingDocumentBuilderFactory.instances.get());
+  }
+
+  public static class CountingDocumentBuilderFactory extends DocumentBuilderFactory {
+    static final AtomicInteger instances = new AtomicInteger();
+    private final DocumentBuilderFactory delegate = DocumentBuilderFactory
+        .newInstance("com.sun.org.apache.xerces.internal.jaxp.DocumentBuilderFactoryImpl", null);
+
+    public CountingDocumentBuilderFactory() {
+      instances.incrementAndGet();
+    }
+
+    @Override
+    public DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+      return delegate.newDocumentBuilder();
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+      delegate.setAttribute(name, value);
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+      return delegate.getAttribute(name);
+    }
+
+    @Override
+    public void setFeature(String name, boolean value) throws ParserConfigurationException {
+      delegate.setFeature(name, value);
+    }
+
+    @Override
+    public boolean getFeature(String name) throws ParserConfigurationException {
+      return delegate.getFeature(name);
+    }
+  }
+
 }
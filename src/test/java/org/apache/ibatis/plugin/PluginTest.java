@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -38,6 +38,32 @@ class PluginTest {
     assertNotEquals("Always", map.toString());
   }
 
+  @Test
+  void shouldInterceptEachWrappedTarget() {
+    AlwaysMapPlugin plugin = new AlwaysMapPlugin();
+    Map first = (Map) plugin.plugin(new HashMap());
+    Map second = (Map) plugin.plugin(new HashMap());
+    second.put("key", "value");
+    assertEquals("Always", first.get("Anything"));
+    assertEquals("Always", second.get("key"));
+    assertEquals(0, first.size());
+    assertEquals(1, second.size());
+  }
+
+  @Test
+  void shouldNotWrapTargetWithoutInterceptedInterface() {
+    Object target = new StringBuilder();
+    assertSame(target, new AlwaysMapPlugin().plugin(target));
+    assertSame(target, new AlwaysMapPlugin().plugin(target));
+  }
+
+  @Test
+  void shouldRequireInterceptsAnnotationOnEveryWrap() {
+    Interceptor interceptor = invocation -> "Never";
+    assertThrows(PluginException.class, () -> interceptor.plugin(new HashMap()));
+    assertThrows(PluginException.class, () -> interceptor.plugin(new HashMap()));
+  }
+
   @Intercepts({
       @Signature(type = Map.class, method = "get", args = {Object.class})})
   public static class AlwaysMapPlugin implements Interceptor {
@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.LambdaMethodInvoker;
+import org.junit.jupiter.api.Test;
+
+class LambdaReflectorFactoryTest {
+
+  private final ReflectorFactory reflectorFactory = new LambdaReflectorFactory();
+
+  @Test
+  void shouldUseLambdaInvokersForAccessors() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertTrue(reflector.getGetInvoker("name") instanceof LambdaMethodInvoker);
+    assertTrue(reflector.getSetInvoker("count") instanceof LambdaMethodInvoker);
+    assertTrue(reflector.getGetInvoker("field") instanceof GetFieldInvoker);
+    assertSame(reflector, reflectorFactory.findForClass(Bean.class));
+  }
+
+  @Test
+  void shouldReadAndWriteProperties() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "foo" });
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 3 });
+    reflector.getSetInvoker("active").invoke(bean, new Object[] { true });
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(bean, new Object[0]));
+    assertEquals(3, reflector.getGetInvoker("count").invoke(bean, null));
+    assertEquals(true, reflector.getGetInvoker("active").invoke(bean, null));
+  }
+
+  @Test
+  void shouldReportErrorsLikeReflection() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Invoker countSetter = reflector.getSetInvoker("count");
+    assertThrows(IllegalArgumentException.class, () -> countSetter.invoke(new Bean(), new Object[] { null }));
+    assertThrows(IllegalArgumentException.class, () -> countSetter.invoke(new Bean(), new Object[] { "3" }));
+    assertThrows(IllegalArgumentException.class, () -> countSetter.invoke("not a bean", new Object[] { 3 }));
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> reflector.getGetInvoker("failing").invoke(new Bean(), null));
+    assertTrue(e.getTargetException() instanceof IllegalStateException);
+  }
+
+  @Test
+  void shouldWorkWithMetaObject() {
+    RichType rich = new RichType();
+    MetaObject meta = MetaObject.forObject(rich, SystemMetaObject.DEFAULT_OBJECT_FACTORY,
+        SystemMetaObject.DEFAULT_OBJECT_WRAPPER_FACTORY, reflectorFactory);
+    meta.setValue("richType.richProperty", "nested");
+    meta.setValue("richField", "field");
+    assertEquals("nested", meta.getValue("richType.richProperty"));
+    assertEquals("field", meta.getValue("richField"));
+    assertEquals(String.class, meta.getGetterType("richType.richProperty"));
+  }
+
+  static class Bean {
+    private String name;
+    private int count;
+    private boolean active;
+    private String field;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    int getCount() {
+      return count;
+    }
+
+    void setCount(int count) {
+      this.count = count;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+
+    public String getFailing() {
+      throw new IllegalStateException("failing getter");
+    }
+  }
+
+}
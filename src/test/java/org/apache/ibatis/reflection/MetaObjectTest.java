@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -40,6 +40,29 @@ class MetaObjectTest {
     assertEquals("foo", meta.getValue("richField"));
   }
 
+  @Test
+  void shouldGetNestedValuesThroughBeansMapsAndLists() {
+    RichType rich = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    meta.setValue("richType.richType.richProperty", "deep");
+    meta.setValue("richType.richMap.key", "mapped");
+    meta.setValue("richType.richList[0]", "listed");
+    assertEquals("deep", meta.getValue("richType.richType.richProperty"));
+    assertEquals("mapped", meta.getValue("richType.richMap.key"));
+    assertEquals("mapped", meta.getValue("richType.richMap[key]"));
+    assertEquals("listed", meta.getValue("richType.richList[0]"));
+    assertNull(meta.getValue("richType.richType.richType.richProperty"));
+  }
+
+  @Test
+  void shouldReportMissingNestedGetter() {
+    RichType rich = new RichType();
+    rich.setRichType(new RichType());
+    MetaObject meta = SystemMetaObject.forObject(rich);
+    ReflectionException e = assertThrows(ReflectionException.class, () -> meta.getValue("richType.unknown"));
+    assertTrue(e.getMessage().contains("unknown"));
+  }
+
   @Test
   void shouldGetAndSetNestedField() {
     RichType rich = new RichType();
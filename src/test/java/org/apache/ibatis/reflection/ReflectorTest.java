@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -322,4 +322,35 @@ class ReflectorTest {
             "Ambiguous setters defined for property 'bool' in class '" + Bean.class.getName().replace("$", "\\$")
                 + "' with types '(java.lang.Integer|boolean)' and '(java.lang.Integer|boolean)'\\.");
   }
+
+  @Test
+  void shouldCacheConstructorInstantiators() {
+    Reflector reflector = new DefaultReflectorFactory().findForClass(ImmutableBean.class);
+    ConstructorInstantiator instantiator = reflector.getConstructorInstantiator(int.class, String.class);
+    assertSame(instantiator, reflector.getConstructorInstantiator(int.class, String.class));
+    ImmutableBean bean = (ImmutableBean) instantiator.newInstance(new Object[] { 1, "one" });
+    assertEquals(1, bean.id);
+    assertEquals("one", bean.name);
+    assertNull(reflector.getConstructorInstantiator(String.class));
+    assertNull(reflector.getRecordConstructor());
+  }
+
+  @Test
+  void shouldReportInvalidConstructorArguments() {
+    Reflector reflector = new DefaultReflectorFactory().findForClass(ImmutableBean.class);
+    ConstructorInstantiator instantiator = reflector.getConstructorInstantiator(int.class, String.class);
+    when(() -> instantiator.newInstance(new Object[] { null, "one" }));
+    then(caughtException()).isInstanceOf(ReflectionException.class)
+        .hasMessageContaining("with invalid types (int,String) or values (null,one)");
+  }
+
+  static class ImmutableBean {
+    private final int id;
+    private final String name;
+
+    private ImmutableBean(int id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+  }
 }
@@ -0,0 +1,64 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.property;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PropertyTokenizerTest {
+
+  @Test
+  void shouldSplitNestedIndexedPath() {
+    PropertyTokenizer prop = PropertyTokenizer.of("orders[0].items[key].name");
+    assertEquals("orders", prop.getName());
+    assertEquals("0", prop.getIndex());
+    assertEquals("orders[0]", prop.getIndexedName());
+    assertEquals("items[key].name", prop.getChildren());
+    assertTrue(prop.hasNext());
+    PropertyTokenizer child = prop.next();
+    assertEquals("items", child.getName());
+    assertEquals("key", child.getIndex());
+    PropertyTokenizer leaf = child.next();
+    assertEquals("name", leaf.getName());
+    assertNull(leaf.getIndex());
+    assertNull(leaf.getChildren());
+    assertFalse(leaf.hasNext());
+  }
+
+  @Test
+  void shouldShareParsedPaths() {
+    PropertyTokenizer prop = PropertyTokenizer.of("author.address.city");
+    assertSame(prop, PropertyTokenizer.of("author.address.city"));
+    assertSame(prop.next(), PropertyTokenizer.of("address.city"));
+  }
+
+  @Test
+  void shouldParseLikeTheConstructor() {
+    PropertyTokenizer cached = PropertyTokenizer.of("list[1].value");
+    PropertyTokenizer created = new PropertyTokenizer("list[1].value");
+    assertEquals(created.getName(), cached.getName());
+    assertEquals(created.getIndex(), cached.getIndex());
+    assertEquals(created.getIndexedName(), cached.getIndexedName());
+    assertEquals(created.getChildren(), cached.getChildren());
+  }
+
+  @Test
+  void shouldNotSupportRemove() {
+    assertThrows(UnsupportedOperationException.class, () -> PropertyTokenizer.of("name").remove());
+  }
+
+}
@@ -0,0 +1,113 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import ognl.Ognl;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CompiledExpressionTest {
+
+  private static final String[] COMPILED = { "username", "username != null", "username == 'cbegin'",
+      "username eq \"cbegin\"", "id > 0", "id >= 1 && id lt 5", "!(id == 1)", "not bio", "favouriteSection == 'NEWS'",
+      "password == null", "_parameter != null", "_databaseId == null", "names.size() > 0", "names.isEmpty()",
+      "array.length == 3", "username.length() > 2", "map.key == 'value'", "map.size", "names != null and names.size() > 1",
+      "1.5 > id", "id == 1.0", "id <= 1 or username == null", "bio == null || bio.isEmpty()", "true", "username != 'xy'" };
+
+  private static final String[] NOT_COMPILED = { "a + b", "a[0]", "'a' == b", "#this", "@java.lang.Math@max(1, 2)",
+      "a ? b : c", "010", "10L", "a instanceof b", "", "a.", "(a", "a)", "size()", "a == 'x\\'y'", "a in {1, 2}", "-1" };
+
+  private DynamicContext newContext() {
+    Author author = new Author(1, "cbegin", null, "cbegin@apache.org", "", Section.NEWS);
+    DynamicContext context = new DynamicContext(new Configuration(), author);
+    context.bind("names", new ArrayList<>(Arrays.asList("a", "b")));
+    context.bind("array", new int[] { 1, 2, 3 });
+    Map<String, Object> map = new HashMap<>();
+    map.put("key", "value");
+    context.bind("map", map);
+    return context;
+  }
+
+  @Test
+  void shouldCompileTheCommonSubset() {
+    for (String expression : COMPILED) {
+      assertThat(CompiledExpression.compile(expression)).as(expression).isNotNull();
+    }
+    for (String expression : NOT_COMPILED) {
+      assertThat(CompiledExpression.compile(expression)).as(expression).isNull();
+    }
+  }
+
+  @Test
+  void shouldEvaluateLikeOgnl() throws Exception {
+    for (String expression : COMPILED) {
+      if (!expression.equals("favouriteSection == 'NEWS'")) {
+        Map<String, Object> bindings = newContext().getBindings();
+        assertThat(OgnlCache.getValue(expression, bindings)).as(expression).isEqualTo(ognl(expression, bindings));
+      }
+    }
+  }
+
+  @Test
+  void shouldThrowLikeOgnl() {
+    // an enum cannot be compared with a string
+    Map<String, Object> bindings = newContext().getBindings();
+    assertThrows(IllegalArgumentException.class, () -> ognl("favouriteSection == 'NEWS'", bindings));
+    assertThrows(IllegalArgumentException.class, () -> OgnlCache.getValue("favouriteSection == 'NEWS'", bindings));
+  }
+
+  @Test
+  void shouldEvaluateBeanAndMapRootsLikeOgnl() throws Exception {
+    Author author = new Author(2, "sally", "secret", null, null, Section.VIDEOS);
+    for (String expression : new String[] { "username == 'sally'", "id > 1 and email == null", "password.length()" }) {
+      assertThat(OgnlCache.getValue(expression, author)).as(expression).isEqualTo(ognl(expression, author));
+    }
+    Map<String, Object> parameter = Collections.singletonMap("id", 3);
+    for (String expression : new String[] { "id == 3", "other == null", "size" }) {
+      assertThat(OgnlCache.getValue(expression, parameter)).as(expression).isEqualTo(ognl(expression, parameter));
+    }
+  }
+
+  @Test
+  void shouldFallBackToOgnl() {
+    Map<String, Object> bindings = newContext().getBindings();
+    assertThat(CompiledExpression.compile("names.size").getValue(bindings)).isSameAs(CompiledExpression.FALLBACK);
+    assertThat(OgnlCache.getValue("names.size", bindings)).isEqualTo(2);
+    assertThat(CompiledExpression.compile("password.length()").getValue(bindings)).isSameAs(CompiledExpression.FALLBACK);
+    assertThrows(NullPointerException.class, () -> ognl("password.length()", bindings));
+    assertThrows(NullPointerException.class, () -> OgnlCache.getValue("password.length()", bindings));
+    assertThrows(BuilderException.class, () -> OgnlCache.getValue("password.bytes", bindings));
+  }
+
+  private static Object ognl(String expression, Object root) throws Exception {
+    Map<?, ?> context = Ognl.createDefaultContext(root, new OgnlMemberAccess(), new OgnlClassResolver(), null);
+    return Ognl.getValue(Ognl.parseExpression(expression), context, root);
+  }
+
+}
@@ -0,0 +1,293 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class QueryGroupTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"group\">\n"
+      + "  <select id=\"selectUsername\" resultType=\"string\">select username from author where id = #{id}</select>\n"
+      + "  <select id=\"selectAuthor\" resultType=\"org.apache.ibatis.domain.blog.Author\">select id, username, email from author where id = #{id}</select>\n"
+      + "  <select id=\"selectUsernames\" resultType=\"string\">select username from author order by id</select>\n"
+      + "  <select id=\"selectTitles\" resultType=\"string\">\n"
+      + "    select title from blog where author_id in\n"
+      + "    <foreach collection=\"list\" item=\"id\" open=\"(\" separator=\",\" close=\")\">#{id}</foreach>\n"
+      + "    order by id\n"
+      + "  </select>\n"
+      + "</mapper>\n";
+
+  private static Configuration configuration;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "group-mapper", configuration.getSqlFragments()).parse();
+  }
+
+  @Test
+  void shouldRunTheSelectsOfAGroupOnTheSession() {
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      QueryGroup group = session.newQueryGroup();
+      QueryGroup.Result<String> username = group.selectOne("group.selectUsername", 101);
+      QueryGroup.Result<List<String>> usernames = group.selectList("group.selectUsernames");
+      QueryGroup.Result<List<String>> titles = group.selectList("group.selectTitles", Arrays.asList(101, 102));
+      assertThat(group.size()).isEqualTo(3);
+      assertThrows(IllegalStateException.class, username::get);
+      group.execute();
+      assertThat(group.size()).isEqualTo(0);
+      assertThat(username.isDone()).isTrue();
+      assertThat(username.get()).isEqualTo("jim");
+      assertThat(usernames.get()).containsExactly("jim", "sally");
+      assertThat(titles.get()).hasSize(2);
+
+      QueryGroup.Result<String> tooMany = group.selectOne("group.selectUsernames");
+      assertThrows(TooManyResultsException.class, group::execute);
+      assertThat(tooMany.isDone()).isFalse();
+    }
+  }
+
+  @Test
+  void shouldRunTheSelectsOfAGroupInParallel() throws Exception {
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    ThreadPoolExecutor executorService = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+    try (SqlSession session = sqlSessionFactory.openSession(true)) {
+      QueryGroup group = session.newQueryGroup();
+      QueryGroup.Result<String> username = group.selectOne("group.selectUsername", 102);
+      QueryGroup.Result<List<String>> usernames = group.selectList("group.selectUsernames");
+      group.execute(executorService);
+      assertThat(username.get()).isEqualTo("sally");
+      assertThat(usernames.get()).containsExactly("jim", "sally");
+    } finally {
+      executorService.shutdown();
+      executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    assertThat(executorService.getCompletedTaskCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRunTheSelectsOfATransactionOnTheSession() throws Exception {
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    ThreadPoolExecutor executorService = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      QueryGroup group = session.newQueryGroup();
+      QueryGroup.Result<String> username = group.selectOne("group.selectUsername", 102);
+      QueryGroup.Result<List<String>> usernames = group.selectList("group.selectUsernames");
+      group.execute(executorService);
+      assertThat(username.get()).isEqualTo("sally");
+      assertThat(usernames.get()).containsExactly("jim", "sally");
+    } finally {
+      executorService.shutdown();
+      executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    assertThat(executorService.getCompletedTaskCount()).isZero();
+  }
+
+  @Test
+  void shouldSendTheSelectsOfAGroupAsOneStatement() throws Exception {
+    Configuration multipleStatements = new Configuration(configuration.getEnvironment());
+    multipleStatements.setMultipleStatementsEnabled(true);
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), multipleStatements,
+        "group-mapper", multipleStatements.getSqlFragments()).parse();
+    Executor executor = mock(Executor.class);
+    List<BoundSql> executed = new ArrayList<>();
+    when(executor.query(any(MappedStatement.class), isNull(), any(RowBounds.class), isNull())).thenAnswer(invocation -> {
+      MappedStatement ms = invocation.getArgument(0);
+      executed.add(ms.getBoundSql(null));
+      assertThat(ms.getResultMaps()).hasSize(3);
+      return Arrays.asList(Collections.singletonList("jim"), Arrays.asList("jim", "sally"), Arrays.asList("t1", "t2"));
+    });
+    SqlSession session = new DefaultSqlSession(multipleStatements, executor);
+    QueryGroup group = session.newQueryGroup();
+    QueryGroup.Result<String> username = group.selectOne("group.selectUsername", 101);
+    QueryGroup.Result<List<String>> usernames = group.selectList("group.selectUsernames");
+    QueryGroup.Result<List<String>> titles = group.selectList("group.selectTitles", Arrays.asList(101, 102));
+    group.execute();
+
+    assertThat(executed).hasSize(1);
+    BoundSql boundSql = executed.get(0);
+    assertThat(boundSql.getSql().replaceAll("\\s+", " ")).isEqualTo("select username from author where id = ?; "
+        + "select username from author order by id; "
+        + "select title from blog where author_id in ( ? , ? ) order by id");
+    List<Object> values = new ArrayList<>();
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      values.add(boundSql.getAdditionalParameter(parameterMapping.getProperty()));
+    }
+    assertThat(values).containsExactly(101, 101, 102);
+    assertThat(username.get()).isEqualTo("jim");
+    assertThat(usernames.get()).containsExactly("jim", "sally");
+    assertThat(titles.get()).containsExactly("t1", "t2");
+
+    when(executor.query(any(MappedStatement.class), isNull(), any(RowBounds.class), isNull()))
+        .thenReturn(Collections.singletonList("jim"));
+    group.selectOne("group.selectUsername", 101);
+    group.selectList("group.selectUsernames");
+    assertThrows(PersistenceException.class, group::execute);
+  }
+
+  @Test
+  void shouldMapEachResultSetOfTheJoinedStatementWithTheResultMapOfItsSelect() throws Exception {
+    List<String> preparedSql = new ArrayList<>();
+    DataSource dataSource = MultipleResultSetsDataSource.wrap(BaseDataTest.createBlogDataSource(), preparedSql);
+    Configuration multipleStatements = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    multipleStatements.setMultipleStatementsEnabled(true);
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), multipleStatements,
+        "group-mapper", multipleStatements.getSqlFragments()).parse();
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(multipleStatements);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      QueryGroup group = session.newQueryGroup();
+      QueryGroup.Result<Author> author = group.selectOne("group.selectAuthor", 102);
+      QueryGroup.Result<List<String>> usernames = group.selectList("group.selectUsernames");
+      QueryGroup.Result<List<String>> titles = group.selectList("group.selectTitles", Arrays.asList(101, 102));
+      group.execute();
+
+      assertThat(preparedSql).hasSize(1);
+      assertThat(author.get().getId()).isEqualTo(102);
+      assertThat(author.get().getUsername()).isEqualTo("sally");
+      assertThat(author.get().getEmail()).isEqualTo("sally@ibatis.apache.org");
+      assertThat(usernames.get()).containsExactly("jim", "sally");
+      assertThat(titles.get()).containsExactly("Jim Business", "Bally Slog");
+    }
+  }
+
+  /**
+   * Runs the selects of a statement joined with semicolons one after the other, and returns their result sets as the
+   * results of the statement, as a driver supporting multiple statements does.
+   */
+  private static class MultipleResultSetsDataSource {
+
+    static DataSource wrap(DataSource dataSource, List<String> preparedSql) {
+      return proxy(DataSource.class, dataSource, (method, args) -> {
+        Object result = method.invoke(dataSource, args);
+        return result instanceof Connection ? wrap((Connection) result, preparedSql) : result;
+      });
+    }
+
+    private static Connection wrap(Connection connection, List<String> preparedSql) {
+      return proxy(Connection.class, connection, (method, args) -> {
+        if ("prepareStatement".equals(method.getName()) && ((String) args[0]).contains(";")) {
+          preparedSql.add((String) args[0]);
+          List<PreparedStatement> statements = new ArrayList<>();
+          for (String sql : ((String) args[0]).split(";")) {
+            statements.add(connection.prepareStatement(sql));
+          }
+          return joined(statements);
+        }
+        return method.invoke(connection, args);
+      });
+    }
+
+    private static PreparedStatement joined(List<PreparedStatement> statements) throws SQLException {
+      int[] parameterCounts = new int[statements.size()];
+      for (int i = 0; i < statements.size(); i++) {
+        parameterCounts[i] = statements.get(i).getParameterMetaData().getParameterCount();
+      }
+      int[] current = { 0 };
+      return proxy(PreparedStatement.class, statements.get(0), (method, args) -> {
+        String name = method.getName();
+        if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+          int index = (Integer) args[0];
+          int statement = 0;
+          while (index > parameterCounts[statement]) {
+            index -= parameterCounts[statement++];
+          }
+          Object[] shifted = args.clone();
+          shifted[0] = index;
+          return method.invoke(statements.get(statement), shifted);
+        }
+        switch (name) {
+          case "execute":
+            for (PreparedStatement statement : statements) {
+              statement.execute();
+            }
+            current[0] = 0;
+            return true;
+          case "getResultSet":
+            return current[0] < statements.size() ? statements.get(current[0]).getResultSet() : null;
+          case "getMoreResults":
+            current[0]++;
+            return current[0] < statements.size();
+          case "getUpdateCount":
+            return -1;
+          default:
+            Object result = null;
+            for (PreparedStatement statement : statements) {
+              result = method.invoke(statement, args);
+            }
+            return result;
+        }
+      });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+      return (T) Proxy.newProxyInstance(QueryGroupTest.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+        try {
+          return invocation.invoke(method, args);
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        }
+      });
+    }
+
+    private interface Invocation {
+      Object invoke(Method method, Object[] args) throws Throwable;
+    }
+  }
+
+}
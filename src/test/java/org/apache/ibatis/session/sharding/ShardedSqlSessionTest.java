@@ -0,0 +1,158 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedSqlSessionTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"shard\">\n"
+      + "  <insert id=\"insertCustomer\" shardKey=\"id\">insert into customer (id, name) values (#{id}, #{name})</insert>\n"
+      + "  <select id=\"selectName\" shardKey=\"id\" resultType=\"string\">select name from customer where id = #{id}</select>\n"
+      + "  <select id=\"selectIds\" resultType=\"int\">select id from customer order by id</select>\n"
+      + "  <select id=\"countCustomers\" resultType=\"long\">select count(*) from customer</select>\n"
+      + "  <select id=\"selectMissing\" resultType=\"int\">select id from missing</select>\n"
+      + "  <update id=\"renameAll\">update customer set name = #{name}</update>\n"
+      + "  <insert id=\"insertUnkeyed\">insert into customer (id, name) values (#{id}, #{name})</insert>\n"
+      + "  <delete id=\"deleteAll\">delete from customer</delete>\n"
+      + "</mapper>\n";
+
+  private List<DataSource> shards;
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    shards = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      DataSource dataSource = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:shard" + i, "sa", "");
+      try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+        statement.execute("drop table customer if exists");
+        statement.execute("create table customer (id int, name varchar(20))");
+      }
+      shards.add(dataSource);
+    }
+    configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), shards.get(0)));
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "shard-mapper", configuration.getSqlFragments()).parse();
+    try (ShardedSqlSession session = new ShardedSqlSessionFactory(configuration, shards).openSession()) {
+      for (int id = 1; id <= 9; id++) {
+        Map<String, Object> customer = new HashMap<>();
+        customer.put("id", id);
+        customer.put("name", "customer" + id);
+        assertThat(session.insert("shard.insertCustomer", customer)).isEqualTo(1);
+      }
+      session.commit();
+    }
+  }
+
+  @Test
+  void shouldRouteStatementsByShardKey() {
+    try (ShardedSqlSession session = new ShardedSqlSessionFactory(configuration, shards).openSession()) {
+      assertThat(session.getShard(0).<Integer>selectList("shard.selectIds")).containsExactly(3, 6, 9);
+      assertThat(session.getShard(1).<Integer>selectList("shard.selectIds")).containsExactly(1, 4, 7);
+      assertThat(session.getShardFor(8).<Integer>selectList("shard.selectIds")).containsExactly(2, 5, 8);
+      assertThat(session.<String>selectOne("shard.selectName", 5)).isEqualTo("customer5");
+      assertThrows(ShardingException.class, () -> session.selectOne("shard.selectName", null));
+    }
+  }
+
+  @Test
+  void shouldScatterAndGatherBroadcastQueries() throws Exception {
+    try (ShardedSqlSession session = new ShardedSqlSessionFactory(configuration, shards).openSession()) {
+      assertThat(session.<Integer>selectList("shard.selectIds")).containsExactly(3, 6, 9, 1, 4, 7, 2, 5, 8);
+      assertThat(session.<Integer>selectList("shard.selectIds", null, new RowBounds(1, 4))).containsExactly(6, 9, 1, 4);
+      assertThat(session.<Integer>selectList("shard.selectIds", null, Comparator.naturalOrder()))
+          .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+      assertThat(session.<Integer>selectList("shard.selectIds", null, Arrays.asList(1, 2), Comparator.naturalOrder()))
+          .containsExactly(1, 2, 4, 5, 7, 8);
+      assertThat(session.<Long>selectAggregate("shard.countCustomers", null, Long::sum)).isEqualTo(9L);
+      try (Cursor<Integer> cursor = session.selectCursor("shard.selectIds", null, Comparator.<Integer>naturalOrder())) {
+        List<Integer> ids = new ArrayList<>();
+        cursor.forEach(ids::add);
+        assertThat(ids).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(cursor.getCurrentIndex()).isEqualTo(8);
+        assertThat(cursor.isConsumed()).isTrue();
+      }
+      assertThat(session.updateAllShards("shard.renameAll", "renamed")).isEqualTo(9);
+      session.rollback();
+    }
+  }
+
+  @Test
+  void shouldNotBroadcastWritesWithoutShardKey() {
+    try (ShardedSqlSession session = new ShardedSqlSessionFactory(configuration, shards).openSession()) {
+      Map<String, Object> customer = new HashMap<>();
+      customer.put("id", 10);
+      customer.put("name", "ten");
+      ShardingException e = assertThrows(ShardingException.class, () -> session.insert("shard.insertUnkeyed", customer));
+      assertThat(e.getMessage()).contains("insert must be sent to a single shard");
+      e = assertThrows(ShardingException.class, () -> session.update("shard.renameAll", "renamed"));
+      assertThat(e.getMessage()).contains("updateAllShards()");
+      e = assertThrows(ShardingException.class, () -> session.delete("shard.deleteAll"));
+      assertThat(e.getMessage()).contains("deleteAllShards()");
+      assertThat(session.<Long>selectAggregate("shard.countCustomers", null, Long::sum)).isEqualTo(9L);
+      assertThat(session.deleteAllShards("shard.deleteAll", null)).isEqualTo(9);
+      session.rollback();
+    }
+  }
+
+  @Test
+  void shouldQueryTheShardsInParallel() {
+    ExecutorService executorService = Executors.newFixedThreadPool(3);
+    try (ShardedSqlSession session = new ShardedSqlSessionFactory(configuration, shards, new HashShardingStrategy(),
+        executorService).openSession()) {
+      assertThat(session.<Integer>selectList("shard.selectIds", null, Comparator.naturalOrder()))
+          .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+      assertThat(session.<Long>selectAggregate("shard.countCustomers", null, Long::sum)).isEqualTo(9L);
+      ShardingException e = assertThrows(ShardingException.class, () -> session.selectList("shard.selectMissing"));
+      assertThat(e.getMessage()).startsWith("Error executing 'shard.selectMissing' on shard 0.");
+      assertThat(e.getCause()).isInstanceOf(PersistenceException.class);
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+}
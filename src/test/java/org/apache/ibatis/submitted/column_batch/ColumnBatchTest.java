@@ -0,0 +1,168 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.column_batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.result.ColumnBatch;
+import org.apache.ibatis.executor.result.ColumnBatch.ColumnKind;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ColumnBatchResultHandler;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnBatchTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/column_batch/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/column_batch/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReadColumnsIntoPrimitiveArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingHandler handler = new RecordingHandler(10);
+      sqlSession.getMapper(Mapper.class).scanSales(handler);
+
+      assertEquals(Arrays.asList(5), handler.batchSizes);
+      ColumnBatch batch = handler.lastBatch;
+      assertEquals(ColumnKind.INT, batch.getColumnKind(batch.indexOf("id")));
+      assertEquals(ColumnKind.LONG, batch.getColumnKind(batch.indexOf("quantity")));
+      assertEquals(ColumnKind.DOUBLE, batch.getColumnKind(batch.indexOf("amount")));
+      assertEquals(ColumnKind.STRING, batch.getColumnKind(batch.indexOf("region")));
+      assertEquals(ColumnKind.OBJECT, batch.getColumnKind(batch.indexOf("sold_on")));
+
+      assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, Arrays.copyOf(batch.getInts(0), batch.size()));
+      assertEquals(20L, batch.getLongs(1)[1]);
+      assertTrue(batch.isNull(1, 2));
+      assertEquals(3.5d, batch.getDoubles(2)[2]);
+      assertTrue(batch.isNull(2, 3));
+      assertEquals(Arrays.asList("north", "south"), batch.getDictionary(3));
+      assertArrayEquals(new int[] { 0, 1, 0, -1, 1 }, Arrays.copyOf(batch.getStringCodes(3), batch.size()));
+      assertNull(batch.getString(3, 3));
+      assertEquals(Date.valueOf("2020-01-05"), batch.getObjects(4)[4]);
+      assertTrue(batch.isNull(4, 3));
+    }
+  }
+
+  @Test
+  void shouldSplitRowsIntoBatchesAndKeepDictionary() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingHandler handler = new RecordingHandler(2);
+      sqlSession.getMapper(Mapper.class).scanSales(handler);
+
+      assertEquals(Arrays.asList(2, 2, 1), handler.batchSizes);
+      assertEquals(Arrays.asList(1, 2, 3, 4, 5), handler.ids);
+      assertEquals(Arrays.asList("north", "south", "north", null, "south"), handler.regions);
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingHandler handler = new RecordingHandler(10);
+      sqlSession.getMapper(Mapper.class).scanSalesWithRowBounds(new RowBounds(1, 3), handler);
+
+      assertEquals(Arrays.asList(2, 3, 4), handler.ids);
+    }
+  }
+
+  @Test
+  void shouldRejectWrongColumnKind() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingHandler handler = new RecordingHandler(10);
+      sqlSession.getMapper(Mapper.class).scanSales(handler);
+
+      assertThrows(IllegalArgumentException.class, () -> handler.lastBatch.getLongs(0));
+      assertFalse(handler.lastBatch.isEmpty());
+    }
+  }
+
+  @Test
+  void shouldRejectNestedSelectsBeforeRunningTheStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      RecordingHandler handler = new RecordingHandler(10);
+      PersistenceException e = assertThrows(PersistenceException.class,
+          () -> sqlSession.getMapper(Mapper.class).scanSalesWithNestedSelect(handler));
+
+      assertTrue(e.getCause() instanceof ExecutorException);
+      assertTrue(e.getMessage().contains("cannot be read with a ColumnBatchResultHandler"));
+      assertTrue(handler.batchSizes.isEmpty());
+    }
+  }
+
+  @Test
+  void shouldRejectMappedResultsFromOtherResultSetHandlers() {
+    RecordingHandler handler = new RecordingHandler(10);
+    DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    resultContext.nextResultObject(Collections.singletonMap("id", 1));
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    ExecutorException e = assertThrows(ExecutorException.class, () -> ((ResultHandler) handler).handleResult(resultContext));
+    assertTrue(e.getMessage().contains("expects column batches"));
+  }
+
+  private static class RecordingHandler extends ColumnBatchResultHandler {
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<Integer> ids = new ArrayList<>();
+    private final List<String> regions = new ArrayList<>();
+    private ColumnBatch lastBatch;
+
+    RecordingHandler(int batchSize) {
+      super(batchSize);
+    }
+
+    @Override
+    public void handleBatch(ColumnBatch batch) {
+      batchSizes.add(batch.size());
+      for (int row = 0; row < batch.size(); row++) {
+        ids.add(batch.getInts(0)[row]);
+        regions.add(batch.getString(3, row));
+      }
+      lastBatch = batch;
+    }
+  }
+
+}
@@ -0,0 +1,31 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table sales if exists;
+
+create table sales (
+  id int,
+  quantity bigint,
+  amount double,
+  region varchar(20),
+  sold_on date
+);
+
+insert into sales values(1, 10, 1.5, 'north', '2020-01-01');
+insert into sales values(2, 20, 2.5, 'south', '2020-01-02');
+insert into sales values(3, null, 3.5, 'north', '2020-01-03');
+insert into sales values(4, 40, null, null, null);
+insert into sales values(5, 50, 5.5, 'south', '2020-01-05');
@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.column_batch;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Many;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.executor.result.ColumnBatchResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+public interface Mapper {
+
+  @Select("select id, quantity, amount, region, sold_on from sales order by id")
+  @ResultType(Map.class)
+  void scanSales(ColumnBatchResultHandler handler);
+
+  @Select("select id, quantity, amount, region, sold_on from sales order by id")
+  @ResultType(Map.class)
+  void scanSalesWithRowBounds(RowBounds rowBounds, ColumnBatchResultHandler handler);
+
+  @Select("select id, region from sales order by id")
+  @ResultType(Map.class)
+  @Results({
+      @Result(property = "id", column = "id", id = true),
+      @Result(property = "sales", column = "region", many = @Many(select = "selectSalesByRegion"))
+  })
+  void scanSalesWithNestedSelect(ColumnBatchResultHandler handler);
+
+  @Select("select id, quantity, amount, region, sold_on from sales where region = #{region}")
+  List<Map<String, Object>> selectSalesByRegion(String region);
+
+}
@@ -0,0 +1,182 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+class CursorPublisherTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_simple/CreateDB.sql");
+  }
+
+  @Test
+  void shouldEmitAllUsersOnUnboundedDemand() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Publisher<User> publisher = sqlSession.getMapper(Mapper.class).getAllUsersAsPublisher();
+      RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+      publisher.subscribe(subscriber);
+
+      assertEquals(5, subscriber.users.size());
+      assertEquals("User1", subscriber.users.get(0).getName());
+      assertEquals("User5", subscriber.users.get(4).getName());
+      assertTrue(subscriber.completed);
+      assertNull(subscriber.error);
+    }
+  }
+
+  @Test
+  void shouldHonorDemand() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Publisher<User> publisher = sqlSession.getMapper(Mapper.class).getAllUsersAsPublisher();
+      RecordingSubscriber subscriber = new RecordingSubscriber(0);
+      publisher.subscribe(subscriber);
+      assertEquals(0, subscriber.users.size());
+
+      subscriber.subscription.request(2);
+      assertEquals(2, subscriber.users.size());
+      assertFalse(subscriber.completed);
+
+      subscriber.subscription.request(3);
+      assertEquals(5, subscriber.users.size());
+      assertFalse(subscriber.completed);
+
+      subscriber.subscription.request(1);
+      assertEquals(5, subscriber.users.size());
+      assertTrue(subscriber.completed);
+    }
+  }
+
+  @Test
+  void shouldStopEmittingOnCancel() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Publisher<User> publisher = sqlSession.getMapper(Mapper.class).getAllUsersAsPublisher();
+      RecordingSubscriber subscriber = new RecordingSubscriber(1);
+      publisher.subscribe(subscriber);
+      assertEquals(1, subscriber.users.size());
+
+      subscriber.subscription.cancel();
+      subscriber.subscription.request(10);
+      assertEquals(1, subscriber.users.size());
+      assertFalse(subscriber.completed);
+      assertNull(subscriber.error);
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Publisher<User> publisher = sqlSession.getMapper(Mapper.class).getUsersAsPublisher(new RowBounds(1, 2));
+      RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+      publisher.subscribe(subscriber);
+
+      assertEquals(2, subscriber.users.size());
+      assertEquals("User2", subscriber.users.get(0).getName());
+      assertEquals("User3", subscriber.users.get(1).getName());
+      assertTrue(subscriber.completed);
+    }
+  }
+
+  @Test
+  void shouldSignalErrorOnNonPositiveRequest() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Publisher<User> publisher = sqlSession.getMapper(Mapper.class).getAllUsersAsPublisher();
+      RecordingSubscriber subscriber = new RecordingSubscriber(0);
+      publisher.subscribe(subscriber);
+      subscriber.subscription.request(0);
+
+      assertTrue(subscriber.error instanceof IllegalArgumentException);
+      assertFalse(subscriber.completed);
+    }
+  }
+
+  @Test
+  void shouldRejectSecondSubscriber() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Publisher<User> publisher = sqlSession.getMapper(Mapper.class).getAllUsersAsPublisher();
+      publisher.subscribe(new RecordingSubscriber(0));
+      RecordingSubscriber second = new RecordingSubscriber(Long.MAX_VALUE);
+      publisher.subscribe(second);
+
+      assertTrue(second.error instanceof IllegalStateException);
+      assertEquals(0, second.users.size());
+    }
+  }
+
+  private static class RecordingSubscriber implements Subscriber<User> {
+
+    private final long initialRequest;
+    private final List<User> users = new ArrayList<>();
+    private Subscription subscription;
+    private boolean completed;
+    private Throwable error;
+
+    RecordingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0) {
+        subscription.request(initialRequest);
+      }
+    }
+
+    @Override
+    public void onNext(User user) {
+      users.add(user);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
+}
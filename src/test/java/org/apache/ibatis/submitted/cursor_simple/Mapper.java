@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.session.RowBounds;
+import org.reactivestreams.Publisher;
 
 public interface Mapper {
 
@@ -38,4 +39,10 @@ public interface Mapper {
   @Select("select * from users")
   @Options(fetchSize = Integer.MIN_VALUE)
   Cursor<User> getUsersMysqlStream();
+
+  @Select("select * from users order by id")
+  Publisher<User> getAllUsersAsPublisher();
+
+  @Select("select * from users order by id")
+  Publisher<User> getUsersAsPublisher(RowBounds rowBounds);
 }
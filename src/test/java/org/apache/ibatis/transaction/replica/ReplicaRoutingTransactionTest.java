@@ -0,0 +1,258 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRoutingTransactionTest {
+
+  private static final String MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"replica\">\n"
+      + "  <select id=\"selectOrigin\" resultType=\"string\">select origin from node</select>\n"
+      + "  <insert id=\"insertItem\">\n"
+      + "    <selectKey keyProperty=\"id\" resultType=\"int\" order=\"BEFORE\">select count(*) + 1 from item</selectKey>\n"
+      + "    insert into item (id) values (#{id})\n"
+      + "  </insert>\n"
+      + "</mapper>\n";
+
+  private DataSource primary;
+  private DataSource replica;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    primary = createDatabase("replica_primary", "primary");
+    replica = createDatabase("replica_one", "replica");
+  }
+
+  private static DataSource createDatabase(String name, String origin) throws SQLException {
+    DataSource dataSource = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:" + name, "sa", "");
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("drop table node if exists");
+      statement.execute("drop table item if exists");
+      statement.execute("create table node (origin varchar(20))");
+      statement.execute("create table item (id int)");
+      statement.execute("insert into node values ('" + origin + "')");
+    }
+    return dataSource;
+  }
+
+  private static int countItems(DataSource dataSource) throws SQLException {
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select count(*) from item")) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
+  private SqlSessionFactory newSqlSessionFactory(boolean readYourWrites) {
+    return newSqlSessionFactory(readYourWrites, replica);
+  }
+
+  private SqlSessionFactory newSqlSessionFactory(boolean readYourWrites, DataSource replica) {
+    Environment environment = new Environment.Builder("test")
+        .transactionFactory(new JdbcTransactionFactory())
+        .dataSource(primary)
+        .replicaDataSources(Arrays.asList(replica))
+        .readYourWrites(readYourWrites)
+        .build();
+    Configuration configuration = new Configuration(environment);
+    new XMLMapperBuilder(new ByteArrayInputStream(MAPPER.getBytes(StandardCharsets.UTF_8)), configuration,
+        "replica-mapper", configuration.getSqlFragments()).parse();
+    return new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @Test
+  void shouldReadFromTheReplicaAfterWritingWithoutReadYourWrites() throws SQLException {
+    for (ExecutorType executorType : ExecutorType.values()) {
+      try (SqlSession session = newSqlSessionFactory(false).openSession(executorType, true)) {
+        assertThat(session.<String>selectOne("replica.selectOrigin")).as(executorType.name()).isEqualTo("replica");
+        session.insert("replica.insertItem", new Item());
+        session.clearCache();
+        assertThat(session.<String>selectOne("replica.selectOrigin")).as(executorType.name()).isEqualTo("replica");
+      }
+    }
+    assertThat(countItems(primary)).isEqualTo(ExecutorType.values().length);
+    assertThat(countItems(replica)).isZero();
+  }
+
+  @Test
+  void shouldKeepReadingFromThePrimaryAfterWritingWithReadYourWrites() {
+    try (SqlSession session = newSqlSessionFactory(true).openSession(true)) {
+      assertThat(session.<String>selectOne("replica.selectOrigin")).isEqualTo("replica");
+      Item item = new Item();
+      session.insert("replica.insertItem", item);
+      assertThat(item.getId()).isEqualTo(1);
+      assertThat(session.<String>selectOne("replica.selectOrigin")).isEqualTo("primary");
+    }
+    try (SqlSession session = newSqlSessionFactory(true).openSession(true)) {
+      session.setReadYourWrites(false);
+      session.insert("replica.insertItem", new Item());
+      assertThat(session.<String>selectOne("replica.selectOrigin")).isEqualTo("replica");
+    }
+  }
+
+  @Test
+  void shouldReuseTheStatementsOfAPooledReplica() {
+    PooledDataSource pooledReplica = new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:replica_one", "sa", "");
+    pooledReplica.setPoolMaximumCachedStatements(10);
+    try (SqlSession session = newSqlSessionFactory(false, pooledReplica).openSession(ExecutorType.REUSE, true)) {
+      for (int i = 0; i < 3; i++) {
+        session.clearCache();
+        assertThat(session.<String>selectOne("replica.selectOrigin")).isEqualTo("replica");
+      }
+    } finally {
+      pooledReplica.forceCloseAll();
+    }
+    assertThat(pooledReplica.getPoolState().getStatementCacheMissCount()).isEqualTo(1);
+    assertThat(pooledReplica.getPoolState().getStatementCacheHitCount()).isZero();
+  }
+
+  @Test
+  void shouldReadFromThePrimaryInTransactionsOpenedBeforeTheFirstWrite() {
+    for (ExecutorType executorType : ExecutorType.values()) {
+      try (SqlSession session = newSqlSessionFactory(false).openSession(executorType)) {
+        assertThat(session.<String>selectOne("replica.selectOrigin")).as(executorType.name()).isEqualTo("primary");
+        session.insert("replica.insertItem", new Item());
+        session.commit();
+        session.clearCache();
+        assertThat(session.<String>selectOne("replica.selectOrigin")).as(executorType.name()).isEqualTo("primary");
+      }
+    }
+  }
+
+  @Test
+  void shouldReturnThePrimaryConnectionFromTheSession() throws SQLException {
+    try (SqlSession session = newSqlSessionFactory(false).openSession(true)) {
+      session.selectOne("replica.selectOrigin");
+      try (Statement statement = session.getConnection().createStatement();
+          ResultSet rs = statement.executeQuery("select origin from node")) {
+        assertThat(rs.next()).isTrue();
+        assertThat(rs.getString(1)).isEqualTo("primary");
+      }
+    }
+  }
+
+  @Test
+  void shouldParseTheReplicasOfTheEnvironment() {
+    String config = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+        + "<configuration>\n"
+        + "  <environments default=\"development\">\n"
+        + "    <environment id=\"development\">\n"
+        + "      <transactionManager type=\"JDBC\"/>\n"
+        + "      <dataSource type=\"UNPOOLED\">\n"
+        + "        <property name=\"driver\" value=\"org.hsqldb.jdbcDriver\"/>\n"
+        + "        <property name=\"url\" value=\"jdbc:hsqldb:mem:replica_primary\"/>\n"
+        + "      </dataSource>\n"
+        + "      <replicas selector=\"LEAST_ACTIVE\" readYourWrites=\"true\">\n"
+        + "        <dataSource type=\"POOLED\">\n"
+        + "          <property name=\"driver\" value=\"org.hsqldb.jdbcDriver\"/>\n"
+        + "          <property name=\"url\" value=\"jdbc:hsqldb:mem:replica_one\"/>\n"
+        + "        </dataSource>\n"
+        + "        <dataSource type=\"UNPOOLED\">\n"
+        + "          <property name=\"driver\" value=\"org.hsqldb.jdbcDriver\"/>\n"
+        + "          <property name=\"url\" value=\"jdbc:hsqldb:mem:replica_two\"/>\n"
+        + "        </dataSource>\n"
+        + "      </replicas>\n"
+        + "    </environment>\n"
+        + "  </environments>\n"
+        + "</configuration>\n";
+    Environment environment = new XMLConfigBuilder(new StringReader(config)).parse().getEnvironment();
+    assertThat(environment.hasReplicas()).isTrue();
+    assertThat(environment.getReplicaDataSources()).hasSize(2);
+    assertThat(environment.getReplicaSelector()).isInstanceOf(LeastActiveReplicaSelector.class);
+    assertThat(environment.isReadYourWrites()).isTrue();
+  }
+
+  @Test
+  void shouldSelectTheReplicasInTurn() {
+    List<DataSource> replicas = Arrays.asList(new UnpooledDataSource(), new UnpooledDataSource(), new UnpooledDataSource());
+    RoundRobinReplicaSelector selector = new RoundRobinReplicaSelector();
+    for (int i = 0; i < 6; i++) {
+      assertThat(selector.select(replicas)).isSameAs(replicas.get(i % 3));
+    }
+  }
+
+  @Test
+  void shouldSelectTheLeastActiveReplica() {
+    List<DataSource> replicas = Arrays.asList(new UnpooledDataSource(), new UnpooledDataSource());
+    LeastActiveReplicaSelector selector = new LeastActiveReplicaSelector();
+    DataSource first = selector.select(replicas);
+    DataSource second = selector.select(replicas);
+    assertThat(second).isNotSameAs(first);
+    selector.release(first);
+    assertThat(selector.select(replicas)).isSameAs(first);
+    assertThat(selector.select(replicas)).isIn(replicas);
+  }
+
+  @Test
+  void shouldPreferTheFastestReplicas() {
+    List<DataSource> replicas = Arrays.asList(new UnpooledDataSource(), new UnpooledDataSource());
+    LatencyWeightedReplicaSelector selector = new LatencyWeightedReplicaSelector();
+    assertThat(selector.select(replicas)).isSameAs(replicas.get(0));
+    selector.recordLatency(replicas.get(0), 1_000_000_000L);
+    assertThat(selector.select(replicas)).isSameAs(replicas.get(1));
+    selector.recordLatency(replicas.get(1), 1_000_000L);
+    int fastest = 0;
+    for (int i = 0; i < 100; i++) {
+      if (selector.select(replicas) == replicas.get(1)) {
+        fastest++;
+      }
+    }
+    assertThat(fastest).isGreaterThan(90);
+    assertThat(selector.getAverageLatency(replicas.get(1))).isEqualTo(1_000_000d);
+  }
+
+  public static class Item {
+    private Integer id;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+  }
+
+}